@@ -2,9 +2,9 @@ package com.savo.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@Async
+@EnableScheduling
 @SpringBootApplication
 public class SavoBackendApplication {
 
@@ -0,0 +1,77 @@
+package com.savo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    // Off means every read goes to the database and Redis is never contacted
+    private boolean enabled = true;
+
+    // Per-cache entry TTLs in seconds, keyed by cache name; caches not listed use defaultTtlSeconds
+    private Map<String, Long> ttlSeconds = new HashMap<>(Map.of(
+            "categories", 3600L,
+            "bank-accounts", 3600L,
+            "upload-history", 120L));
+    private long defaultTtlSeconds = 600;
+
+    // In-process L1 in front of Redis: users kept per cache, and an upper bound on how long an entry is trusted
+    private int localMaxUsers = 10_000;
+    private long localTtlSeconds = 60;
+
+    // Pub/sub channel other replicas listen on to drop their L1 entries
+    private String invalidationChannel = "savo:cache:invalidate";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Long> getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(Map<String, Long> ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public long getDefaultTtlSeconds() {
+        return defaultTtlSeconds;
+    }
+
+    public void setDefaultTtlSeconds(long defaultTtlSeconds) {
+        this.defaultTtlSeconds = defaultTtlSeconds;
+    }
+
+    public int getLocalMaxUsers() {
+        return localMaxUsers;
+    }
+
+    public void setLocalMaxUsers(int localMaxUsers) {
+        this.localMaxUsers = localMaxUsers;
+    }
+
+    public long getLocalTtlSeconds() {
+        return localTtlSeconds;
+    }
+
+    public void setLocalTtlSeconds(long localTtlSeconds) {
+        this.localTtlSeconds = localTtlSeconds;
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    public void setInvalidationChannel(String invalidationChannel) {
+        this.invalidationChannel = invalidationChannel;
+    }
+}
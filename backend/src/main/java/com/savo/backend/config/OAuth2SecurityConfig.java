@@ -4,6 +4,7 @@ import com.savo.backend.security.JwtAuthenticationEntryPoint;
 import com.savo.backend.security.JwtAuthenticationFilter;
 import com.savo.backend.security.OAuth2AuthenticationFailureHandler;
 import com.savo.backend.security.OAuth2AuthenticationSuccessHandler;
+import com.savo.backend.security.RateLimitFilter;
 import com.savo.backend.service.CustomOAuth2UserService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,17 +30,20 @@ public class OAuth2SecurityConfig {
     private final OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
+    private final RateLimitFilter rateLimitFilter;
 
     public OAuth2SecurityConfig(CustomOAuth2UserService customOAuth2UserService,
                                 OAuth2AuthenticationSuccessHandler oAuth2AuthenticationSuccessHandler,
                                 OAuth2AuthenticationFailureHandler oAuth2AuthenticationFailureHandler,
                                 JwtAuthenticationFilter jwtAuthenticationFilter,
-                                JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint) {
+                                JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
+                                RateLimitFilter rateLimitFilter) {
         this.customOAuth2UserService = customOAuth2UserService;
         this.oAuth2AuthenticationSuccessHandler = oAuth2AuthenticationSuccessHandler;
         this.oAuth2AuthenticationFailureHandler = oAuth2AuthenticationFailureHandler;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -75,7 +79,9 @@ public class OAuth2SecurityConfig {
                         .failureHandler(oAuth2AuthenticationFailureHandler)
                 )
 
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // After JWT authentication so per-user budgets know the user
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
@@ -94,7 +100,7 @@ public class OAuth2SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties) {
+        return new BCryptPasswordEncoder(passwordHashingProperties.getStrength());
     }
 }
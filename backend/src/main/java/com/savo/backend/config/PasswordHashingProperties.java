@@ -0,0 +1,51 @@
+package com.savo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.password-hashing")
+public class PasswordHashingProperties {
+
+    // BCrypt cost for new hashes; stored hashes below it are re-encoded on the next successful login
+    private int strength = 10;
+
+    // Hashing is CPU-bound, so the pool stays below the core count to leave room for other requests
+    private int poolSize = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private int queueCapacity = 100;
+
+    // How long a request waits for its hash, queueing included, before giving up with 503
+    private long timeoutMillis = 5_000;
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public void setStrength(int strength) {
+        this.strength = strength;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+}
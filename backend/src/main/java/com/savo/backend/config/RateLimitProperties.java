@@ -0,0 +1,127 @@
+package com.savo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // "memory" keeps buckets per replica; "redis" shares them across the cluster
+    private String store = "memory";
+
+    // A request must fit every matching rule; client rules are checked before global ones
+    private List<Rule> rules = new ArrayList<>(List.of(
+            new Rule("upload", "POST", "/api/v1/users/statements/upload", Scope.USER, 3, 6),
+            new Rule("upload-global", "POST", "/api/v1/users/statements/upload", Scope.GLOBAL, 20, 60),
+            new Rule("retry", "POST", "/api/v1/users/statements/*/retry", Scope.USER, 3, 6),
+            new Rule("login", "POST", "/api/v1/auth/login", Scope.IP, 10, 10),
+            new Rule("register", "POST", "/api/v1/auth/register", Scope.IP, 5, 5),
+            new Rule("auth-global", "POST", "/api/v1/auth/*", Scope.GLOBAL, 100, 600)));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    // Whose requests share a bucket; USER falls back to the client IP for anonymous requests
+    public enum Scope {
+        USER,
+        IP,
+        GLOBAL
+    }
+
+    public static class Rule {
+        private String name;
+        private String method;
+        private String path;
+        private Scope scope = Scope.USER;
+
+        // Burst size, and tokens added back per minute
+        private int capacity;
+        private int refillPerMinute;
+
+        public Rule() {}
+
+        public Rule(String name, String method, String path, Scope scope, int capacity, int refillPerMinute) {
+            this.name = name;
+            this.method = method;
+            this.path = path;
+            this.scope = scope;
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Scope getScope() {
+            return scope;
+        }
+
+        public void setScope(Scope scope) {
+            this.scope = scope;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public int getRefillPerMinute() {
+            return refillPerMinute;
+        }
+
+        public void setRefillPerMinute(int refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
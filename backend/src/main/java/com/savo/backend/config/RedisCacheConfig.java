@@ -0,0 +1,25 @@
+package com.savo.backend.config;
+
+import com.savo.backend.service.DistributedCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class RedisCacheConfig {
+
+    // Delivers other replicas' evictions to DistributedCache so their L1 copies are dropped here too
+    @Bean
+    @ConditionalOnProperty(prefix = "app.cache", name = "enabled", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           DistributedCache distributedCache,
+                                                                           CacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(distributedCache, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        return container;
+    }
+}
@@ -13,6 +13,12 @@ public class S3Properties {
     private int urlExpirationMinutes = 60;
     private String folderStructure = "{folder}/{userId}/{year}/{month}/{day}";
 
+    // Local copies of recently uploaded files so processing can skip the S3 download
+    private boolean localCacheEnabled = true;
+    private String localCacheDirectory = System.getProperty("java.io.tmpdir") + "/savo-file-cache";
+    private int localCacheMaxEntries = 100;
+    private int localCacheTtlMinutes = 30;
+
     public String getBucket() {
         return bucket;
     }
@@ -52,4 +58,36 @@ public class S3Properties {
     public void setFolderStructure(String folderStructure) {
         this.folderStructure = folderStructure;
     }
+
+    public boolean isLocalCacheEnabled() {
+        return localCacheEnabled;
+    }
+
+    public void setLocalCacheEnabled(boolean localCacheEnabled) {
+        this.localCacheEnabled = localCacheEnabled;
+    }
+
+    public String getLocalCacheDirectory() {
+        return localCacheDirectory;
+    }
+
+    public void setLocalCacheDirectory(String localCacheDirectory) {
+        this.localCacheDirectory = localCacheDirectory;
+    }
+
+    public int getLocalCacheMaxEntries() {
+        return localCacheMaxEntries;
+    }
+
+    public void setLocalCacheMaxEntries(int localCacheMaxEntries) {
+        this.localCacheMaxEntries = localCacheMaxEntries;
+    }
+
+    public int getLocalCacheTtlMinutes() {
+        return localCacheTtlMinutes;
+    }
+
+    public void setLocalCacheTtlMinutes(int localCacheTtlMinutes) {
+        this.localCacheTtlMinutes = localCacheTtlMinutes;
+    }
 }
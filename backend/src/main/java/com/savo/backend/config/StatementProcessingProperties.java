@@ -0,0 +1,125 @@
+package com.savo.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.statement-processing")
+public class StatementProcessingProperties {
+
+    private int poolSize = 4;
+    private int queueCapacity = 50;
+    private int maxConcurrentPerUser = 3;
+    private int shutdownTimeoutSeconds = 30;
+
+    // Durable job queue
+    private int leaseSeconds = 300;
+    private int maxAttempts = 3;
+    private int retryBaseDelaySeconds = 30;
+    private int stuckUploadMinutes = 30;
+
+    // Rows per JDBC batch when importing parsed transactions
+    private int insertBatchSize = 500;
+
+    // PDF text extraction: documents with at least this many pages are split across extraction threads
+    private int extractionThreads = Runtime.getRuntime().availableProcessors();
+    private int parallelExtractionMinPages = 12;
+    // Page ranges waiting for an extraction thread; when full, documents are extracted on the calling thread
+    private int extractionQueueCapacity = 16;
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxConcurrentPerUser() {
+        return maxConcurrentPerUser;
+    }
+
+    public void setMaxConcurrentPerUser(int maxConcurrentPerUser) {
+        this.maxConcurrentPerUser = maxConcurrentPerUser;
+    }
+
+    public int getShutdownTimeoutSeconds() {
+        return shutdownTimeoutSeconds;
+    }
+
+    public void setShutdownTimeoutSeconds(int shutdownTimeoutSeconds) {
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+    }
+
+    public int getLeaseSeconds() {
+        return leaseSeconds;
+    }
+
+    public void setLeaseSeconds(int leaseSeconds) {
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getRetryBaseDelaySeconds() {
+        return retryBaseDelaySeconds;
+    }
+
+    public void setRetryBaseDelaySeconds(int retryBaseDelaySeconds) {
+        this.retryBaseDelaySeconds = retryBaseDelaySeconds;
+    }
+
+    public int getStuckUploadMinutes() {
+        return stuckUploadMinutes;
+    }
+
+    public void setStuckUploadMinutes(int stuckUploadMinutes) {
+        this.stuckUploadMinutes = stuckUploadMinutes;
+    }
+
+    public int getInsertBatchSize() {
+        return insertBatchSize;
+    }
+
+    public void setInsertBatchSize(int insertBatchSize) {
+        this.insertBatchSize = insertBatchSize;
+    }
+
+    public int getExtractionThreads() {
+        return extractionThreads;
+    }
+
+    public void setExtractionThreads(int extractionThreads) {
+        this.extractionThreads = extractionThreads;
+    }
+
+    public int getParallelExtractionMinPages() {
+        return parallelExtractionMinPages;
+    }
+
+    public void setParallelExtractionMinPages(int parallelExtractionMinPages) {
+        this.parallelExtractionMinPages = parallelExtractionMinPages;
+    }
+
+    public int getExtractionQueueCapacity() {
+        return extractionQueueCapacity;
+    }
+
+    public void setExtractionQueueCapacity(int extractionQueueCapacity) {
+        this.extractionQueueCapacity = extractionQueueCapacity;
+    }
+}
@@ -1,5 +1,6 @@
 package com.savo.backend.controller;
 
+import com.savo.backend.exception.PasswordHashingBusyException;
 import com.savo.backend.model.User;
 import com.savo.backend.service.JwtService;
 import com.savo.backend.service.impl.UserServiceImpl;
@@ -65,6 +66,8 @@ public class AuthController {
             );
 
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Map.of("error", e.getMessage()));
@@ -108,6 +111,8 @@ public class AuthController {
                         .body(Map.of("error", "Invalid username or password"));
             }
 
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Login failed: " + e.getMessage()));
@@ -1,6 +1,7 @@
 package com.savo.backend.controller;
 
 import com.savo.backend.dto.statementupload.*;
+import com.savo.backend.exception.ProcessingRejectedException;
 import com.savo.backend.exception.ValidationException;
 import com.savo.backend.service.StatementUploadService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,7 +44,9 @@ public class StatementUploadController {
                     @ApiResponse(responseCode = "400", description = "Invalid file or validation error"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
                     @ApiResponse(responseCode = "413", description = "File too large"),
-                    @ApiResponse(responseCode = "415", description = "Unsupported media type")
+                    @ApiResponse(responseCode = "415", description = "Unsupported media type"),
+                    @ApiResponse(responseCode = "429", description = "Too many statements processing for this user"),
+                    @ApiResponse(responseCode = "503", description = "Statement processing at capacity")
             }
     )
     public ResponseEntity<StatementUploadResponseDTO> uploadStatement(
@@ -66,6 +69,9 @@ public class StatementUploadController {
         } catch (ValidationException e) {
             logger.warn("Statement upload validation failed: {}", e.getMessage());
             throw e;
+        } catch (ProcessingRejectedException e) {
+            logger.warn("Statement upload rejected: {}", e.getReason());
+            throw e;
         } catch (Exception e) {
             logger.error("Unexpected error during statement upload", e);
             throw new RuntimeException("Failed to process statement upload", e);
@@ -1,20 +1,28 @@
 package com.savo.backend.controller;
 
+import com.savo.backend.dto.transaction.SpendingSummaryDTO;
 import com.savo.backend.dto.transaction.TransactionCreateDTO;
+import com.savo.backend.dto.transaction.TransactionFilterDTO;
+import com.savo.backend.dto.transaction.TransactionPageResponseDTO;
 import com.savo.backend.dto.transaction.TransactionResponseDTO;
 import com.savo.backend.dto.transaction.TransactionUpdateDTO;
+import com.savo.backend.enums.TransactionType;
 import com.savo.backend.service.impl.TransactionServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
 
 @RestController
 @RequestMapping("/api/v1/users/transactions")
@@ -52,22 +60,76 @@ public class TransactionController {
     @GetMapping
     @Operation(
             summary = "Get user transactions",
-            description = "Get the authenticated user's transactions",
+            description = "Get a page of the authenticated user's transactions, newest first. Pass nextCursor back as cursor to fetch the following page",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Transactions retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
                     @ApiResponse(responseCode = "404", description = "User not found")
             }
     )
-    public ResponseEntity<List<TransactionResponseDTO>> getTransactions(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<TransactionPageResponseDTO> getTransactions(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "Cursor returned as nextCursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most 200")
+            @RequestParam(defaultValue = "50") int limit,
+            @Parameter(description = "Earliest transaction date (inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Latest transaction date (inclusive)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Filter by transaction type")
+            @RequestParam(required = false) TransactionType type,
+            @Parameter(description = "Filter by category")
+            @RequestParam(required = false) String categoryId,
+            @Parameter(description = "Filter by bank account")
+            @RequestParam(required = false) String bankAccountId,
+            @Parameter(description = "Minimum amount (inclusive)")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount (inclusive)")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Merchant name contains (case-insensitive)")
+            @RequestParam(required = false) String merchant) {
 
         String userId = userDetails.getUsername();
 
-        List<TransactionResponseDTO> transactions = transactionService.getUserTransactions(userId);
+        TransactionFilterDTO filter = new TransactionFilterDTO();
+        filter.setStartDate(startDate);
+        filter.setEndDate(endDate);
+        filter.setTransactionType(type);
+        filter.setCategoryId(categoryId);
+        filter.setBankAccountId(bankAccountId);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setMerchant(merchant);
+
+        TransactionPageResponseDTO transactions = transactionService.getUserTransactions(userId, filter, cursor, limit);
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/summary")
+    @Operation(
+            summary = "Get spending summary",
+            description = "Get the authenticated user's total spending, total income and spending by category for a range of months",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Summary retrieved successfully"),
+                    @ApiResponse(responseCode = "400", description = "Invalid month range"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized")
+            }
+    )
+    public ResponseEntity<SpendingSummaryDTO> getSpendingSummary(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @Parameter(description = "First month (inclusive), yyyy-MM")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth fromMonth,
+            @Parameter(description = "Last month (inclusive), yyyy-MM")
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth toMonth) {
+
+        String userId = userDetails.getUsername();
+
+        SpendingSummaryDTO summary = transactionService.getSpendingSummary(userId, fromMonth, toMonth);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/{transactionId}")
     @Operation(
             summary = "Get user transaction",
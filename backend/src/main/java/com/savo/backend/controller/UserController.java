@@ -1,5 +1,6 @@
 package com.savo.backend.controller;
 
+import com.savo.backend.exception.PasswordHashingBusyException;
 import com.savo.backend.model.User;
 import com.savo.backend.service.impl.UserServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -145,6 +146,8 @@ public class UserController {
                         .body(Map.of("error", "Current password is incorrect"));
             }
 
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("error", e.getMessage()));
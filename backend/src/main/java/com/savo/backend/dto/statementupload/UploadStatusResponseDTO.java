@@ -17,6 +17,11 @@ public class UploadStatusResponseDTO {
     private LocalDate statementPeriodStart;
     private LocalDate statementPeriodEnd;
     private Integer totalTransactionsExtracted;
+
+    // Live progress, only set while the statement is being processed
+    private Integer totalPages;
+    private Integer pagesProcessed;
+    private Integer transactionsProcessed;
     private BigDecimal ocrConfidenceScore;
     private String errorMessage;
     private BankAccountInfo bankAccount;
@@ -144,6 +149,30 @@ public class UploadStatusResponseDTO {
         this.totalTransactionsExtracted = totalTransactionsExtracted;
     }
 
+    public Integer getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(Integer totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public Integer getPagesProcessed() {
+        return pagesProcessed;
+    }
+
+    public void setPagesProcessed(Integer pagesProcessed) {
+        this.pagesProcessed = pagesProcessed;
+    }
+
+    public Integer getTransactionsProcessed() {
+        return transactionsProcessed;
+    }
+
+    public void setTransactionsProcessed(Integer transactionsProcessed) {
+        this.transactionsProcessed = transactionsProcessed;
+    }
+
     public BigDecimal getOcrConfidenceScore() {
         return ocrConfidenceScore;
     }
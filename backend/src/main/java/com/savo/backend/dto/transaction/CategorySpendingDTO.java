@@ -0,0 +1,74 @@
+package com.savo.backend.dto.transaction;
+
+import java.math.BigDecimal;
+
+public class CategorySpendingDTO {
+    private String categoryId;
+    private String categoryName;
+    private String categoryIcon;
+    private String categoryColor;
+    private BigDecimal totalAmount;
+    private Long transactionCount;
+
+    public CategorySpendingDTO() {}
+
+    // Row of MonthlySpendingRollupRepository.getSpendingByCategoryForPeriod
+    public static CategorySpendingDTO from(Object[] row) {
+        CategorySpendingDTO dto = new CategorySpendingDTO();
+        dto.categoryId = (String) row[0];
+        dto.categoryName = (String) row[1];
+        dto.categoryIcon = (String) row[2];
+        dto.categoryColor = (String) row[3];
+        dto.totalAmount = (BigDecimal) row[4];
+        dto.transactionCount = ((Number) row[5]).longValue();
+        return dto;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public String getCategoryIcon() {
+        return categoryIcon;
+    }
+
+    public void setCategoryIcon(String categoryIcon) {
+        this.categoryIcon = categoryIcon;
+    }
+
+    public String getCategoryColor() {
+        return categoryColor;
+    }
+
+    public void setCategoryColor(String categoryColor) {
+        this.categoryColor = categoryColor;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+}
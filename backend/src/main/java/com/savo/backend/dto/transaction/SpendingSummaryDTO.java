@@ -0,0 +1,55 @@
+package com.savo.backend.dto.transaction;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+public class SpendingSummaryDTO {
+    private YearMonth fromMonth;
+    private YearMonth toMonth;
+    private BigDecimal totalSpending;
+    private BigDecimal totalIncome;
+    private List<CategorySpendingDTO> categories;
+
+    public SpendingSummaryDTO() {}
+
+    public YearMonth getFromMonth() {
+        return fromMonth;
+    }
+
+    public void setFromMonth(YearMonth fromMonth) {
+        this.fromMonth = fromMonth;
+    }
+
+    public YearMonth getToMonth() {
+        return toMonth;
+    }
+
+    public void setToMonth(YearMonth toMonth) {
+        this.toMonth = toMonth;
+    }
+
+    public BigDecimal getTotalSpending() {
+        return totalSpending;
+    }
+
+    public void setTotalSpending(BigDecimal totalSpending) {
+        this.totalSpending = totalSpending;
+    }
+
+    public BigDecimal getTotalIncome() {
+        return totalIncome;
+    }
+
+    public void setTotalIncome(BigDecimal totalIncome) {
+        this.totalIncome = totalIncome;
+    }
+
+    public List<CategorySpendingDTO> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<CategorySpendingDTO> categories) {
+        this.categories = categories;
+    }
+}
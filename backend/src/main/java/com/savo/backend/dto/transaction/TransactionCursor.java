@@ -0,0 +1,52 @@
+package com.savo.backend.dto.transaction;
+
+import com.savo.backend.exception.ValidationException;
+import com.savo.backend.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in the (transaction_date, created_at, id) descending order, encoded as an opaque
+ * URL-safe token so clients never build one themselves.
+ */
+public class TransactionCursor {
+    private final LocalDate transactionDate;
+    private final LocalDateTime createdAt;
+    private final String id;
+
+    private TransactionCursor(LocalDate transactionDate, LocalDateTime createdAt, String id) {
+        this.transactionDate = transactionDate;
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static String encode(Transaction last) {
+        String raw = last.getTransactionDate() + "|" + last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 3);
+            return new TransactionCursor(LocalDate.parse(parts[0]), LocalDateTime.parse(parts[1]), parts[2]);
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    public LocalDate getTransactionDate() {
+        return transactionDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
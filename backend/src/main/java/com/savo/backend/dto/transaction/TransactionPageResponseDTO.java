@@ -0,0 +1,42 @@
+package com.savo.backend.dto.transaction;
+
+import java.util.List;
+
+public class TransactionPageResponseDTO {
+    private List<TransactionResponseDTO> transactions;
+    // Pass back as ?cursor= to fetch the next page; null on the last page
+    private String nextCursor;
+    private boolean hasMore;
+
+    public TransactionPageResponseDTO() {}
+
+    public TransactionPageResponseDTO(List<TransactionResponseDTO> transactions, String nextCursor) {
+        this.transactions = transactions;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    public List<TransactionResponseDTO> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<TransactionResponseDTO> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,8 @@
+package com.savo.backend.enums;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
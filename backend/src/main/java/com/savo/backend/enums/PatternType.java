@@ -2,5 +2,7 @@ package com.savo.backend.enums;
 
 public enum PatternType {
     TIME_OF_DAY,
-    DAY_OF_WEEK
+    DAY_OF_WEEK,
+    WEEKEND,
+    CATEGORY_TREND
 }
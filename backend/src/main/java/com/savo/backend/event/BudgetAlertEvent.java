@@ -0,0 +1,45 @@
+package com.savo.backend.event;
+
+import com.savo.backend.enums.BudgetStatus;
+
+import java.time.LocalDate;
+
+/**
+ * A budget period moved into a worse status: past its alert threshold (WARNING) or over budget (EXCEEDED).
+ */
+public class BudgetAlertEvent {
+
+    private final String userId;
+    private final String budgetId;
+    private final LocalDate periodStart;
+    private final BudgetStatus status;
+    private final double percentageUsed;
+
+    public BudgetAlertEvent(String userId, String budgetId, LocalDate periodStart, BudgetStatus status, double percentageUsed) {
+        this.userId = userId;
+        this.budgetId = budgetId;
+        this.periodStart = periodStart;
+        this.status = status;
+        this.percentageUsed = percentageUsed;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getBudgetId() {
+        return budgetId;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public BudgetStatus getStatus() {
+        return status;
+    }
+
+    public double getPercentageUsed() {
+        return percentageUsed;
+    }
+}
@@ -0,0 +1,93 @@
+package com.savo.backend.event;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Published on the writer's transaction, after the change is flushed, whenever transactions
+ * are imported, created, edited, re-categorised or deleted.
+ *
+ * Each change carries a signed amount and count: positive for rows that now exist, negative for
+ * rows that no longer do. An edit is a removal of the old values followed by an addition of the new ones.
+ */
+public class TransactionChangeEvent {
+
+    private final String userId;
+    private final List<Change> changes;
+
+    public TransactionChangeEvent(String userId, List<Change> changes) {
+        this.userId = userId;
+        this.changes = changes;
+    }
+
+    public static TransactionChangeEvent added(String userId, List<Transaction> transactions) {
+        return new TransactionChangeEvent(userId, transactions.stream().map(Change::added).toList());
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    public static class Change {
+        private final String categoryId;
+        private final LocalDate transactionDate;
+        private final LocalTime timeOfDay;
+        private final TransactionType transactionType;
+        private final BigDecimal amount;
+        private final int count;
+
+        public Change(String categoryId, LocalDate transactionDate, LocalTime timeOfDay, TransactionType transactionType,
+                      BigDecimal amount, int count) {
+            this.categoryId = categoryId;
+            this.transactionDate = transactionDate;
+            this.timeOfDay = timeOfDay;
+            this.transactionType = transactionType;
+            this.amount = amount;
+            this.count = count;
+        }
+
+        public static Change added(Transaction transaction) {
+            return new Change(transaction.getCategory().getId(), transaction.getTransactionDate(), transaction.getTimeOfDay(),
+                    transaction.getTransactionType(), transaction.getAmount(), 1);
+        }
+
+        public static Change removed(Transaction transaction) {
+            return new Change(transaction.getCategory().getId(), transaction.getTransactionDate(), transaction.getTimeOfDay(),
+                    transaction.getTransactionType(), transaction.getAmount().negate(), -1);
+        }
+
+        public String getCategoryId() {
+            return categoryId;
+        }
+
+        public LocalDate getTransactionDate() {
+            return transactionDate;
+        }
+
+        // Null when the statement does not record times
+        public LocalTime getTimeOfDay() {
+            return timeOfDay;
+        }
+
+        public TransactionType getTransactionType() {
+            return transactionType;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.savo.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class PasswordHashingBusyException extends ResponseStatusException {
+
+    public PasswordHashingBusyException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "The server is busy. Please try again shortly");
+    }
+}
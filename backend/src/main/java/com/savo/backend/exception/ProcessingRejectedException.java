@@ -0,0 +1,21 @@
+package com.savo.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class ProcessingRejectedException extends ResponseStatusException {
+
+    public ProcessingRejectedException(HttpStatus status, String message) {
+        super(status, message);
+    }
+
+    public static ProcessingRejectedException userLimitReached() {
+        return new ProcessingRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                "Too many statements are being processed for this user. Please try again shortly");
+    }
+
+    public static ProcessingRejectedException capacityReached() {
+        return new ProcessingRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Statement processing is at capacity. Please try again shortly");
+    }
+}
@@ -12,7 +12,8 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "budget_progress")
+@Table(name = "budget_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_budget_progress_period", columnNames = {"budget_id", "period_start"}))
 public class BudgetProgress {
 
     @Id
@@ -93,10 +94,11 @@ public class BudgetProgress {
 
     private void calculatePercentageUsed() {
         if (budget.getAmount().compareTo(BigDecimal.ZERO) > 0) {
-            this.percentageUsed = spentAmount
+            // Capped at the column's validation limit; status only needs to know it is past 100
+            this.percentageUsed = Math.min(999.0, spentAmount
                     .divide(budget.getAmount(), 4, BigDecimal.ROUND_HALF_UP)
                     .multiply(new BigDecimal("100"))
-                    .doubleValue();
+                    .doubleValue());
         } else {
             this.percentageUsed = 0.0;
         }
@@ -7,7 +7,8 @@ import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "categorization_feedback")
+@Table(name = "categorization_feedback",
+        indexes = @Index(name = "idx_categorization_feedback_user_created", columnList = "user_id, created_at"))
 public class CategorisationFeedback {
 
     @Id
@@ -18,8 +19,9 @@ public class CategorisationFeedback {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    // Cleared when the transaction is deleted; the correction itself still counts towards the user's overrides
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "transaction_id", nullable = false)
+    @JoinColumn(name = "transaction_id")
     private Transaction transaction;
 
     @NotBlank(message = "Original category ID is required")
@@ -33,6 +35,10 @@ public class CategorisationFeedback {
     @Column(name = "feedback_type", nullable = false)
     private FeedbackType feedbackType;
 
+    // Merchant key of the corrected transaction, so corrections compile into overrides without a join
+    @Column(name = "merchant_key")
+    private String merchantKey;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -47,6 +53,7 @@ public class CategorisationFeedback {
         this.originalCategoryId = originalCategoryId;
         this.correctedCategoryId = correctedCategoryId;
         this.feedbackType = feedbackType;
+        this.merchantKey = transaction.getMerchantKey();
     }
 
     @PrePersist
@@ -102,6 +109,14 @@ public class CategorisationFeedback {
         this.correctedCategoryId = correctedCategoryId;
     }
 
+    public String getMerchantKey() {
+        return merchantKey;
+    }
+
+    public void setMerchantKey(String merchantKey) {
+        this.merchantKey = merchantKey;
+    }
+
     public FeedbackType getFeedbackType() {
         return feedbackType;
     }
@@ -49,6 +49,11 @@ public class MLModelVersion {
     @Column(name = "training_notes", columnDefinition = "TEXT")
     private String trainingNotes;
 
+    // Serialised model, see CategoryClassifier.Trainer.toBytes
+    @Basic(fetch = FetchType.LAZY)
+    @Column(name = "model_data", columnDefinition = "bytea")
+    private byte[] modelData;
+
     public MLModelVersion() {}
 
     // Constructor for new model version
@@ -165,4 +170,12 @@ public class MLModelVersion {
     public void setTrainingNotes(String trainingNotes) {
         this.trainingNotes = trainingNotes;
     }
+
+    public byte[] getModelData() {
+        return modelData;
+    }
+
+    public void setModelData(byte[] modelData) {
+        this.modelData = modelData;
+    }
 }
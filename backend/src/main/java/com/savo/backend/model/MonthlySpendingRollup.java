@@ -0,0 +1,106 @@
+package com.savo.backend.model;
+
+import com.savo.backend.enums.TransactionType;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Per (user, bank account, category, month, type) totals over the transactions table.
+ *
+ * Rows are written by SpendingRollupService with plain SQL, never through this entity;
+ * it exists for the read queries and so Hibernate manages the table.
+ */
+@Entity
+@Table(name = "monthly_spending_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_spending_rollup_group",
+                columnNames = {"user_id", "bank_account_id", "category_id", "month_start", "transaction_type"}),
+        indexes = @Index(name = "idx_spending_rollup_user_month", columnList = "user_id, month_start"))
+public class MonthlySpendingRollup {
+
+    @Id
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "bank_account_id", nullable = false)
+    private BankAccount bankAccount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    // First day of the month
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transaction_type", nullable = false)
+    private TransactionType transactionType;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "min_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal minAmount;
+
+    @Column(name = "max_amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal maxAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public MonthlySpendingRollup() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public BankAccount getBankAccount() {
+        return bankAccount;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+
+    public TransactionType getTransactionType() {
+        return transactionType;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,73 @@
+package com.savo.backend.model;
+
+import com.savo.backend.enums.PatternType;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running debit count and total for one histogram bucket of a user, e.g. (DAY_OF_WEEK, SATURDAY).
+ *
+ * Rows are adjusted by SpendingPatternMiner with plain SQL as transactions change; this
+ * entity only declares the table.
+ */
+@Entity
+@Table(name = "spending_pattern_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_spending_pattern_stat_bucket",
+                columnNames = {"user_id", "pattern_type", "bucket"}))
+public class SpendingPatternStat {
+
+    @Id
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pattern_type", nullable = false)
+    private PatternType patternType;
+
+    @Column(name = "bucket", nullable = false, length = 32)
+    private String bucket;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public SpendingPatternStat() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public PatternType getPatternType() {
+        return patternType;
+    }
+
+    public String getBucket() {
+        return bucket;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
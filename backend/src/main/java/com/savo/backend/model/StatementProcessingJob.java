@@ -0,0 +1,183 @@
+package com.savo.backend.model;
+
+import com.savo.backend.enums.JobStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "statement_processing_jobs", indexes = {
+        @Index(name = "idx_statement_jobs_status_available", columnList = "status, available_at"),
+        @Index(name = "idx_statement_jobs_status_lease", columnList = "status, lease_expires_at")
+})
+public class StatementProcessingJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "statement_upload_id", nullable = false, unique = true)
+    private StatementUpload statementUpload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private JobStatus status = JobStatus.QUEUED;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    // Earliest time the job may be claimed; pushed back on retry
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    // Replica currently holding the job, and until when
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public StatementProcessingJob() {}
+
+    public StatementProcessingJob(StatementUpload statementUpload) {
+        this.statementUpload = statementUpload;
+        this.availableAt = LocalDateTime.now();
+    }
+
+    public void lease(String owner, LocalDateTime expiresAt) {
+        this.status = JobStatus.RUNNING;
+        this.attempts = attempts + 1;
+        this.leaseOwner = owner;
+        this.leaseExpiresAt = expiresAt;
+        this.heartbeatAt = LocalDateTime.now();
+    }
+
+    public void requeue(LocalDateTime availableAt, String error) {
+        this.status = JobStatus.QUEUED;
+        this.availableAt = availableAt;
+        this.lastError = error;
+        clearLease();
+    }
+
+    public void fail(String error) {
+        this.status = JobStatus.FAILED;
+        this.lastError = error;
+        clearLease();
+    }
+
+    private void clearLease() {
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
+    }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public StatementUpload getStatementUpload() {
+        return statementUpload;
+    }
+
+    public void setStatementUpload(StatementUpload statementUpload) {
+        this.statementUpload = statementUpload;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseExpiresAt() {
+        return leaseExpiresAt;
+    }
+
+    public void setLeaseExpiresAt(LocalDateTime leaseExpiresAt) {
+        this.leaseExpiresAt = leaseExpiresAt;
+    }
+
+    public LocalDateTime getHeartbeatAt() {
+        return heartbeatAt;
+    }
+
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) {
+        this.heartbeatAt = heartbeatAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "statement_upload")
+@Table(name = "statement_upload",
+        uniqueConstraints = @UniqueConstraint(name = "uk_statement_upload_account_sha256", columnNames = {"bank_account_id", "content_sha256"}),
+        indexes = @Index(name = "idx_statement_upload_user_sha256", columnList = "user_id, content_sha256"))
 public class StatementUpload {
 
     @Id
@@ -35,6 +37,10 @@ public class StatementUpload {
     @Positive(message = "File size must be positive")
     private Long fileSize;
 
+    // SHA-256 of the uploaded bytes, lowercase hex
+    @Column(name = "content_sha256", length = 64)
+    private String contentSha256;
+
     @NotBlank(message = "S3 key is required")
     @Column(name = "s3_key", nullable = false)
     private String s3Key;
@@ -149,6 +155,14 @@ public class StatementUpload {
         this.s3Key = s3Key;
     }
 
+    public String getContentSha256() {
+        return contentSha256;
+    }
+
+    public void setContentSha256(String contentSha256) {
+        this.contentSha256 = contentSha256;
+    }
+
     public UploadStatus getUploadStatus() {
         return uploadStatus;
     }
@@ -12,7 +12,8 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "subscriptions")
+@Table(name = "subscriptions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_subscription_user_service", columnNames = {"user_id", "service_name"}))
 public class Subscription {
 
     @Id
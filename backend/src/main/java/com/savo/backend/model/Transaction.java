@@ -10,7 +10,13 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "transactions")
+// Only imported rows carry a fingerprint; PostgreSQL unique constraints ignore NULLs, so manual entries are unaffected
+@Table(name = "transactions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_transactions_fingerprint", columnNames = "fingerprint"),
+        indexes = {
+                @Index(name = "idx_transactions_user_keyset", columnList = "user_id, transaction_date, created_at, id"),
+                @Index(name = "idx_transactions_user_merchant_key", columnList = "user_id, merchant_key, transaction_date")
+        })
 public class Transaction {
 
     @Id
@@ -87,6 +93,14 @@ public class Transaction {
     @Column(name = "recurrence_pattern")
     private String recurrencePattern;
 
+    // Merchant name reduced to its stable words, see MerchantKey; groups charges from the same merchant
+    @Column(name = "merchant_key")
+    private String merchantKey;
+
+    // Import dedup key, see TransactionFingerprint
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -237,6 +251,11 @@ public class Transaction {
         return isSubscription;
     }
 
+    // getSubscription() is the is_subscription flag
+    public Subscription getLinkedSubscription() {
+        return subscription;
+    }
+
     public void setSubscription(Subscription subscription) {
         this.subscription = subscription;
     }
@@ -249,6 +268,22 @@ public class Transaction {
         this.recurrencePattern = recurrencePattern;
     }
 
+    public String getMerchantKey() {
+        return merchantKey;
+    }
+
+    public void setMerchantKey(String merchantKey) {
+        this.merchantKey = merchantKey;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,58 @@
+package com.savo.backend.parser;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public abstract class AbstractStatementParser implements StatementParser {
+
+    protected static final String AMOUNT = "\\d{1,3}(?:,\\d{3})*\\.\\d{2}";
+    protected static final DateTimeFormatter SLASH_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ENGLISH);
+    protected static final DateTimeFormatter LONG_DATE = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+    protected static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Pattern SHORT_DATE = Pattern.compile("\\b\\d{2}/\\d{2}\\b");
+    private static final Pattern REFERENCE_NUMBER = Pattern.compile("\\*\\d+");
+
+    // Bank-specific prefix stripped from descriptions before taking the merchant name
+    protected abstract Pattern merchantPrefix();
+
+    protected String extractMerchantName(String description) {
+        // Generic cleaning
+        String cleaned = SHORT_DATE.matcher(description).replaceAll(""); // Remove dates
+        cleaned = REFERENCE_NUMBER.matcher(cleaned).replaceAll(""); // Remove reference numbers
+        cleaned = WHITESPACE.matcher(cleaned).replaceAll(" ").trim();
+
+        cleaned = merchantPrefix().matcher(cleaned).replaceFirst("");
+
+        String[] words = WHITESPACE.split(cleaned);
+        if (words.length > 3) {
+            return String.join(" ", words[0], words[1], words[2]);
+        }
+
+        return cleaned;
+    }
+
+    protected Transaction newTransaction(LocalDate date, String description, BigDecimal amount, TransactionType type, BigDecimal balance) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(date);
+        transaction.setDescription(description);
+        transaction.setMerchantName(extractMerchantName(description));
+        transaction.setAmount(amount);
+        transaction.setTransactionType(type);
+        transaction.setBalanceAfter(balance);
+        return transaction;
+    }
+
+    protected static BigDecimal parseAmount(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return new BigDecimal(value.replace(",", ""));
+    }
+}
@@ -0,0 +1,105 @@
+package com.savo.backend.parser;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// DBS and POSB share the same statement layout
+@Component
+@Order(1)
+public class DbsStatementParser extends AbstractStatementParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(DbsStatementParser.class);
+
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("\\b\\d{3}-\\d{5,6}-\\d{1}\\b");
+
+    // "as at 31 Jul 2025"
+    private static final Pattern PERIOD = Pattern.compile("as at (\\d{1,2}\\s+\\w{3}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TRANSACTION = Pattern.compile(
+            "(\\d{2}/\\d{2}/\\d{4})\\s+" +
+                    "(.+?)\\s+" +
+                    "(" + AMOUNT + ")?" +
+                    "\\s+" +
+                    "(" + AMOUNT + ")?" +
+                    "(?:\\s+(" + AMOUNT + "))?",
+            Pattern.MULTILINE
+    );
+
+    private static final Pattern MERCHANT_PREFIX = Pattern.compile("^(GIRO|NETS|FAST|PAYNOW)\\s*-?\\s*");
+
+    @Override
+    public String getBankName() {
+        return "DBS";
+    }
+
+    @Override
+    public boolean supports(String firstPageText) {
+        return firstPageText.contains("DBS") || firstPageText.contains("POSB");
+    }
+
+    @Override
+    public String extractAccountNumber(String firstPageText) {
+        Matcher matcher = ACCOUNT_NUMBER.matcher(firstPageText);
+        return matcher.find() ? matcher.group(0).replace("-", "") : null;
+    }
+
+    @Override
+    public LocalDate[] extractStatementPeriod(String text) {
+        Matcher matcher = PERIOD.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        // Only the closing date is printed; statements cover a calendar month
+        LocalDate endDate = LocalDate.parse(matcher.group(1).trim(), LONG_DATE);
+        return new LocalDate[]{endDate.withDayOfMonth(1), endDate};
+    }
+
+    @Override
+    public void parsePage(String pageText, LocalDate periodStart, Consumer<Transaction> rows) {
+        Matcher matcher = TRANSACTION.matcher(pageText);
+
+        while (matcher.find()) {
+            try {
+                LocalDate transactionDate = LocalDate.parse(matcher.group(1), SLASH_DATE);
+                String description = matcher.group(2);
+
+                BigDecimal debit = parseAmount(matcher.group(3));
+                BigDecimal credit = parseAmount(matcher.group(4));
+
+                BigDecimal amount;
+                TransactionType type;
+
+                if (debit != null) {
+                    amount = debit;
+                    type = TransactionType.Debit;
+                } else if (credit != null) {
+                    amount = credit;
+                    type = TransactionType.Credit;
+                } else {
+                    logger.warn("Transaction with no amount found, skipping: {}", matcher.group(0));
+                    continue;
+                }
+
+                rows.accept(newTransaction(transactionDate, description, amount, type, parseAmount(matcher.group(5))));
+            } catch (Exception e) {
+                logger.warn("Failed to parse DBS transaction line: '{}', error: {}", matcher.group(0), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    protected Pattern merchantPrefix() {
+        return MERCHANT_PREFIX;
+    }
+}
@@ -0,0 +1,108 @@
+package com.savo.backend.parser;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Order(2)
+public class OcbcStatementParser extends AbstractStatementParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcbcStatementParser.class);
+
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("Account No\\.?\\s*(\\d{10,12})", Pattern.CASE_INSENSITIVE);
+
+    // "01 Jan 2024 TO 31 Jan 2024"
+    private static final Pattern PERIOD = Pattern.compile(
+            "(\\d{1,2}\\s+\\w{3}\\s+\\d{4})\\s+TO\\s+(\\d{1,2}\\s+\\w{3}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TRANSACTION = Pattern.compile(
+            "(\\d{2}\\s+\\w{3})\\s+" +
+                    "(\\d{2}\\s+\\w{3})\\s+" +
+                    "(.+?)\\s+" +
+                    "(?:(\\S+)\\s+)?" +
+                    "(" + AMOUNT + ")?\\s+" +
+                    "(" + AMOUNT + ")?\\s+" +
+                    "(" + AMOUNT + ")",
+            Pattern.MULTILINE
+    );
+
+    private static final Pattern MERCHANT_PREFIX = Pattern.compile("^(TXN|REF)\\s*\\w+\\s*");
+
+    @Override
+    public String getBankName() {
+        return "OCBC";
+    }
+
+    @Override
+    public boolean supports(String firstPageText) {
+        return firstPageText.contains("OCBC");
+    }
+
+    @Override
+    public String extractAccountNumber(String firstPageText) {
+        Matcher matcher = ACCOUNT_NUMBER.matcher(firstPageText);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Override
+    public LocalDate[] extractStatementPeriod(String text) {
+        Matcher matcher = PERIOD.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        LocalDate startDate = LocalDate.parse(matcher.group(1).trim(), LONG_DATE);
+        LocalDate endDate = LocalDate.parse(matcher.group(2).trim(), LONG_DATE);
+        return new LocalDate[]{startDate, endDate};
+    }
+
+    @Override
+    public void parsePage(String pageText, LocalDate periodStart, Consumer<Transaction> rows) {
+        // Rows only print day and month, so take the year from the statement period
+        int statementYear = periodStart != null ? periodStart.getYear() : LocalDate.now().getYear();
+
+        Matcher matcher = TRANSACTION.matcher(pageText);
+
+        while (matcher.find()) {
+            try {
+                LocalDate transactionDate = LocalDate.parse(matcher.group(1) + " " + statementYear, LONG_DATE);
+                String description = matcher.group(3);
+
+                BigDecimal debit = parseAmount(matcher.group(5));
+                BigDecimal credit = parseAmount(matcher.group(6));
+
+                BigDecimal amount;
+                TransactionType type;
+
+                if (debit != null) {
+                    amount = debit;
+                    type = TransactionType.Debit;
+                } else if (credit != null) {
+                    amount = credit;
+                    type = TransactionType.Credit;
+                } else {
+                    continue;
+                }
+
+                rows.accept(newTransaction(transactionDate, description, amount, type, parseAmount(matcher.group(7))));
+            } catch (Exception e) {
+                logger.warn("Failed to parse OCBC transaction line: '{}', error: {}", matcher.group(0), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    protected Pattern merchantPrefix() {
+        return MERCHANT_PREFIX;
+    }
+}
@@ -0,0 +1,81 @@
+package com.savo.backend.parser;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Metadata and leading pages of a statement PDF, read by bank detection and period extraction.
+ *
+ * Only the header pages are extracted (see StatementExtractionService), so pages may hold fewer entries
+ * than pageCount; page lookups past the extracted pages return "". Transaction parsing never sees the
+ * whole text at once: the processing job streams pages through StatementExtractionService.streamPages.
+ */
+public class ParsedStatement {
+
+    private final String fileName;
+    private final long fileSize;
+    private final int pageCount;
+    private final List<String> pages;
+    private final String title;
+    private final String producer;
+    private final LocalDateTime creationDate;
+
+    public ParsedStatement(String fileName, long fileSize, int pageCount, List<String> pages,
+                           String title, String producer, LocalDateTime creationDate) {
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.pageCount = pageCount;
+        this.pages = Collections.unmodifiableList(pages);
+        this.title = title;
+        this.producer = producer;
+        this.creationDate = creationDate;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    public List<String> getPages() {
+        return pages;
+    }
+
+    // Page numbers are 1-based, matching PDFTextStripper
+    public String getPageText(int pageNumber) {
+        if (pageNumber < 1 || pageNumber > pages.size()) {
+            return "";
+        }
+        return pages.get(pageNumber - 1);
+    }
+
+    public String getText(int startPage, int endPage) {
+        int from = Math.max(1, startPage);
+        int to = Math.min(endPage, pages.size());
+
+        StringBuilder text = new StringBuilder();
+        for (int page = from; page <= to; page++) {
+            text.append(pages.get(page - 1));
+        }
+        return text.toString();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getProducer() {
+        return producer;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+}
@@ -0,0 +1,37 @@
+package com.savo.backend.parser;
+
+/**
+ * Raw bytes of an uploaded statement and their SHA-256 digest, computed in the same pass
+ * that read the upload so exact re-uploads can be rejected before any PDF parsing.
+ */
+public class StatementContent {
+
+    private final String fileName;
+    private final long fileSize;
+    private final byte[] bytes;
+    private final String sha256;
+
+    public StatementContent(String fileName, long fileSize, byte[] bytes, String sha256) {
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.bytes = bytes;
+        this.sha256 = sha256;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    // Lowercase hex
+    public String getSha256() {
+        return sha256;
+    }
+}
@@ -0,0 +1,31 @@
+package com.savo.backend.parser;
+
+import com.savo.backend.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Bank-specific knowledge of a statement layout.
+ *
+ * Implementations are Spring components picked up by StatementParserRegistry at startup and
+ * must be stateless: patterns and formatters are compiled once and shared across threads.
+ */
+public interface StatementParser {
+
+    // Name stored on BankAccount.bankName, e.g. "DBS"
+    String getBankName();
+
+    // Whether the first page of a statement belongs to this bank
+    boolean supports(String firstPageText);
+
+    // Unmasked account number, or null when it cannot be found
+    String extractAccountNumber(String firstPageText);
+
+    // {start, end}, or null when the period cannot be found
+    LocalDate[] extractStatementPeriod(String text);
+
+    // Emits the transactions printed on one page, with only the statement fields set
+    // (date, description, merchant, amount, type, balance). periodStart is null when unknown.
+    void parsePage(String pageText, LocalDate periodStart, Consumer<Transaction> rows);
+}
@@ -0,0 +1,65 @@
+package com.savo.backend.parser;
+
+import com.savo.backend.exception.ValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Every StatementParser bean, in @Order, resolved once at startup.
+ * Adding a bank only means adding a parser component.
+ */
+@Component
+public class StatementParserRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementParserRegistry.class);
+
+    private final List<StatementParser> parsers;
+    private final Map<String, StatementParser> parsersByBank = new LinkedHashMap<>();
+
+    public StatementParserRegistry(List<StatementParser> parsers) {
+        this.parsers = List.copyOf(parsers);
+        for (StatementParser parser : this.parsers) {
+            if (parsersByBank.putIfAbsent(parser.getBankName().toUpperCase(Locale.ROOT), parser) != null) {
+                throw new IllegalStateException("Duplicate statement parser for bank: " + parser.getBankName());
+            }
+        }
+
+        logger.info("Registered statement parsers: {}", parsersByBank.keySet());
+    }
+
+    // Single detection step: the first parser (by @Order) that recognises the first page
+    public StatementParser detect(String firstPageText) {
+        for (StatementParser parser : parsers) {
+            if (parser.supports(firstPageText)) {
+                return parser;
+            }
+        }
+
+        throw new ValidationException("Unsupported bank format. Currently supports " + getSupportedBanks());
+    }
+
+    public StatementParser forBank(String bankName) {
+        StatementParser parser = parsersByBank.get(bankName.toUpperCase(Locale.ROOT));
+        if (parser == null) {
+            throw new IllegalArgumentException("Unsupported bank: " + bankName);
+        }
+        return parser;
+    }
+
+    private String getSupportedBanks() {
+        List<String> banks = parsers.stream()
+                .map(StatementParser::getBankName)
+                .collect(Collectors.toList());
+        if (banks.size() == 1) {
+            return banks.get(0);
+        }
+        return String.join(", ", banks.subList(0, banks.size() - 1)) + " and " + banks.get(banks.size() - 1);
+    }
+}
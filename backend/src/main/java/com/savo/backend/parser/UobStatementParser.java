@@ -0,0 +1,106 @@
+package com.savo.backend.parser;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Order(3)
+public class UobStatementParser extends AbstractStatementParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(UobStatementParser.class);
+
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("Account Number:?\\s*(\\d{10,12})", Pattern.CASE_INSENSITIVE);
+
+    // "Period: 01 Jan 2024 to 31 Jan 2024"
+    private static final Pattern PERIOD = Pattern.compile(
+            "Period[:\\s]+(\\d{1,2}\\s+\\w{3}\\s+\\d{4})\\s+to\\s+(\\d{1,2}\\s+\\w{3}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TRANSACTION = Pattern.compile(
+            "(\\d{2}/\\d{2}/\\d{4})\\s+" +
+                    "(\\d{2}/\\d{2}/\\d{4})\\s+" +
+                    "(\\d{2}/\\d{2}/\\d{4}\\s+\\d{2}:\\d{2}:\\d{2}\\s+[AP]M)\\s+" +
+                    "(.+?)\\s+" +
+                    "(" + AMOUNT + ")\\s+" +
+                    "(" + AMOUNT + ")\\s+" +
+                    "(" + AMOUNT + ")",
+            Pattern.MULTILINE
+    );
+
+    private static final Pattern MERCHANT_PREFIX = Pattern.compile("^(VISA|MASTERCARD)\\s*");
+
+    @Override
+    public String getBankName() {
+        return "UOB";
+    }
+
+    @Override
+    public boolean supports(String firstPageText) {
+        return firstPageText.contains("UOB");
+    }
+
+    @Override
+    public String extractAccountNumber(String firstPageText) {
+        Matcher matcher = ACCOUNT_NUMBER.matcher(firstPageText);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    @Override
+    public LocalDate[] extractStatementPeriod(String text) {
+        Matcher matcher = PERIOD.matcher(text);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        LocalDate startDate = LocalDate.parse(matcher.group(1).trim(), LONG_DATE);
+        LocalDate endDate = LocalDate.parse(matcher.group(2).trim(), LONG_DATE);
+        return new LocalDate[]{startDate, endDate};
+    }
+
+    @Override
+    public void parsePage(String pageText, LocalDate periodStart, Consumer<Transaction> rows) {
+        Matcher matcher = TRANSACTION.matcher(pageText);
+
+        while (matcher.find()) {
+            try {
+                LocalDate transactionDate = LocalDate.parse(matcher.group(1), SLASH_DATE);
+                String description = WHITESPACE.matcher(matcher.group(4)).replaceAll(" ").trim();
+
+                // Deposits come before withdrawals; the unused column is printed as 0.00
+                BigDecimal credit = parseAmount(matcher.group(5));
+                BigDecimal debit = parseAmount(matcher.group(6));
+
+                BigDecimal amount;
+                TransactionType type;
+
+                if (debit.signum() > 0) {
+                    amount = debit;
+                    type = TransactionType.Debit;
+                } else if (credit.signum() > 0) {
+                    amount = credit;
+                    type = TransactionType.Credit;
+                } else {
+                    continue;
+                }
+
+                rows.accept(newTransaction(transactionDate, description, amount, type, parseAmount(matcher.group(7))));
+            } catch (Exception e) {
+                logger.warn("Failed to parse UOB transaction line: '{}', error: {}", matcher.group(0), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    protected Pattern merchantPrefix() {
+        return MERCHANT_PREFIX;
+    }
+}
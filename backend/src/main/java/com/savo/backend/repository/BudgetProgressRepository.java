@@ -2,8 +2,14 @@ package com.savo.backend.repository;
 
 import com.savo.backend.model.Budget;
 import com.savo.backend.model.BudgetProgress;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +21,17 @@ public interface BudgetProgressRepository extends JpaRepository<BudgetProgress,
     Optional<BudgetProgress> findByBudgetAndPeriodStartAndPeriodEnd(Budget budget, LocalDate periodStart, LocalDate periodEnd);
 
     Optional<BudgetProgress> findByBudgetAndPeriodStartLessThanEqualAndPeriodEndGreaterThanEqual(Budget budget, LocalDate today1, LocalDate today2);
+
+    // Concurrent imports apply deltas to the same period row, so it is locked for the read-modify-write
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BudgetProgress> findByBudgetIdAndPeriodStart(String budgetId, LocalDate periodStart);
+
+    // Creates an empty period row unless one exists; returns 0 when another transaction got there first
+    @Modifying
+    @Query(value = "INSERT INTO budget_progress (id, budget_id, period_start, period_end, spent_amount, remaining_amount, " +
+            "percentage_used, status, last_calculated, created_at) " +
+            "VALUES (:id, :budgetId, :periodStart, :periodEnd, 0, :remainingAmount, 0, 'ON_TRACK', now(), now()) " +
+            "ON CONFLICT (budget_id, period_start) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("budgetId") String budgetId, @Param("periodStart") LocalDate periodStart,
+                       @Param("periodEnd") LocalDate periodEnd, @Param("remainingAmount") BigDecimal remainingAmount);
 }
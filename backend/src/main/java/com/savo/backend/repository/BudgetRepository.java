@@ -1,5 +1,6 @@
 package com.savo.backend.repository;
 
+import com.savo.backend.model.Budget;
 import com.savo.backend.model.Category;
 import com.savo.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -8,13 +9,15 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
-public interface BudgetRepository extends JpaRepository<BudgetRepository, String> {
+public interface BudgetRepository extends JpaRepository<Budget, String> {
 
-    List<BudgetRepository> findByUser(User user);
+    List<Budget> findByUser(User user);
 
-    Optional<BudgetRepository> findByUserAndCategoryAndIsActiveTrue(User user, Category category);
+    Optional<Budget> findByUserAndCategoryAndIsActiveTrue(User user, Category category);
 
-    List<BudgetRepository> findByUserAndIsActiveTrue(User user);
+    List<Budget> findByUserAndIsActiveTrue(User user);
 
-    List<BudgetRepository> findByUserAndStartDateLessThanEqualAndEndDateGreaterThanEqual(User user, LocalDate today1, LocalDate today2);
+    List<Budget> findByUserIdAndIsActiveTrue(String userId);
+
+    List<Budget> findByUserAndStartDateLessThanEqualAndEndDateGreaterThanEqual(User user, LocalDate today1, LocalDate today2);
 }
@@ -2,10 +2,12 @@ package com.savo.backend.repository;
 
 import com.savo.backend.enums.FeedbackType;
 import com.savo.backend.model.CategorisationFeedback;
-import com.savo.backend.model.Category;
 import com.savo.backend.model.Transaction;
 import com.savo.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -13,7 +15,7 @@ public interface CategorisationFeedbackRepository extends JpaRepository<Categori
 
     List<CategorisationFeedback> findByUser(User user);
     List<CategorisationFeedback> findByTransaction(Transaction transaction);
-    List<CategorisationFeedback> findByCategory(Category category);
+    List<CategorisationFeedback> findByCorrectedCategoryId(String correctedCategoryId);
     List<CategorisationFeedback> findByUserAndFeedbackType(User user, FeedbackType feedbackType);
 
     // Count how many times a particular category was corrected to another
@@ -21,4 +23,20 @@ public interface CategorisationFeedbackRepository extends JpaRepository<Categori
 
     // Check if user has ever submitted feedback for a transaction
     boolean existsByUserAndTransaction(User user, Transaction transaction);
+
+    // Merchant key and corrected category of a user's corrections to categories that still exist, oldest first
+    @Query("SELECT f.merchantKey, f.correctedCategoryId FROM CategorisationFeedback f, Category c " +
+            "WHERE f.user.id = :userId AND f.merchantKey IS NOT NULL AND c.id = f.correctedCategoryId AND c.isActive = true " +
+            "ORDER BY f.createdAt")
+    List<Object[]> findMerchantCorrections(@Param("userId") String userId);
+
+    // Corrections outlive the transactions they were made on, so deleting one only unlinks its feedback
+    @Modifying
+    @Query("UPDATE CategorisationFeedback f SET f.transaction = null WHERE f.transaction.id = :transactionId")
+    void detachFromTransaction(@Param("transactionId") String transactionId);
+
+    @Modifying
+    @Query("UPDATE CategorisationFeedback f SET f.transaction = null WHERE f.transaction.id IN " +
+            "(SELECT t.id FROM Transaction t WHERE t.statementUpload.id = :uploadId)")
+    void detachFromStatementUpload(@Param("uploadId") String uploadId);
 }
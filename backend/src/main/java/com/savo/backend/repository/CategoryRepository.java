@@ -19,6 +19,10 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
     @Query("SELECT c FROM Category c WHERE c.user IS NULL AND c.isActive = true ORDER BY c.name")
     List<Category> findSystemCategories();
 
+    // Category id and parent id for every category a user's transactions can reference, active or not
+    @Query("SELECT c.id, p.id FROM Category c LEFT JOIN c.parentCategory p WHERE c.user.id = :userId OR c.user IS NULL")
+    List<Object[]> findHierarchyForUser(@Param("userId") String userId);
+
     // System + User categories
     @Query("SELECT c FROM Category c WHERE (c.user.id = :userId OR c.user IS NULL) AND c.isActive = true ORDER BY c.name")
     List<Category> findAllAvaliableForUser(@Param("userId") String userId);
@@ -2,16 +2,16 @@ package com.savo.backend.repository;
 
 import com.savo.backend.enums.ModelType;
 import com.savo.backend.model.MLModelVersion;
-import com.savo.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface MLModelVersionRepository extends JpaRepository<MLModelVersion, String> {
 
-    List<MLModelVersion> findByUser(User user);
-
     Optional<MLModelVersion> findByVersion(String version);
 
     List<MLModelVersion> findByModelType(ModelType modelType);
@@ -22,4 +22,14 @@ public interface MLModelVersionRepository extends JpaRepository<MLModelVersion,
     Optional<MLModelVersion> findFirstByModelTypeOrderByAccuracyScoreDesc(ModelType modelType);
 
     List<MLModelVersion> findByModelTypeAndIsActiveTrue(ModelType modelType);
+
+    Optional<MLModelVersion> findFirstByModelTypeAndIsActiveTrueOrderByDeployedAtDesc(ModelType modelType);
+
+    // Ids only, so polling for a newly deployed model does not load model data
+    @Query("SELECT v.id FROM MLModelVersion v WHERE v.modelType = :modelType AND v.isActive = true ORDER BY v.deployedAt DESC")
+    List<String> findActiveVersionIds(@Param("modelType") ModelType modelType);
+
+    @Modifying
+    @Query("UPDATE MLModelVersion v SET v.isActive = false WHERE v.modelType = :modelType AND v.isActive = true")
+    int deactivateAll(@Param("modelType") ModelType modelType);
 }
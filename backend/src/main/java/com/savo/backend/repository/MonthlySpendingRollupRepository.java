@@ -0,0 +1,38 @@
+package com.savo.backend.repository;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.MonthlySpendingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlySpendingRollupRepository extends JpaRepository<MonthlySpendingRollup, String> {
+
+    // Total spending/income for user
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM MonthlySpendingRollup r " +
+            "WHERE r.user.id = :userId AND r.transactionType = :type AND r.monthStart BETWEEN :fromMonth AND :toMonth")
+    BigDecimal sumAmountByUserIdAndTransactionType(
+            @Param("userId") String userId,
+            @Param("type") TransactionType type,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth);
+
+    // Months of debit history a user has
+    @Query("SELECT COUNT(DISTINCT r.monthStart) FROM MonthlySpendingRollup r " +
+            "WHERE r.user.id = :userId AND r.transactionType = com.savo.backend.enums.TransactionType.Debit")
+    long countSpendingMonths(@Param("userId") String userId);
+
+    // Spending by category: category id, name, icon, color, total, count
+    @Query("SELECT r.category.id, r.category.name, r.category.icon, r.category.color, SUM(r.totalAmount), SUM(r.transactionCount) " +
+            "FROM MonthlySpendingRollup r WHERE r.user.id = :userId AND r.transactionType = com.savo.backend.enums.TransactionType.Debit " +
+            "AND r.monthStart BETWEEN :fromMonth AND :toMonth " +
+            "GROUP BY r.category.id, r.category.name, r.category.icon, r.category.color ORDER BY SUM(r.totalAmount) DESC")
+    List<Object[]> getSpendingByCategoryForPeriod(
+            @Param("userId") String userId,
+            @Param("fromMonth") LocalDate fromMonth,
+            @Param("toMonth") LocalDate toMonth);
+}
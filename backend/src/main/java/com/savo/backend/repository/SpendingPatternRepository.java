@@ -14,6 +14,8 @@ public interface SpendingPatternRepository extends JpaRepository<SpendingPattern
 
     List<SpendingPattern> findByUser(User user);
     List<SpendingPattern> findByUserAndIsActiveTrue(User user);
+    List<SpendingPattern> findByUserId(String userId);
+    List<SpendingPattern> findByUserIdAndIsActiveTrueOrderByPriorityScoreDesc(String userId);
     List<SpendingPattern> findByUserAndPatternType(User user, PatternType patternType);
     List<SpendingPattern> findByUserAndTrendDirection(User user, TrendDirection trendDirection);
 
@@ -0,0 +1,41 @@
+package com.savo.backend.repository;
+
+import com.savo.backend.model.StatementProcessingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StatementProcessingJobRepository extends JpaRepository<StatementProcessingJob, String> {
+
+    Optional<StatementProcessingJob> findByStatementUploadId(String statementUploadId);
+
+    boolean existsByStatementUploadId(String statementUploadId);
+
+    void deleteByStatementUploadId(String statementUploadId);
+
+    // Rows locked by another replica are skipped, so concurrent pollers never claim the same job
+    @Query(value = "SELECT * FROM statement_processing_jobs WHERE status = 'QUEUED' AND available_at <= :now " +
+            "ORDER BY available_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StatementProcessingJob> lockAvailableJobs(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM statement_processing_jobs WHERE status = 'RUNNING' AND lease_expires_at < :now " +
+            "ORDER BY lease_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<StatementProcessingJob> lockExpiredLeases(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE StatementProcessingJob j SET j.leaseExpiresAt = :expiresAt, j.heartbeatAt = :now " +
+            "WHERE j.id IN :ids AND j.leaseOwner = :owner AND j.status = com.savo.backend.enums.JobStatus.RUNNING")
+    int extendLeases(@Param("ids") Collection<String> ids, @Param("owner") String owner,
+                     @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StatementProcessingJob j SET j.status = com.savo.backend.enums.JobStatus.COMPLETED, j.leaseOwner = null, j.leaseExpiresAt = null, j.updatedAt = :now " +
+            "WHERE j.id = :id AND j.leaseOwner = :owner AND j.status = com.savo.backend.enums.JobStatus.RUNNING")
+    int completeLeasedJob(@Param("id") String id, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
@@ -5,6 +5,8 @@ import com.savo.backend.model.StatementUpload;
 import com.savo.backend.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -16,6 +18,15 @@ import java.util.Optional;
 
 public interface StatementUploadRepository extends JpaRepository<StatementUpload, String>, JpaSpecificationExecutor<StatementUpload> {
 
+    // Upload history maps every row with its bank account, so fetch it in the same select
+    @Override
+    @EntityGraph(attributePaths = "bankAccount")
+    Page<StatementUpload> findAll(Specification<StatementUpload> spec, Pageable pageable);
+
+    // Statement processing reads the owner and account outside any transaction, so load them with the upload
+    @EntityGraph(attributePaths = {"user", "bankAccount"})
+    Optional<StatementUpload> findWithUserAndBankAccountById(String id);
+
     List<StatementUpload> findByUserIdOrderByCreatedAtDesc(String userId);
     Page<StatementUpload> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
     List<StatementUpload> findByBankAccountIdOrderByCreatedAtDesc(String bankAccountId);
@@ -31,7 +42,8 @@ public interface StatementUploadRepository extends JpaRepository<StatementUpload
     // Check if duplicate upload exists
     boolean existsByUserIdAndBankAccountIdAndFileNameAndCreatedAtAfter(String userId, String bankAccountId, String fileName, LocalDateTime after);
 
-    boolean existsByBankAccountIdAndFileNameAndFileSize(String bankAccountId, String fileName, long fileSize);
+    // Exact re-upload of the same file; bank accounts belong to a single user, so this covers the per-account unique key
+    boolean existsByUserIdAndContentSha256(String userId, String contentSha256);
 
     // Find processing statements
     @Query("SELECT su FROM StatementUpload su WHERE su.uploadStatus = 'PROCESSING' AND su.processingStartedAt < :cutoffTime")
@@ -2,8 +2,14 @@ package com.savo.backend.repository;
 
 import com.savo.backend.model.Subscription;
 import com.savo.backend.model.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +20,25 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Stri
 
     Optional<Subscription> findByUserAndServiceName(User user, String serviceName);
 
+    Optional<Subscription> findByUserIdAndServiceName(String userId, String serviceName);
+
+    // Imports touching the same merchant re-detect its subscription, so the row is locked while it is updated
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Subscription s WHERE s.user.id = :userId AND s.serviceName = :serviceName")
+    Optional<Subscription> findForUpdate(@Param("userId") String userId, @Param("serviceName") String serviceName);
+
+    // Creates the subscription unless one exists for the merchant; returns 0 when another transaction got there first
+    @Modifying
+    @Query(value = "INSERT INTO subscriptions (id, user_id, service_name, amount, billing_cycle, next_billing_date, currency, " +
+            "first_detected, is_active, is_duplicate, category_id, created_at) " +
+            "VALUES (:id, :userId, :serviceName, :amount, :billingCycle, :nextBillingDate, :currency, " +
+            "now(), true, false, :categoryId, now()) " +
+            "ON CONFLICT (user_id, service_name) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("userId") String userId, @Param("serviceName") String serviceName,
+                       @Param("amount") BigDecimal amount, @Param("billingCycle") String billingCycle,
+                       @Param("nextBillingDate") LocalDate nextBillingDate, @Param("currency") String currency,
+                       @Param("categoryId") String categoryId);
+
     List<Subscription> findByNextBillingDateBetween(LocalDate start, LocalDate end);
 
     List<Subscription> findByIsDuplicateTrue();
@@ -3,6 +3,9 @@ package com.savo.backend.repository;
 import com.savo.backend.model.Subscription;
 import com.savo.backend.model.SubscriptionTransaction;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -11,9 +14,18 @@ public interface SubscriptionTransactionRepository extends JpaRepository<Subscri
 
     List<SubscriptionTransaction> findBySubscription(Subscription subscription);
 
-    Optional<SubscriptionTransaction> findTopBySubscriptionOrderByBillingPeriodDesc();
+    Optional<SubscriptionTransaction> findTopBySubscriptionOrderByBillingPeriodEndDesc(Subscription subscription);
 
     Long countBySubscriptionAndWasPredicted(Subscription subscription, boolean wasPredicted);
 
     List<SubscriptionTransaction> findByWasPredictedFalse();
+
+    @Modifying
+    @Query("DELETE FROM SubscriptionTransaction st WHERE st.transaction.id = :transactionId")
+    void deleteByTransactionId(@Param("transactionId") String transactionId);
+
+    @Modifying
+    @Query("DELETE FROM SubscriptionTransaction st WHERE st.transaction.id IN " +
+            "(SELECT t.id FROM Transaction t WHERE t.statementUpload.id = :uploadId)")
+    void deleteByStatementUploadId(@Param("uploadId") String uploadId);
 }
@@ -4,20 +4,24 @@ import com.savo.backend.enums.TransactionType;
 import com.savo.backend.model.BankAccount;
 import com.savo.backend.model.Transaction;
 import com.savo.backend.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface TransactionRepository extends JpaRepository<Transaction, String> {
+public interface TransactionRepository extends JpaRepository<Transaction, String>, JpaSpecificationExecutor<Transaction> {
 
     // Get all transactions for a user, ordered by date
     List<Transaction> findByUserIdOrderByTransactionDateDesc(String userId);
 
+    @EntityGraph(attributePaths = {"bankAccount", "category"})
     Optional<Transaction> findByUserIdAndId(String userId, String transactionId);
     List<Transaction> findByUserIdAndBankAccountIdOrderByTransactionDateDesc(String userId, String bankAccountId);
 
@@ -26,24 +30,42 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
     List<Transaction> findByUserIdAndTransactionTypeOrderByTransactionDateDesc(String userId, TransactionType transactionType);
     List<Transaction> findByUserIdAndCategoryIdOrderByTransactionDateDesc(String userId, String categoryId);
 
-    // Total spending/income for user
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.user.id = :userId AND t.transactionType = :type")
-    BigDecimal sumAmountByUserIdAndTransactionType(@Param("userId") String userId, @Param("type") TransactionType type);
+    // Totals by type and category are served from MonthlySpendingRollupRepository
 
-    // Monthly spending by category
-    @Query("SELECT t.category.name, SUM(t.amount) FROM Transaction t " + "WHERE t.user.id = :userId AND t.transactionType = 'Debit' " +
-    "AND t.transactionDate BETWEEN :startDate and :endDate " + "GROUP BY t.category.id, t.category.name " + "ORDER BY SUM(t.amount) DESC")
-    List<Object[]> getSpendingByCategoryForPeriod(
+    // Recent debits of the given merchants, oldest first, for subscription detection
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.merchantKey IN :merchantKeys " +
+            "AND t.transactionType = com.savo.backend.enums.TransactionType.Debit AND t.transactionDate >= :since " +
+            "ORDER BY t.merchantKey, t.transactionDate")
+    List<Transaction> findDebitsForMerchants(
             @Param("userId") String userId,
+            @Param("merchantKeys") Collection<String> merchantKeys,
+            @Param("since") LocalDate since);
+
+    // Seeds a new budget period; later changes arrive as deltas
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user.id = :userId " +
+            "AND t.transactionType = com.savo.backend.enums.TransactionType.Debit AND t.category.id IN :categoryIds " +
+            "AND t.transactionDate BETWEEN :startDate AND :endDate")
+    BigDecimal sumSpendingForCategories(
+            @Param("userId") String userId,
+            @Param("categoryIds") Collection<String> categoryIds,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate);
 
+    // Amounts and counts an upload contributed, by category, date, time and type; read before its transactions are deleted
+    @Query("SELECT t.category.id, t.transactionDate, t.timeOfDay, t.transactionType, SUM(t.amount), COUNT(t) FROM Transaction t " +
+            "WHERE t.statementUpload.id = :uploadId GROUP BY t.category.id, t.transactionDate, t.timeOfDay, t.transactionType")
+    List<Object[]> sumAmountsForUpload(@Param("uploadId") String uploadId);
+
     // Recent transactions (limit)
     @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.transactionDate DESC, t.createdAt DESC LIMIT :limit")
     List<Transaction> findRecentTransactions(@Param("userId") String userId, @Param("limit") int limit);
 
     long countByUserId(String userId);
 
+    @Query("SELECT DISTINCT t.merchantKey FROM Transaction t WHERE t.statementUpload.id = :uploadId " +
+            "AND t.transactionType = com.savo.backend.enums.TransactionType.Debit AND t.merchantKey IS NOT NULL")
+    List<String> findDebitMerchantKeysForUpload(@Param("uploadId") String uploadId);
+
     void deleteByStatementUploadId(String statementUploadId);
 
     @Query("SELECT COUNT(t) FROM Transaction t WHERE t.bankAccount.id = :bankAccountId " +
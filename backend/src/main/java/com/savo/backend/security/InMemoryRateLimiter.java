@@ -0,0 +1,59 @@
+package com.savo.backend.security;
+
+import com.savo.backend.config.RateLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-replica token buckets, lock-free.
+ *
+ * Each bucket is a single long: the time at which it will be full again (the GCRA form of a token bucket).
+ * Taking a token moves that time forward by one refill interval with a compare-and-set, and a request
+ * is refused while it lies more than capacity - 1 intervals ahead of now. Full buckets carry no
+ * information, so they are swept out once a minute and memory only grows with recently active clients.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime() + SWEEP_INTERVAL_NANOS);
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Rule rule) {
+        long now = System.nanoTime();
+        long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, rule.getRefillPerMinute());
+        long tolerance = interval * (rule.getCapacity() - 1);
+
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt == null) {
+            fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return TimeUnit.NANOSECONDS.toMillis(wait) + 1;
+            }
+            if (fullAt.compareAndSet(current, start + interval)) {
+                sweepIfDue(now);
+                return 0;
+            }
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due >= 0 && nextSweep.compareAndSet(due, now + SWEEP_INTERVAL_NANOS)) {
+            buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+        }
+    }
+}
@@ -6,24 +6,27 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final List<GrantedAuthority> USER_AUTHORITIES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserStatusCache userStatusCache) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
     }
 
     @Override
@@ -39,18 +42,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String jwt = authHeader.substring(7);
 
-        if (jwtService.validateToken(jwt)) {
-            String userId = jwtService.getUserIdFromToken(jwt);
-
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userId);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            jwtService.verify(jwt)
+                    .filter(token -> userStatusCache.isActive(token.getUserId()))
+                    .ifPresent(token -> {
+                        // Principal comes from the verified claims; the users table is only checked through the status cache
+                        UserPrincipal principal = new UserPrincipal(token.getUserId(), token.getEmail(), null, null, USER_AUTHORITIES);
 
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                                principal, null, principal.getAuthorities());
+                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                    });
         }
 
         filterChain.doFilter(request, response);
@@ -0,0 +1,98 @@
+package com.savo.backend.security;
+
+import com.savo.backend.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Throttles the expensive routes (statement uploads, login, registration) with the token buckets
+ * configured under app.rate-limit.rules.
+ *
+ * Runs after JwtAuthenticationFilter so USER-scoped rules can key on the user id. A rejected request
+ * gets 429 with Retry-After before any controller work starts, and global rules cap the total
+ * so a few clients cannot occupy every processing thread.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimitProperties rateLimitProperties;
+    private final RateLimiter rateLimiter;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties, RateLimiter rateLimiter) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitProperties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        // Client buckets first, so a client already over its own budget does not spend the global one
+        for (boolean globalPass : new boolean[] {false, true}) {
+            for (RateLimitProperties.Rule rule : rateLimitProperties.getRules()) {
+                boolean global = rule.getScope() == RateLimitProperties.Scope.GLOBAL;
+                if (global != globalPass || !matches(rule, request.getMethod(), path)) {
+                    continue;
+                }
+
+                String client = clientKey(rule, request);
+                long waitMillis = rateLimiter.tryAcquire(rule.getName() + ":" + client, rule);
+                if (waitMillis > 0) {
+                    logger.debug("Rate limited: rule={}, client={}, retryAfterMs={}", rule.getName(), client, waitMillis);
+                    reject(response, waitMillis);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private boolean matches(RateLimitProperties.Rule rule, String method, String path) {
+        return (rule.getMethod() == null || rule.getMethod().equalsIgnoreCase(method)) && pathMatcher.match(rule.getPath(), path);
+    }
+
+    private String clientKey(RateLimitProperties.Rule rule, HttpServletRequest request) {
+        if (rule.getScope() == RateLimitProperties.Scope.GLOBAL) {
+            return "global";
+        }
+        if (rule.getScope() == RateLimitProperties.Scope.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+                return "user:" + principal.getId();
+            }
+        }
+        // The client address from X-Forwarded-For when a trusted proxy sent it, see server.forward-headers-strategy
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitMillis) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitMillis + 999) / 1000);
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.getWriter().write("{\"error\":\"Too Many Requests\",\"message\":\"Rate limit exceeded, retry in "
+                + retryAfterSeconds + " seconds\"}");
+    }
+}
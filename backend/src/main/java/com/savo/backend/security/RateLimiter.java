@@ -0,0 +1,12 @@
+package com.savo.backend.security;
+
+import com.savo.backend.config.RateLimitProperties;
+
+/**
+ * Token bucket per key, refilled continuously at the rule's rate up to its capacity.
+ */
+public interface RateLimiter {
+
+    // Takes one token; returns 0 if one was available, otherwise the milliseconds until one will be
+    long tryAcquire(String key, RateLimitProperties.Rule rule);
+}
@@ -0,0 +1,70 @@
+package com.savo.backend.security;
+
+import com.savo.backend.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cluster-wide token buckets in Redis, using the same full-at timestamp as InMemoryRateLimiter.
+ *
+ * The check and update run as one Lua script on Redis' own clock, so replicas with skewed clocks
+ * share a bucket correctly, and each key expires once its bucket is full again.
+ * While Redis is unreachable, each replica falls back to its own in-memory buckets.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "store", havingValue = "redis")
+public class RedisRateLimiter implements RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisRateLimiter.class);
+
+    private static final String KEY_PREFIX = "savo:rate:";
+    private static final long WARNING_INTERVAL_MILLIS = 60_000;
+
+    // KEYS[1] bucket; ARGV[1] refill interval ms, ARGV[2] tolerance ms. Returns 0 or ms to wait.
+    private static final RedisScript<Long> TAKE_TOKEN = new DefaultRedisScript<>(
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local interval = tonumber(ARGV[1]) " +
+            "local start = tonumber(redis.call('GET', KEYS[1]) or now) " +
+            "if start < now then start = now end " +
+            "local wait = start - tonumber(ARGV[2]) - now " +
+            "if wait > 0 then return math.ceil(wait) end " +
+            "redis.call('SET', KEYS[1], start + interval, 'PX', math.ceil(start + interval - now)) " +
+            "return 0",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final InMemoryRateLimiter fallback = new InMemoryRateLimiter();
+    private final AtomicLong lastWarning = new AtomicLong();
+
+    public RedisRateLimiter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long tryAcquire(String key, RateLimitProperties.Rule rule) {
+        double interval = (double) TimeUnit.MINUTES.toMillis(1) / Math.max(1, rule.getRefillPerMinute());
+        double tolerance = interval * (rule.getCapacity() - 1);
+        try {
+            Long wait = redisTemplate.execute(TAKE_TOKEN, List.of(KEY_PREFIX + key),
+                    String.valueOf(interval), String.valueOf(tolerance));
+            return wait != null ? wait : 0;
+        } catch (RuntimeException e) {
+            long now = System.currentTimeMillis();
+            long last = lastWarning.get();
+            if (now - last >= WARNING_INTERVAL_MILLIS && lastWarning.compareAndSet(last, now)) {
+                logger.warn("Redis rate limiter unavailable, limiting per replica: {}", e.getMessage());
+            }
+            return fallback.tryAcquire(key, rule);
+        }
+    }
+}
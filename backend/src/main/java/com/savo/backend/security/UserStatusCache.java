@@ -0,0 +1,36 @@
+package com.savo.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.savo.backend.repository.UserRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Remembers for TTL_MILLIS whether a token's user still exists, so authenticating a request
+ * costs at most one primary key lookup per user per minute instead of one per request.
+ * A removed account is locked out within TTL_MILLIS even though its tokens have not expired.
+ */
+@Component
+public class UserStatusCache {
+
+    private static final long TTL_MILLIS = 60_000;
+    private static final int MAX_CACHED_USERS = 10_000;
+
+    private final UserRepository userRepository;
+
+    // Concurrent requests for the same user share one lookup
+    private final Cache<String, Boolean> statuses = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_USERS)
+            .expireAfterWrite(Duration.ofMillis(TTL_MILLIS))
+            .build();
+
+    public UserStatusCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public boolean isActive(String userId) {
+        return statuses.get(userId, userRepository::existsById);
+    }
+}
@@ -6,11 +6,14 @@ import com.savo.backend.repository.CategoryRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -20,8 +23,16 @@ public class AutoCategorisationService {
 
     private static final Logger logger = LoggerFactory.getLogger(AutoCategorisationService.class);
     private final CategoryRepository categoryRepository;
+    private final CategoryResolutionCache categoryResolutionCache;
+    private final MerchantCategoryOverrides merchantCategoryOverrides;
+    private final CategorisationModelRegistry categorisationModelRegistry;
+    private final DistributedCache distributedCache;
 
-    private static final Map<String, String[]> CATEGORY_KEYWORDS = new HashMap<String, String[]>() {{
+    // Below this the keyword rules decide instead of the model
+    private static final double MODEL_MIN_CONFIDENCE = 0.7;
+
+    // Package-private so tests and benchmarks can compare the automaton with a plain per-keyword scan
+    static final Map<String, String[]> CATEGORY_KEYWORDS = new HashMap<String, String[]>() {{
         put("Food & Drinks", new String[]{
                 "MCDONALD", "KFC", "BURGER KING", "SUBWAY", "PIZZA HUT", "DOMINO",
                 "STARBUCKS", "COFFEE BEAN", "YA KUN", "TOAST BOX", "KOPITIAM",
@@ -102,29 +113,85 @@ public class AutoCategorisationService {
         });
     }};
 
-    public AutoCategorisationService(CategoryRepository categoryRepository) {
+    // Keyword dictionary compiled once: every keyword of every category, indexed by keyword id
+    private static final List<String> CATEGORY_NAMES = new ArrayList<>(CATEGORY_KEYWORDS.keySet());
+    private static final int[] KEYWORD_CATEGORY;
+    private static final double[] KEYWORD_WEIGHT;
+    private static final KeywordAutomaton KEYWORD_AUTOMATON;
+
+    static {
+        List<String> keywords = new ArrayList<>();
+        List<Integer> keywordCategories = new ArrayList<>();
+
+        for (int categoryIndex = 0; categoryIndex < CATEGORY_NAMES.size(); categoryIndex++) {
+            for (String keyword : CATEGORY_KEYWORDS.get(CATEGORY_NAMES.get(categoryIndex))) {
+                keywords.add(keyword);
+                keywordCategories.add(categoryIndex);
+            }
+        }
+
+        KEYWORD_CATEGORY = keywordCategories.stream().mapToInt(Integer::intValue).toArray();
+        KEYWORD_WEIGHT = new double[keywords.size()];
+        for (int id = 0; id < keywords.size(); id++) {
+            // Longer keywords get higher scores (more specific)
+            KEYWORD_WEIGHT[id] = Math.min(1.0, keywords.get(id).length() / 10.0);
+        }
+        KEYWORD_AUTOMATON = new KeywordAutomaton(keywords);
+    }
+
+    public AutoCategorisationService(CategoryRepository categoryRepository, CategoryResolutionCache categoryResolutionCache,
+                                     MerchantCategoryOverrides merchantCategoryOverrides, CategorisationModelRegistry categorisationModelRegistry,
+                                     DistributedCache distributedCache) {
         this.categoryRepository = categoryRepository;
+        this.categoryResolutionCache = categoryResolutionCache;
+        this.merchantCategoryOverrides = merchantCategoryOverrides;
+        this.categorisationModelRegistry = categorisationModelRegistry;
+        this.distributedCache = distributedCache;
         initialiseSystemCategories();
     }
 
-    public String autoCategoriseTransaction(Transaction transaction) {
+    // Called per parsed row outside any transaction, so it must not open one of its own
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Category autoCategoriseTransaction(Transaction transaction) {
+        // The user's own correction for this merchant beats any keyword match
+        Optional<String> overrideCategoryId = merchantCategoryOverrides.findCategoryId(
+                transaction.getUser().getId(), transaction.getMerchantKey());
+        if (overrideCategoryId.isPresent()) {
+            transaction.setCategoryConfidence(1.0);
+            return categoryRepository.getReferenceById(overrideCategoryId.get());
+        }
+
+        Optional<CategoryClassifier.Prediction> prediction = categorisationModelRegistry.predict(
+                transaction.getMerchantName(), transaction.getDescription(), transaction.getTransactionType());
+        if (prediction.isPresent() && prediction.get().getConfidence() >= MODEL_MIN_CONFIDENCE) {
+            transaction.setCategoryConfidence(prediction.get().getConfidence());
+            return categoryRepository.getReferenceById(prediction.get().getCategoryId());
+        }
+
         String description = transaction.getDescription().toUpperCase();
         String merchantName = transaction.getMerchantName() != null ?
                 transaction.getMerchantName().toUpperCase() : null;
 
         String fullText = (description + " " + merchantName).toUpperCase();
 
+        // Single scan finds every keyword of every category
+        boolean[] matched = new boolean[KEYWORD_AUTOMATON.getKeywordCount()];
+        KEYWORD_AUTOMATON.findMatches(fullText, matched);
+
+        double[] matchedWeight = new double[CATEGORY_NAMES.size()];
+        for (int id = 0; id < matched.length; id++) {
+            if (matched[id]) {
+                matchedWeight[KEYWORD_CATEGORY[id]] += KEYWORD_WEIGHT[id];
+            }
+        }
+
         if (transaction.getTransactionType().toString().equals("Credit")) {
-            for (String keyword : CATEGORY_KEYWORDS.get("Salary")) {
-                if (fullText.contains(keyword)) {
-                    return findOrCreateCategory("Salary", transaction.getUser().getId(), true);
-                }
+            if (matchedWeight[CATEGORY_NAMES.indexOf("Salary")] > 0) {
+                return findOrCreateCategory("Salary", transaction.getUser().getId(), true);
             }
 
-            for (String keyword : CATEGORY_KEYWORDS.get("Investment")) {
-                if (fullText.contains(keyword)) {
-                    return findOrCreateCategory("Investment", transaction.getUser().getId(), true);
-                }
+            if (matchedWeight[CATEGORY_NAMES.indexOf("Investment")] > 0) {
+                return findOrCreateCategory("Investment", transaction.getUser().getId(), true);
             }
 
             return findOrCreateCategory("Other Income", transaction.getUser().getId(), true);
@@ -134,14 +201,14 @@ public class AutoCategorisationService {
         double maxScore = 0.0;
         String bestCategory = null;
 
-        for (Map.Entry<String, String[]> entry :CATEGORY_KEYWORDS.entrySet()) {
-            String categoryName = entry.getKey();
+        for (int categoryIndex = 0; categoryIndex < CATEGORY_NAMES.size(); categoryIndex++) {
+            String categoryName = CATEGORY_NAMES.get(categoryIndex);
 
             if (categoryName.equals("Salary") || categoryName.equals("Investment")) {
                 continue;
             }
 
-            double score = calculateCategoryScore(fullText, entry.getValue());
+            double score = calculateCategoryScore(matchedWeight[categoryIndex], CATEGORY_KEYWORDS.get(categoryName).length);
             if (score > maxScore) {
                 maxScore = score;
                 bestCategory = categoryName;
@@ -160,20 +227,9 @@ public class AutoCategorisationService {
         return findOrCreateCategory("Uncategorised", transaction.getUser().getId(), false);
     }
 
-    private double calculateCategoryScore(String text, String[] keywords) {
-        int matches = 0;
-        double totalScore = 0.0;
-
-        for (String keyword : keywords) {
-            if (text.contains(keyword)) {
-                matches++;
-                // Longer keywords get higher scores (more specific)
-                totalScore += Math.min(1.0, keyword.length() / 10.0);
-            }
-        }
-
+    private double calculateCategoryScore(double matchedWeight, int keywordCount) {
         // Normalise score based on number of matches and keyword strength
-        return matches > 0 ? totalScore / keywords.length : 0.0;
+        return matchedWeight > 0 ? matchedWeight / keywordCount : 0.0;
     }
 
     private String categoriseByAmount(BigDecimal amount) {
@@ -198,15 +254,15 @@ public class AutoCategorisationService {
         return "Bills & Utilities";
     }
 
-    private String findOrCreateCategory(String categoryName, String userId, boolean isIncome) {
-        Optional<Category> systemCategory = categoryRepository.findByNameAndUserIdIsNull(categoryName);
+    private Category findOrCreateCategory(String categoryName, String userId, boolean isIncome) {
+        Optional<Category> systemCategory = categoryResolutionCache.findSystemCategory(categoryName);
         if (systemCategory.isPresent()) {
-            return systemCategory.get().getId();
+            return systemCategory.get();
         }
 
-        Optional<Category> userCategory = categoryRepository.findByNameAndUserId(categoryName, userId);
+        Optional<Category> userCategory = categoryResolutionCache.findUserCategory(userId, categoryName);
         if (userCategory.isPresent()) {
-            return userCategory.get().getId();
+            return userCategory.get();
         }
 
         // Create new system category
@@ -214,7 +270,7 @@ public class AutoCategorisationService {
     }
 
     @Transactional
-    private String createSystemCategory(String categoryName, boolean isIncome, String icon, String color) {
+    private Category createSystemCategory(String categoryName, boolean isIncome, String icon, String color) {
         Category category = new Category();
         category.setName(categoryName);
         category.setUser(null);
@@ -225,7 +281,10 @@ public class AutoCategorisationService {
         category.setCreatedAt(LocalDateTime.now());
 
         Category saved = categoryRepository.save(category);
-        return saved.getId();
+        categoryResolutionCache.putSystemCategory(saved);
+        // Every user's category listings include system categories
+        distributedCache.evictAll(DistributedCache.CATEGORIES);
+        return saved;
     }
 
     private void initialiseSystemCategories() {
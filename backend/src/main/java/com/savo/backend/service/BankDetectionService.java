@@ -3,20 +3,17 @@ package com.savo.backend.service;
 import com.savo.backend.exception.ValidationException;
 import com.savo.backend.model.BankAccount;
 import com.savo.backend.model.User;
+import com.savo.backend.parser.ParsedStatement;
+import com.savo.backend.parser.StatementParser;
+import com.savo.backend.parser.StatementParserRegistry;
 import com.savo.backend.repository.BankAccountRepository;
 import com.savo.backend.repository.UserRepository;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class BankDetectionService {
@@ -25,63 +22,49 @@ public class BankDetectionService {
 
     private final BankAccountRepository bankAccountRepository;
     private final UserRepository userRepository;
+    private final StatementParserRegistry statementParserRegistry;
+    private final DistributedCache distributedCache;
 
-    public BankDetectionService(BankAccountRepository bankAccountRepository, UserRepository userRepository) {
+    public BankDetectionService(BankAccountRepository bankAccountRepository, UserRepository userRepository, StatementParserRegistry statementParserRegistry,
+                                DistributedCache distributedCache) {
         this.bankAccountRepository = bankAccountRepository;
         this.userRepository = userRepository;
+        this.statementParserRegistry = statementParserRegistry;
+        this.distributedCache = distributedCache;
     }
 
-    public BankAccount detectAndResolveBankAccount(MultipartFile file, String userId) {
-        try {
-            String pdfText = extractTextFromPDF(file);
+    public BankAccount detectAndResolveBankAccount(ParsedStatement statement, String userId) {
+        // Bank name and account number are printed on the first page
+        String pdfText = statement.getPageText(1);
 
-            BankDetectionResult detection = detectBankFromPDF(pdfText);
+        BankDetectionResult detection = detectBankFromPDF(pdfText);
 
-            Optional<BankAccount> existingAccount = bankAccountRepository.findByUserIdAndBankNameAndAccountNumberMasked(userId, detection.bankName, detection.maskedAccountNumber);
+        Optional<BankAccount> existingAccount = bankAccountRepository.findByUserIdAndBankNameAndAccountNumberMasked(userId, detection.bankName, detection.maskedAccountNumber);
 
-            if (existingAccount.isPresent()) {
-                logger.info("Using existing bank account: bank={}, account={}", detection.bankName, detection.maskedAccountNumber);
-                return existingAccount.get();
-            } else {
-                return createNewBankAccount(userId, detection);
-            }
-        } catch (IOException e) {
-            logger.error("Failed to process PDF for bank detection", e);
-            throw new ValidationException("Unable to read PDF for bank detection");
-        }
-    }
-
-    private String extractTextFromPDF(MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
-            stripper.setStartPage(1);
-            stripper.setEndPage(1);
-            return stripper.getText(document);
+        if (existingAccount.isPresent()) {
+            logger.info("Using existing bank account: bank={}, account={}", detection.bankName, detection.maskedAccountNumber);
+            return existingAccount.get();
+        } else {
+            return createNewBankAccount(userId, detection);
         }
     }
 
-    private BankDetectionResult detectBankFromPDF(String pdfText) throws IOException {
+    private BankDetectionResult detectBankFromPDF(String pdfText) {
         BankDetectionResult result = new BankDetectionResult();
 
-        if (pdfText.contains("DBS") || pdfText.contains("POSB")) {
-            result.bankName = "DBS";
-            result.accountNumber = extractAccountNumber(pdfText, "DBS");
-        } else if (pdfText.contains("OCBC")) {
-            result.bankName = "OCBC";
-            result.accountNumber = extractAccountNumber(pdfText, "OCBC");
-        } else if (pdfText.contains("UOB")) {
-            result.bankName = "UOB";
-            result.accountNumber = extractAccountNumber(pdfText, "UOB");
-        } else {
-            throw new ValidationException("Unsupported bank format. Currently supports DBS, OCBC and UOB");
-        }
+        StatementParser parser = statementParserRegistry.detect(pdfText);
+        result.bankName = parser.getBankName();
+
+        String accountNumber = parser.extractAccountNumber(pdfText);
+        result.accountNumber = accountNumber != null ? accountNumber : "UNKNOWN";
 
         // Detect account type
-        if (pdfText.toLowerCase().contains("savings")) {
+        String lowerText = pdfText.toLowerCase();
+        if (lowerText.contains("savings")) {
             result.accountType = "Savings";
-        } else if (pdfText.toLowerCase().contains("current")) {
+        } else if (lowerText.contains("current")) {
             result.accountType = "Current";
-        } else if (pdfText.toLowerCase().contains("credit")) {
+        } else if (lowerText.contains("credit")) {
             result.accountType = "Credit Card";
         } else {
             result.accountType = "Savings"; // Default
@@ -91,40 +74,6 @@ public class BankDetectionService {
         return result;
     }
 
-    private String extractAccountNumber(String pdfText, String bankName) {
-        Pattern pattern = null;
-        Matcher matcher = null;
-
-        switch (bankName) {
-            case "DBS":
-                pattern = Pattern.compile("\\b\\d{3}-\\d{5,6}-\\d{1}\\b");
-                matcher = pattern.matcher(pdfText);
-                if (matcher.find()) {
-                    return matcher.group(0).replaceAll("-", "");
-                }
-                return "UNKNOWN";
-
-            case "OCBC":
-                pattern = Pattern.compile("Account No\\.?\\s*(\\d{10,12})", Pattern.CASE_INSENSITIVE);
-                matcher = pattern.matcher(pdfText);
-                if (matcher.find()) {
-                    return matcher.group(1);
-                }
-                return "UNKNOWN";
-
-            case "UOB":
-                pattern = Pattern.compile("Account Number:?\\s*(\\d{10,12})", Pattern.CASE_INSENSITIVE);
-                matcher = pattern.matcher(pdfText);
-                if (matcher.find()) {
-                    return matcher.group(1);
-                }
-                return "UNKNOWN";
-
-            default:
-                return "UNKNOWN";
-        }
-    }
-
     private String maskAccountNumber(String accountNumber) {
         if (accountNumber == null || accountNumber.equals("UNKNOWN") || accountNumber.length() < 4) {
             return "****";
@@ -148,6 +97,7 @@ public class BankDetectionService {
         bankAccount.setCreatedAt(LocalDateTime.now());
 
         BankAccount saved = bankAccountRepository.save(bankAccount);
+        distributedCache.evictUser(DistributedCache.BANK_ACCOUNTS, userId);
         logger.info("Created new bank account: bank={}, type={}, account={}", detection.bankName, detection.accountType, detection.maskedAccountNumber);
 
         return saved;
@@ -0,0 +1,238 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.BudgetStatus;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.event.BudgetAlertEvent;
+import com.savo.backend.event.TransactionChangeEvent;
+import com.savo.backend.model.Budget;
+import com.savo.backend.model.BudgetProgress;
+import com.savo.backend.repository.BudgetProgressRepository;
+import com.savo.backend.repository.BudgetRepository;
+import com.savo.backend.repository.CategoryRepository;
+import com.savo.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps BudgetProgress current as transactions change.
+ *
+ * Each TransactionChangeEvent is folded into one signed delta per (budget, period), and the
+ * delta is applied to the period row on the publisher's transaction. A debit counts towards
+ * every active budget on its category or any ancestor category.
+ * A period row is seeded from the transactions table the first time it is touched. After that
+ * it only moves by deltas, so reading a budget's status is a single row lookup.
+ */
+@Service
+public class BudgetProgressEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(BudgetProgressEngine.class);
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetProgressRepository budgetProgressRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BudgetProgressEngine(BudgetRepository budgetRepository, BudgetProgressRepository budgetProgressRepository,
+                                CategoryRepository categoryRepository, TransactionRepository transactionRepository,
+                                ApplicationEventPublisher eventPublisher) {
+        this.budgetRepository = budgetRepository;
+        this.budgetProgressRepository = budgetProgressRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionRepository = transactionRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener
+    @Transactional
+    public void onTransactionChange(TransactionChangeEvent event) {
+        List<TransactionChangeEvent.Change> debits = event.getChanges().stream()
+                .filter(change -> change.getTransactionType() == TransactionType.Debit && change.getAmount().signum() != 0)
+                .toList();
+        if (debits.isEmpty()) {
+            return;
+        }
+
+        List<Budget> budgets = budgetRepository.findByUserIdAndIsActiveTrue(event.getUserId());
+        if (budgets.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> parents = loadCategoryParents(event.getUserId());
+
+        Map<PeriodKey, BigDecimal> deltas = new LinkedHashMap<>();
+        for (TransactionChangeEvent.Change change : debits) {
+            Set<String> categoryPath = ancestorsOf(change.getCategoryId(), parents);
+            for (Budget budget : budgets) {
+                if (!categoryPath.contains(budget.getCategory().getId()) || !covers(budget, change.getTransactionDate())) {
+                    continue;
+                }
+                LocalDate[] period = periodFor(budget, change.getTransactionDate());
+                deltas.merge(new PeriodKey(budget, period[0], period[1]), change.getAmount(), BigDecimal::add);
+            }
+        }
+
+        for (Map.Entry<PeriodKey, BigDecimal> entry : deltas.entrySet()) {
+            apply(event.getUserId(), entry.getKey(), entry.getValue(), parents);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BudgetProgress> findCurrentProgress(Budget budget, LocalDate date) {
+        if (!covers(budget, date)) {
+            return Optional.empty();
+        }
+        LocalDate[] period = periodFor(budget, date);
+        return budgetProgressRepository.findByBudgetAndPeriodStartAndPeriodEnd(budget, period[0], period[1]);
+    }
+
+    private void apply(String userId, PeriodKey key, BigDecimal delta, Map<String, String> parents) {
+        Budget budget = key.budget;
+
+        // Insert-then-lock: FOR UPDATE cannot lock a row that does not exist yet, so concurrent imports
+        // seeding the same period would otherwise both insert it
+        boolean seeded = budgetProgressRepository.insertIfAbsent(UUID.randomUUID().toString(), budget.getId(),
+                key.periodStart, key.periodEnd, budget.getAmount()) == 1;
+        BudgetProgress progress = budgetProgressRepository.findByBudgetIdAndPeriodStart(budget.getId(), key.periodStart)
+                .orElseThrow(() -> new IllegalStateException("Budget progress row missing after insert: budget=" + budget.getId()));
+
+        BudgetStatus previousStatus;
+        if (seeded) {
+            // Changes are flushed before the event is published, so the seed already includes this delta
+            previousStatus = BudgetStatus.ON_TRACK;
+            progress.updateSpentAmount(transactionRepository.sumSpendingForCategories(
+                    userId, descendantsOf(budget.getCategory().getId(), parents), key.periodStart, key.periodEnd));
+        } else {
+            previousStatus = progress.getStatus();
+            progress.updateSpentAmount(progress.getSpentAmount().add(delta).max(BigDecimal.ZERO));
+        }
+        budgetProgressRepository.save(progress);
+
+        if (progress.getStatus().ordinal() > previousStatus.ordinal()) {
+            logger.info("Budget alert: budget={}, period={}, status={}, used={}%",
+                    budget.getId(), key.periodStart, progress.getStatus(), progress.getPercentageUsed());
+            eventPublisher.publishEvent(new BudgetAlertEvent(userId, budget.getId(), key.periodStart,
+                    progress.getStatus(), progress.getPercentageUsed()));
+        }
+    }
+
+    private Map<String, String> loadCategoryParents(String userId) {
+        Map<String, String> parents = new HashMap<>();
+        for (Object[] row : categoryRepository.findHierarchyForUser(userId)) {
+            parents.put((String) row[0], (String) row[1]);
+        }
+        return parents;
+    }
+
+    // The category itself plus every parent above it
+    private Set<String> ancestorsOf(String categoryId, Map<String, String> parents) {
+        Set<String> path = new HashSet<>();
+        String id = categoryId;
+        // add() fails on a repeated id, so a cyclic hierarchy cannot loop forever
+        while (id != null && path.add(id)) {
+            id = parents.get(id);
+        }
+        return path;
+    }
+
+    // The category itself plus every subcategory below it
+    private Set<String> descendantsOf(String categoryId, Map<String, String> parents) {
+        Map<String, List<String>> children = new HashMap<>();
+        parents.forEach((child, parent) -> {
+            if (parent != null) {
+                children.computeIfAbsent(parent, key -> new ArrayList<>()).add(child);
+            }
+        });
+
+        Set<String> subtree = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(categoryId);
+        while (!pending.isEmpty()) {
+            String id = pending.pop();
+            if (subtree.add(id)) {
+                children.getOrDefault(id, List.of()).forEach(pending::push);
+            }
+        }
+        return subtree;
+    }
+
+    private boolean covers(Budget budget, LocalDate date) {
+        return !date.isBefore(budget.getStartDate()) && (budget.getEndDate() == null || !date.isAfter(budget.getEndDate()));
+    }
+
+    // Calendar-aligned periods (ISO weeks, calendar months), clipped to the budget's own dates
+    static LocalDate[] periodFor(Budget budget, LocalDate date) {
+        LocalDate start;
+        LocalDate end;
+        switch (budget.getPeriod()) {
+            case Daily -> {
+                start = date;
+                end = date;
+            }
+            case Weekly -> {
+                start = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                end = start.plusDays(6);
+            }
+            default -> {
+                start = date.withDayOfMonth(1);
+                end = date.with(TemporalAdjusters.lastDayOfMonth());
+            }
+        }
+
+        if (start.isBefore(budget.getStartDate())) {
+            start = budget.getStartDate();
+        }
+        if (budget.getEndDate() != null && end.isAfter(budget.getEndDate())) {
+            end = budget.getEndDate();
+        }
+        return new LocalDate[] {start, end};
+    }
+
+    private static class PeriodKey {
+        private final Budget budget;
+        private final LocalDate periodStart;
+        private final LocalDate periodEnd;
+
+        PeriodKey(Budget budget, LocalDate periodStart, LocalDate periodEnd) {
+            this.budget = budget;
+            this.periodStart = periodStart;
+            this.periodEnd = periodEnd;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PeriodKey other)) {
+                return false;
+            }
+            return budget.getId().equals(other.budget.getId()) && periodStart.equals(other.periodStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return budget.getId().hashCode() * 31 + periodStart.hashCode();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.ModelType;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.MLModelVersion;
+import com.savo.backend.repository.CategoryRepository;
+import com.savo.backend.repository.MLModelVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Holds the active categorisation model and swaps in new versions without a restart.
+ *
+ * Every app.categorisation-model.refresh-interval-ms the active MLModelVersion id is checked, and a
+ * changed version is loaded and published with a single reference swap, so each prediction sees
+ * one complete model. The model is retrained on app.categorisation-model.train-cron, nightly at 03:00 by
+ * default, and a model trained on this instance is installed directly. Predictions are limited
+ * to active system categories whose income flag matches the transaction type.
+ */
+@Component
+public class CategorisationModelRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategorisationModelRegistry.class);
+
+    private final MLModelVersionRepository modelVersionRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategorisationModelTrainer categorisationModelTrainer;
+
+    private final AtomicReference<LoadedModel> current = new AtomicReference<>();
+    private final AtomicBoolean training = new AtomicBoolean();
+
+    public CategorisationModelRegistry(MLModelVersionRepository modelVersionRepository, CategoryRepository categoryRepository,
+                                       CategorisationModelTrainer categorisationModelTrainer) {
+        this.modelVersionRepository = modelVersionRepository;
+        this.categoryRepository = categoryRepository;
+        this.categorisationModelTrainer = categorisationModelTrainer;
+    }
+
+    public Optional<CategoryClassifier.Prediction> predict(String merchantName, String description, TransactionType transactionType) {
+        LoadedModel model = current.get();
+        if (model == null) {
+            return Optional.empty();
+        }
+        CategoryClassifier classifier = transactionType == TransactionType.Credit ? model.credits : model.debits;
+        return Optional.ofNullable(classifier.predict(merchantName, description));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.categorisation-model.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.categorisation-model.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void refresh() {
+        List<String> activeIds = modelVersionRepository.findActiveVersionIds(ModelType.CATEGORIZATION);
+        LoadedModel loaded = current.get();
+
+        if (activeIds.isEmpty()) {
+            if (loaded != null) {
+                current.set(null);
+                logger.info("Categorisation model deactivated: version={}", loaded.versionId);
+            }
+            return;
+        }
+        if (loaded != null && loaded.versionId.equals(activeIds.get(0))) {
+            return;
+        }
+
+        MLModelVersion version = modelVersionRepository.findById(activeIds.get(0)).orElse(null);
+        if (version == null || version.getModelData() == null) {
+            return;
+        }
+        try {
+            install(version.getId(), CategoryClassifier.fromBytes(version.getModelData()));
+            logger.info("Loaded categorisation model: version={}, accuracy={}", version.getVersion(), version.getAccuracyPercentage());
+        } catch (RuntimeException e) {
+            logger.error("Failed to load categorisation model: version={}", version.getVersion(), e);
+        }
+    }
+
+    @Scheduled(cron = "${app.categorisation-model.train-cron:0 0 3 * * *}")
+    public void retrain() {
+        if (!training.compareAndSet(false, true)) {
+            logger.debug("Categorisation model training already running");
+            return;
+        }
+        try {
+            // Returns after the version is committed, so other instances can already load it
+            categorisationModelTrainer.trainAndDeploy()
+                    .ifPresent(trained -> install(trained.getVersionId(), trained.getClassifier()));
+        } catch (Exception e) {
+            logger.error("Failed to train categorisation model", e);
+        } finally {
+            training.set(false);
+        }
+    }
+
+    private void install(String versionId, CategoryClassifier classifier) {
+        List<Category> systemCategories = categoryRepository.findSystemCategories();
+        Set<String> incomeIds = systemCategories.stream()
+                .filter(category -> Boolean.TRUE.equals(category.getIncomeCategory()))
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        Set<String> expenseIds = systemCategories.stream()
+                .filter(category -> !Boolean.TRUE.equals(category.getIncomeCategory()))
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+
+        current.set(new LoadedModel(versionId, classifier.restrictTo(expenseIds), classifier.restrictTo(incomeIds)));
+    }
+
+    private static class LoadedModel {
+        private final String versionId;
+        private final CategoryClassifier debits;
+        private final CategoryClassifier credits;
+
+        LoadedModel(String versionId, CategoryClassifier debits, CategoryClassifier credits) {
+            this.versionId = versionId;
+            this.debits = debits;
+            this.credits = credits;
+        }
+    }
+}
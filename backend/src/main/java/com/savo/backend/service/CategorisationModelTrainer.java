@@ -0,0 +1,143 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.ModelType;
+import com.savo.backend.model.MLModelVersion;
+import com.savo.backend.repository.MLModelVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Trains the categorisation model from the categories users chose themselves.
+ *
+ * Samples are manually categorised transactions, which includes every transaction with a correction
+ * recorded in categorization_feedback, labelled with their current category. Only active system
+ * categories are learned; user-specific categories are covered per user by MerchantCategoryOverrides.
+ * Every fifth sample is held out to score accuracy, then the model is refit on all samples and stored
+ * as a new MLModelVersion. The version is activated only if it scores at least as well as the active one.
+ * Only one instance trains at a time; the others skip the run.
+ */
+@Service
+public class CategorisationModelTrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategorisationModelTrainer.class);
+
+    private static final int MIN_TRAINING_SAMPLES = 100;
+    private static final int MAX_TRAINING_SAMPLES = 200_000;
+    private static final int HOLDOUT_EVERY = 5;
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS");
+
+    // Held until the training transaction ends, so replicas sharing a schedule train one at a time
+    private static final long TRAINING_LOCK_KEY = 0x53415630_4d4f444cL;
+
+    private static final String TRAINING_SAMPLES_SQL =
+            "SELECT t.merchant_name, t.description, t.category_id FROM transactions t " +
+            "JOIN categories c ON c.id = t.category_id " +
+            "WHERE c.user_id IS NULL AND c.is_active " +
+            "AND (t.is_manually_categorized OR EXISTS (SELECT 1 FROM categorization_feedback f WHERE f.transaction_id = t.id)) " +
+            "ORDER BY t.created_at DESC LIMIT ?";
+
+    private final MLModelVersionRepository modelVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public CategorisationModelTrainer(MLModelVersionRepository modelVersionRepository, JdbcTemplate jdbcTemplate) {
+        this.modelVersionRepository = modelVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Returns the new model if it was activated
+    @Transactional
+    public Optional<TrainedModel> trainAndDeploy() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, TRAINING_LOCK_KEY))) {
+            logger.info("Categorisation model training already running on another instance");
+            return Optional.empty();
+        }
+
+        CategoryClassifier.Trainer trainingSet = new CategoryClassifier.Trainer();
+        CategoryClassifier.Trainer fullSet = new CategoryClassifier.Trainer();
+        List<String[]> holdout = new ArrayList<>();
+
+        jdbcTemplate.query(TRAINING_SAMPLES_SQL, rs -> {
+            String merchantName = rs.getString(1);
+            String description = rs.getString(2);
+            String categoryId = rs.getString(3);
+
+            fullSet.add(merchantName, description, categoryId);
+            if (rs.getRow() % HOLDOUT_EVERY == 0) {
+                holdout.add(new String[] {merchantName, description, categoryId});
+            } else {
+                trainingSet.add(merchantName, description, categoryId);
+            }
+        }, MAX_TRAINING_SAMPLES);
+
+        if (fullSet.getSampleCount() < MIN_TRAINING_SAMPLES) {
+            logger.info("Not enough samples to train categorisation model: samples={}", fullSet.getSampleCount());
+            return Optional.empty();
+        }
+
+        double accuracy = accuracy(trainingSet.build(), holdout);
+        byte[] modelData = fullSet.toBytes();
+
+        MLModelVersion active = modelVersionRepository.findFirstByModelTypeAndIsActiveTrueOrderByDeployedAtDesc(ModelType.CATEGORIZATION)
+                .orElse(null);
+        boolean activate = active == null || accuracy >= active.getAccuracyScore();
+
+        MLModelVersion version = new MLModelVersion("categorization-" + LocalDateTime.now().format(VERSION_FORMAT),
+                ModelType.CATEGORIZATION, fullSet.getSampleCount(), accuracy);
+        version.setModelDescription("Naive Bayes over hashed character 3- and 4-grams of merchant name and description");
+        version.setTrainingNotes(String.format("holdout=%d, bytes=%d, previous=%s",
+                holdout.size(), modelData.length, active != null ? active.getVersion() : "none"));
+        version.setModelData(modelData);
+
+        if (activate) {
+            modelVersionRepository.deactivateAll(ModelType.CATEGORIZATION);
+            version.activate();
+        }
+        version = modelVersionRepository.save(version);
+
+        logger.info("Trained categorisation model: version={}, samples={}, accuracy={}, activated={}",
+                version.getVersion(), version.getTrainingDataCount(), version.getAccuracyPercentage(), activate);
+        return activate ? Optional.of(new TrainedModel(version.getId(), fullSet.build())) : Optional.empty();
+    }
+
+    private double accuracy(CategoryClassifier classifier, List<String[]> holdout) {
+        if (holdout.isEmpty()) {
+            return 0.0;
+        }
+        int correct = 0;
+        for (String[] sample : holdout) {
+            CategoryClassifier.Prediction prediction = classifier.predict(sample[0], sample[1]);
+            if (prediction != null && prediction.getCategoryId().equals(sample[2])) {
+                correct++;
+            }
+        }
+        return Math.round(correct * 10000.0 / holdout.size()) / 10000.0;
+    }
+
+    public static class TrainedModel {
+        private final String versionId;
+        private final CategoryClassifier classifier;
+
+        TrainedModel(String versionId, CategoryClassifier classifier) {
+            this.versionId = versionId;
+            this.classifier = classifier;
+        }
+
+        public String getVersionId() {
+            return versionId;
+        }
+
+        public CategoryClassifier getClassifier() {
+            return classifier;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.savo.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Multinomial naive Bayes over hashed character 3- and 4-grams of a transaction's merchant name and description.
+ *
+ * Text is uppercased, everything but letters and digits becomes a single space, and each n-gram is hashed into
+ * one of BUCKETS features, so the model size is fixed regardless of vocabulary. Most (bucket, category) pairs were
+ * never counted and share their category's smoothed log-likelihood, which is added once per n-gram at the end;
+ * each bucket stores only the few categories that stand out from it. Scoring a row is one pass over its characters,
+ * without building strings, plus a short contiguous run per n-gram.
+ *
+ * Instances are immutable and safe to share. A Trainer accumulates counts, which are also the serialised form.
+ */
+public final class CategoryClassifier {
+
+    private static final int BUCKET_BITS = 16;
+    private static final int BUCKETS = 1 << BUCKET_BITS;
+    private static final int FORMAT_VERSION = 1;
+
+    // Laplace smoothing, so an n-gram never seen with a category does not rule it out
+    private static final double ALPHA = 1.0;
+
+    // Categories stored per bucket. N-grams such as "POS" or "SINGAPORE" are counted by nearly every category;
+    // keeping them all made scoring cost grow with the number of categories
+    private static final int CLASSES_PER_BUCKET = 3;
+
+    private static final double SOFTMAX_CUTOFF = -40.0;
+
+    private final String[] categoryIds;
+    private final double[] logPriors;
+    // Log-likelihood of an n-gram the category never saw in training
+    private final double[] unseenLogLikelihoods;
+    // Bucket b owns entries[bucketStarts[b]] until entries[bucketStarts[b + 1]]: (category, float bits) pairs giving
+    // how far the category's log-likelihood is above its unseen value, less the bucket's median over all categories
+    private final int[] bucketStarts;
+    private final int[] entries;
+
+    private CategoryClassifier(String[] categoryIds, double[] logPriors, double[] unseenLogLikelihoods,
+                               int[] bucketStarts, int[] entries) {
+        this.categoryIds = categoryIds;
+        this.logPriors = logPriors;
+        this.unseenLogLikelihoods = unseenLogLikelihoods;
+        this.bucketStarts = bucketStarts;
+        this.entries = entries;
+    }
+
+    private static CategoryClassifier fromCounts(String[] categoryIds, int[] documentCounts, int[][] featureCounts) {
+        int classes = categoryIds.length;
+        long documents = Arrays.stream(documentCounts).asLongStream().sum();
+
+        double[] logPriors = new double[classes];
+        double[] unseenLogLikelihoods = new double[classes];
+        for (int c = 0; c < classes; c++) {
+            logPriors[c] = Math.log((double) documentCounts[c] / documents);
+
+            long total = Arrays.stream(featureCounts[c]).asLongStream().sum();
+            unseenLogLikelihoods[c] = Math.log(ALPHA) - Math.log(total + ALPHA * BUCKETS);
+        }
+
+        int[] bucketStarts = new int[BUCKETS + 1];
+        int[] entries = new int[2 * Math.min(classes, CLASSES_PER_BUCKET) * BUCKETS];
+        double[] ratios = new double[classes];
+        double[] sorted = new double[classes];
+        int size = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketStarts[bucket] = size;
+
+            boolean counted = false;
+            for (int c = 0; c < classes; c++) {
+                ratios[c] = Math.log1p(featureCounts[c][bucket] / ALPHA);
+                counted |= featureCounts[c][bucket] > 0;
+            }
+            if (!counted) {
+                continue;
+            }
+
+            // Adding the median to every category shifts all scores alike, which changes neither the winner nor
+            // the softmax, so the median stands in for the categories closest to it
+            System.arraycopy(ratios, 0, sorted, 0, classes);
+            Arrays.sort(sorted);
+            double median = sorted[classes / 2];
+            for (int kept = 0; kept < CLASSES_PER_BUCKET; kept++) {
+                int furthest = -1;
+                for (int c = 0; c < classes; c++) {
+                    if (!Double.isNaN(ratios[c]) && ratios[c] != median
+                            && (furthest < 0 || Math.abs(ratios[c] - median) > Math.abs(ratios[furthest] - median))) {
+                        furthest = c;
+                    }
+                }
+                if (furthest < 0) {
+                    break;
+                }
+                entries[size++] = furthest;
+                entries[size++] = Float.floatToIntBits((float) (ratios[furthest] - median));
+                ratios[furthest] = Double.NaN;
+            }
+        }
+        bucketStarts[BUCKETS] = size;
+        return new CategoryClassifier(categoryIds, logPriors, unseenLogLikelihoods, bucketStarts, Arrays.copyOf(entries, size));
+    }
+
+    public Prediction predict(String merchantName, String description) {
+        double[] scores = score(new NGrams(merchantName, description));
+
+        int best = -1;
+        for (int c = 0; c < scores.length; c++) {
+            if (scores[c] != Double.NEGATIVE_INFINITY && (best < 0 || scores[c] > scores[best])) {
+                best = c;
+            }
+        }
+        if (best < 0) {
+            return null;
+        }
+
+        // Softmax of the winning class, shifted by the best score so exp() cannot overflow. Classes more than
+        // SOFTMAX_CUTOFF below the best add under 1e-17 each, far below what the confidence threshold can see
+        double sum = 0.0;
+        for (double score : scores) {
+            double shifted = score - scores[best];
+            if (shifted > SOFTMAX_CUTOFF) {
+                sum += Math.exp(shifted);
+            }
+        }
+        return new Prediction(categoryIds[best], 1.0 / sum);
+    }
+
+    // The row's buckets are collected before any score is touched: adding to scores while scanning
+    // kept the CPU waiting on each store before the next load, at several times the cost of the additions.
+    // A bucket holds at most CLASSES_PER_BUCKET entries, so its run is unrolled rather than looped over
+    private double[] score(NGrams ngrams) {
+        double[] scores = new double[logPriors.length];
+        for (int i = 0; i < ngrams.size; i++) {
+            int bucket = ngrams.buckets[i];
+            int e = bucketStarts[bucket], end = bucketStarts[bucket + 1];
+            if (e < end) {
+                scores[entries[e]] += Float.intBitsToFloat(entries[e + 1]);
+                if (e + 2 < end) {
+                    scores[entries[e + 2]] += Float.intBitsToFloat(entries[e + 3]);
+                    if (e + 4 < end) {
+                        scores[entries[e + 4]] += Float.intBitsToFloat(entries[e + 5]);
+                    }
+                }
+            }
+        }
+        for (int c = 0; c < scores.length; c++) {
+            scores[c] += logPriors[c] + ngrams.size * unseenLogLikelihoods[c];
+        }
+        return scores;
+    }
+
+    // Same model, but only ever predicting the given categories
+    public CategoryClassifier restrictTo(Collection<String> allowedCategoryIds) {
+        double[] restricted = logPriors.clone();
+        for (int c = 0; c < categoryIds.length; c++) {
+            if (!allowedCategoryIds.contains(categoryIds[c])) {
+                restricted[c] = Double.NEGATIVE_INFINITY;
+            }
+        }
+        return new CategoryClassifier(categoryIds, restricted, unseenLogLikelihoods, bucketStarts, entries);
+    }
+
+    public static CategoryClassifier fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(data)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION || in.readInt() != BUCKETS) {
+                throw new IllegalArgumentException("Unsupported categorisation model format: " + version);
+            }
+
+            int classes = in.readInt();
+            String[] categoryIds = new String[classes];
+            int[] documentCounts = new int[classes];
+            int[][] featureCounts = new int[classes][BUCKETS];
+            for (int c = 0; c < classes; c++) {
+                categoryIds[c] = in.readUTF();
+                documentCounts[c] = in.readInt();
+
+                int nonZero = in.readInt();
+                int bucket = 0;
+                for (int i = 0; i < nonZero; i++) {
+                    bucket += in.readUnsignedShort();
+                    featureCounts[c][bucket] = in.readInt();
+                }
+            }
+            return fromCounts(categoryIds, documentCounts, featureCounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read categorisation model", e);
+        }
+    }
+
+    public static class Prediction {
+        private final String categoryId;
+        private final double confidence;
+
+        Prediction(String categoryId, double confidence) {
+            this.categoryId = categoryId;
+            this.confidence = confidence;
+        }
+
+        public String getCategoryId() {
+            return categoryId;
+        }
+
+        public double getConfidence() {
+            return confidence;
+        }
+    }
+
+    public static class Trainer {
+        private final Map<String, Integer> classIndex = new HashMap<>();
+        private final List<String> categoryIds = new ArrayList<>();
+        private final List<int[]> featureCounts = new ArrayList<>();
+        private final List<Integer> documentCounts = new ArrayList<>();
+        private int samples;
+
+        public void add(String merchantName, String description, String categoryId) {
+            int c = classIndex.computeIfAbsent(categoryId, id -> {
+                categoryIds.add(id);
+                featureCounts.add(new int[BUCKETS]);
+                documentCounts.add(0);
+                return categoryIds.size() - 1;
+            });
+            documentCounts.set(c, documentCounts.get(c) + 1);
+            samples++;
+
+            int[] counts = featureCounts.get(c);
+            NGrams ngrams = new NGrams(merchantName, description);
+            for (int i = 0; i < ngrams.size; i++) {
+                counts[ngrams.buckets[i]]++;
+            }
+        }
+
+        public int getSampleCount() {
+            return samples;
+        }
+
+        public CategoryClassifier build() {
+            return fromCounts(categoryIds.toArray(String[]::new),
+                    documentCounts.stream().mapToInt(Integer::intValue).toArray(),
+                    featureCounts.toArray(int[][]::new));
+        }
+
+        // Deflated counts, with only the non-zero buckets of each category written as (gap, count) pairs
+        public byte[] toBytes() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(BUCKETS);
+                out.writeInt(categoryIds.size());
+                for (int c = 0; c < categoryIds.size(); c++) {
+                    int[] counts = featureCounts.get(c);
+                    out.writeUTF(categoryIds.get(c));
+                    out.writeInt(documentCounts.get(c));
+                    out.writeInt((int) Arrays.stream(counts).filter(count -> count > 0).count());
+
+                    int previous = 0;
+                    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                        if (counts[bucket] > 0) {
+                            out.writeShort(bucket - previous);
+                            out.writeInt(counts[bucket]);
+                            previous = bucket;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write categorisation model", e);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    // Hashed n-grams of the normalised text in order, keeping only the last four characters while scanning
+    private static final class NGrams {
+        private static final long THREE_CHARS = 0xFFFF_FFFF_FFFFL;
+
+        // Normalised form of each ASCII character, which is nearly all statement text
+        private static final char[] ASCII = new char[128];
+
+        static {
+            for (char raw = 0; raw < ASCII.length; raw++) {
+                ASCII[raw] = Character.isLetterOrDigit(raw) ? Character.toUpperCase(raw) : ' ';
+            }
+        }
+
+        private final int[] buckets;
+        private int size;
+
+        // The last four characters, 16 bits each, most recent in the low bits; a 3-gram is the low 48 bits
+        private long window;
+        private int seen;
+
+        NGrams(String merchantName, String description) {
+            // At most two n-grams per character, including the three separating spaces
+            buckets = new int[2 * (3 + length(merchantName) + length(description))];
+            push(' ');
+            append(merchantName);
+            push(' ');
+            append(description);
+            push(' ');
+        }
+
+        private static int length(String text) {
+            return text != null ? text.length() : 0;
+        }
+
+        private void append(String text) {
+            if (text == null) {
+                return;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                push(text.charAt(i));
+            }
+        }
+
+        private void push(char raw) {
+            int c = raw < ASCII.length ? ASCII[raw] : Character.isLetterOrDigit(raw) ? Character.toUpperCase(raw) : ' ';
+            if (c == ' ' && (window & 0xFFFF) == ' ') {
+                return;
+            }
+            window = (window << 16) | c;
+            seen++;
+
+            // Normalised characters are never 0, so a 4-gram always differs from the 3-gram it ends with
+            if (seen >= 3) {
+                buckets[size++] = bucket(window & THREE_CHARS);
+            }
+            if (seen >= 4) {
+                buckets[size++] = bucket(window);
+            }
+        }
+
+        // Multiplicative (Fibonacci) hashing: one multiply per n-gram, and the top bits depend on every character
+        private static int bucket(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - BUCKET_BITS));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.savo.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.savo.backend.model.Category;
+import com.savo.backend.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Name to category id lookup for system and per-user categories.
+ *
+ * Only ids are cached; callers get a JPA reference bound to their own persistence context,
+ * so resolving a category during statement processing never touches the database.
+ * CategoryServiceImpl evicts entries whenever categories are created, updated or deleted.
+ */
+@Component
+public class CategoryResolutionCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryResolutionCache.class);
+
+    private static final int MAX_CACHED_USERS = 10_000;
+    // Writes evict explicitly; the TTL only bounds how long an idle user's names are kept
+    private static final Duration USER_TTL = Duration.ofHours(1);
+
+    private final CategoryRepository categoryRepository;
+
+    // A handful of system categories, so this one needs no bound
+    private final Map<String, String> systemCategoryIds = new ConcurrentHashMap<>();
+    private final Cache<String, Map<String, String>> userCategoryIds = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_USERS)
+            .expireAfterWrite(USER_TTL)
+            .build();
+
+    public CategoryResolutionCache(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    public Optional<Category> findSystemCategory(String name) {
+        String id = systemCategoryIds.get(name);
+        if (id == null) {
+            Optional<Category> category = categoryRepository.findByNameAndUserIdIsNull(name);
+            if (category.isEmpty()) {
+                return Optional.empty();
+            }
+            id = category.get().getId();
+            systemCategoryIds.put(name, id);
+        }
+        return Optional.of(categoryRepository.getReferenceById(id));
+    }
+
+    public Optional<Category> findUserCategory(String userId, String name) {
+        Map<String, String> categories = userCategoryIds.getIfPresent(userId);
+        String id = categories != null ? categories.get(name) : null;
+        if (id == null) {
+            Optional<Category> category = categoryRepository.findByNameAndUserId(name, userId);
+            if (category.isEmpty()) {
+                return Optional.empty();
+            }
+            id = category.get().getId();
+            userCategoryIds.get(userId, key -> new ConcurrentHashMap<>()).put(name, id);
+        }
+        return Optional.of(categoryRepository.getReferenceById(id));
+    }
+
+    // Newly created categories are only cached once their row is committed
+    public void putSystemCategory(Category category) {
+        String name = category.getName();
+        String id = category.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            systemCategoryIds.put(name, id);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                systemCategoryIds.put(name, id);
+            }
+        });
+    }
+
+    // A null user means a system category
+    public void evict(String userId) {
+        runAfterCompletion(() -> {
+            if (userId == null) {
+                systemCategoryIds.clear();
+            } else {
+                userCategoryIds.invalidate(userId);
+            }
+            logger.debug("Evicted category cache: user={}", userId != null ? userId : "system");
+        });
+    }
+
+    // Evict again once the change is visible to other transactions, so a concurrent lookup cannot re-cache the old row
+    private void runAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
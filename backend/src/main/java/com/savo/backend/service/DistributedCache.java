@@ -0,0 +1,334 @@
+package com.savo.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.savo.backend.config.CacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Two-level read-through cache for per-user listings: an in-process Caffeine L1 in front of Redis.
+ *
+ * Entries are grouped per (cache, user), so everything a write can affect is dropped in one step.
+ * In Redis a group is one hash, savo:cache:{cache}:{userId}, whose fields hold the entry's expiry
+ * and its JSON. Each entry therefore keeps its own TTL, and the hash expires with its newest entry.
+ * Evictions run immediately and again after the surrounding transaction completes, then are
+ * broadcast on app.cache.invalidation-channel so other replicas drop their L1 copies.
+ * Each eviction also bumps a generation counter for the group (or the whole cache), and a loaded
+ * value is only written back if neither counter moved while it was loading, so a read that raced
+ * an eviction cannot put the old value back for a full TTL.
+ * If Redis is unreachable, reads fall through to the loader and the app keeps working.
+ *
+ * Reads are counted in cache.gets, tagged by cache, result (hit/miss) and level (local/redis/none).
+ */
+@Component
+public class DistributedCache implements MessageListener {
+
+    public static final String CATEGORIES = "categories";
+    public static final String BANK_ACCOUNTS = "bank-accounts";
+    public static final String UPLOAD_HISTORY = "upload-history";
+
+    private static final Logger logger = LoggerFactory.getLogger(DistributedCache.class);
+
+    private static final String KEY_PREFIX = "savo:cache:";
+    private static final String GENERATION_PREFIX = "savo:cache-generation:";
+    private static final String ALL_USERS = "*";
+    private static final long REDIS_WARNING_INTERVAL_MILLIS = 60_000;
+
+    // KEYS[1] group hash, KEYS[2] group generation, KEYS[3] cache generation; ARGV[1] and ARGV[2] the generations
+    // read before loading, ARGV[3] field, ARGV[4] entry, ARGV[5] TTL ms. Returns 0 if an eviction got there first.
+    private static final RedisScript<Long> WRITE_IF_NOT_EVICTED = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] or (redis.call('GET', KEYS[3]) or '') ~= ARGV[2] then " +
+            "return 0 end " +
+            "redis.call('HSET', KEYS[1], ARGV[3], ARGV[4]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[5]) " +
+            "return 1",
+            Long.class);
+
+    // KEYS[1] generation, KEYS[2] group hash if one user's group is evicted; ARGV[1] generation TTL ms
+    private static final RedisScript<Long> BUMP_GENERATION = new DefaultRedisScript<>(
+            "local generation = redis.call('INCR', KEYS[1]) " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[1]) " +
+            "if KEYS[2] then redis.call('DEL', KEYS[2]) end " +
+            "return generation",
+            Long.class);
+
+    private final CacheProperties cacheProperties;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    // Tags this replica's invalidation messages so it can skip its own
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, Cache<String, Map<String, LocalEntry>>> localCaches = new ConcurrentHashMap<>();
+    private final Map<String, CacheMeters> cacheMeters = new ConcurrentHashMap<>();
+    private final AtomicLong lastRedisWarning = new AtomicLong();
+
+    public DistributedCache(CacheProperties cacheProperties, StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.cacheProperties = cacheProperties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String userId, String key, TypeReference<T> type, Supplier<T> loader) {
+        if (!cacheProperties.isEnabled()) {
+            return loader.get();
+        }
+
+        CacheMeters meters = meters(cacheName);
+        Map<String, LocalEntry> local = localCache(cacheName).get(userId, id -> new ConcurrentHashMap<>());
+        long now = System.currentTimeMillis();
+
+        LocalEntry cached = local.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            meters.localHits.increment();
+            return (T) cached.value;
+        }
+
+        String redisKey = redisKey(cacheName, userId);
+        RemoteEntry<T> remote = readRemote(redisKey, key, objectMapper.getTypeFactory().constructType(type), now);
+        if (remote != null) {
+            meters.remoteHits.increment();
+            local.put(key, new LocalEntry(remote.value, Math.min(remote.expiresAt, now + localTtlMillis())));
+            return remote.value;
+        }
+
+        meters.misses.increment();
+        List<String> generations = readGenerations(cacheName, userId);
+        T value = loader.get();
+        if (value != null) {
+            long expiresAt = now + ttlMillis(cacheName);
+            if (generations != null) {
+                writeRemote(cacheName, userId, key, value, expiresAt, generations);
+            }
+            local.put(key, new LocalEntry(value, Math.min(expiresAt, now + localTtlMillis())));
+        }
+        return value;
+    }
+
+    public void evictUser(String cacheName, String userId) {
+        runNowAndAfterCompletion(() -> evict(cacheName, userId));
+    }
+
+    // For changes every user sees, such as system categories
+    public void evictAll(String cacheName) {
+        runNowAndAfterCompletion(() -> evict(cacheName, ALL_USERS));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(instanceId)) {
+            return;
+        }
+        dropLocal(parts[1], parts[2]);
+    }
+
+    private void evict(String cacheName, String userId) {
+        if (!cacheProperties.isEnabled()) {
+            return;
+        }
+        dropLocal(cacheName, userId);
+        meters(cacheName).evictions.increment();
+
+        try {
+            // The generation TTL only has to outlast a load, so the cache TTL is plenty
+            String generationTtl = String.valueOf(ttlMillis(cacheName));
+            if (ALL_USERS.equals(userId)) {
+                redisTemplate.execute(BUMP_GENERATION, List.of(generationKey(cacheName, ALL_USERS)), generationTtl);
+                List<String> keys = new ArrayList<>();
+                try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match(KEY_PREFIX + cacheName + ":*").count(500).build())) {
+                    cursor.forEachRemaining(keys::add);
+                }
+                if (!keys.isEmpty()) {
+                    redisTemplate.delete(keys);
+                }
+            } else {
+                redisTemplate.execute(BUMP_GENERATION, List.of(generationKey(cacheName, userId), redisKey(cacheName, userId)),
+                        generationTtl);
+            }
+            redisTemplate.convertAndSend(cacheProperties.getInvalidationChannel(), instanceId + "|" + cacheName + "|" + userId);
+        } catch (RuntimeException e) {
+            warnRedisUnavailable(e);
+        }
+    }
+
+    private void dropLocal(String cacheName, String userId) {
+        Cache<String, Map<String, LocalEntry>> local = localCaches.get(cacheName);
+        if (local == null) {
+            return;
+        }
+        if (ALL_USERS.equals(userId)) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(userId);
+        }
+    }
+
+    private <T> RemoteEntry<T> readRemote(String redisKey, String key, JavaType type, long now) {
+        try {
+            Object stored = redisTemplate.opsForHash().get(redisKey, key);
+            if (stored == null) {
+                return null;
+            }
+            String entry = (String) stored;
+            int separator = entry.indexOf('|');
+            long expiresAt = Long.parseLong(entry.substring(0, separator));
+            if (expiresAt <= now) {
+                return null;
+            }
+            return new RemoteEntry<>(objectMapper.readValue(entry.substring(separator + 1), type), expiresAt);
+        } catch (Exception e) {
+            warnRedisUnavailable(e);
+            return null;
+        }
+    }
+
+    // Group and cache generations, absent ones as "", or null if Redis cannot be reached
+    private List<String> readGenerations(String cacheName, String userId) {
+        try {
+            List<String> generations = redisTemplate.opsForValue()
+                    .multiGet(List.of(generationKey(cacheName, userId), generationKey(cacheName, ALL_USERS)));
+            if (generations == null) {
+                return null;
+            }
+            return generations.stream().map(generation -> generation != null ? generation : "").toList();
+        } catch (RuntimeException e) {
+            warnRedisUnavailable(e);
+            return null;
+        }
+    }
+
+    private void writeRemote(String cacheName, String userId, String key, Object value, long expiresAt,
+                             List<String> generations) {
+        try {
+            List<String> keys = List.of(redisKey(cacheName, userId), generationKey(cacheName, userId),
+                    generationKey(cacheName, ALL_USERS));
+            redisTemplate.execute(WRITE_IF_NOT_EVICTED, keys, generations.get(0), generations.get(1), key,
+                    expiresAt + "|" + objectMapper.writeValueAsString(value),
+                    String.valueOf(Math.max(1, expiresAt - System.currentTimeMillis())));
+        } catch (Exception e) {
+            warnRedisUnavailable(e);
+        }
+    }
+
+    // One warning a minute while Redis is down, rather than one per request
+    private void warnRedisUnavailable(Exception e) {
+        long now = System.currentTimeMillis();
+        long last = lastRedisWarning.get();
+        if (now - last >= REDIS_WARNING_INTERVAL_MILLIS && lastRedisWarning.compareAndSet(last, now)) {
+            logger.warn("Redis cache unavailable, reading through to the database: {}", e.getMessage());
+        }
+    }
+
+    private Cache<String, Map<String, LocalEntry>> localCache(String cacheName) {
+        return localCaches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+                .maximumSize(cacheProperties.getLocalMaxUsers())
+                .expireAfterAccess(Duration.ofMillis(ttlMillis(name)))
+                .build());
+    }
+
+    private CacheMeters meters(String cacheName) {
+        return cacheMeters.computeIfAbsent(cacheName, name -> new CacheMeters(meterRegistry, name));
+    }
+
+    private long ttlMillis(String cacheName) {
+        return cacheProperties.getTtlSeconds().getOrDefault(cacheName, cacheProperties.getDefaultTtlSeconds()) * 1000;
+    }
+
+    private long localTtlMillis() {
+        return cacheProperties.getLocalTtlSeconds() * 1000;
+    }
+
+    private static String redisKey(String cacheName, String userId) {
+        return KEY_PREFIX + cacheName + ":" + userId;
+    }
+
+    // Outside KEY_PREFIX, so evictAll's scan never deletes a user's generation
+    private static String generationKey(String cacheName, String userId) {
+        return ALL_USERS.equals(userId) ? GENERATION_PREFIX + cacheName : GENERATION_PREFIX + cacheName + ":" + userId;
+    }
+
+    private void runNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static class LocalEntry {
+        private final Object value;
+        private final long expiresAt;
+
+        LocalEntry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class RemoteEntry<T> {
+        private final T value;
+        private final long expiresAt;
+
+        RemoteEntry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static class CacheMeters {
+        private final Counter localHits;
+        private final Counter remoteHits;
+        private final Counter misses;
+        private final Counter evictions;
+
+        CacheMeters(MeterRegistry registry, String cacheName) {
+            this.localHits = gets(registry, cacheName, "hit", "local");
+            this.remoteHits = gets(registry, cacheName, "hit", "redis");
+            this.misses = gets(registry, cacheName, "miss", "none");
+            this.evictions = Counter.builder("cache.evictions").tag("cache", cacheName).register(registry);
+        }
+
+        private static Counter gets(MeterRegistry registry, String cacheName, String result, String level) {
+            return Counter.builder("cache.gets")
+                    .tag("cache", cacheName)
+                    .tag("result", result)
+                    .tag("level", level)
+                    .register(registry);
+        }
+    }
+}
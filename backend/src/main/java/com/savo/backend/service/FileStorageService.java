@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
@@ -13,10 +14,14 @@ import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class FileStorageService {
@@ -24,11 +29,15 @@ public class FileStorageService {
     private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
 
     private final S3Client s3Client;
+    private final S3Presigner s3Presigner;
     private final S3Properties s3Properties;
+    private final LocalFileCache localFileCache;
 
-    public FileStorageService(S3Client s3Client, S3Properties s3Properties) {
+    public FileStorageService(S3Client s3Client, S3Presigner s3Presigner, S3Properties s3Properties, LocalFileCache localFileCache) {
         this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
         this.s3Properties = s3Properties;
+        this.localFileCache = localFileCache;
     }
 
     public String uploadFile(MultipartFile file, String userId, String folder) {
@@ -51,6 +60,11 @@ public class FileStorageService {
             s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
 
             logger.info("Successfully upload file to S3: bucket={}, key={}", s3Properties.getBucket(), s3Key);
+
+            try (InputStream inputStream = file.getInputStream()) {
+                localFileCache.put(s3Key, inputStream);
+            }
+
             return s3Key;
         } catch (IOException e) {
             logger.error("Failed to read file for upload: {}", s3Key, e);
@@ -69,14 +83,50 @@ public class FileStorageService {
                     .build();
 
             s3Client.deleteObject(deleteObjectRequest);
+            localFileCache.evict(s3Key);
             logger.info("Successfully delete file from S3: bucket={}, key={}", s3Properties.getBucket(), s3Key);
         } catch (S3Exception e) {
             logger.error("Failed to delete file from S3: bucket={}, key={}, error={}", s3Properties.getBucket(), s3Key, e.awsErrorDetails().errorMessage(), e);
         }
     }
 
+    public InputStream openFile(String s3Key) {
+        Optional<Path> cached = localFileCache.get(s3Key);
+        if (cached.isPresent()) {
+            try {
+                logger.debug("Reading file from local cache: key={}", s3Key);
+                return Files.newInputStream(cached.get());
+            } catch (IOException e) {
+                logger.warn("Failed to read cached file, falling back to S3: key={}", s3Key);
+            }
+        }
+
+        try {
+            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                    .bucket(s3Properties.getBucket())
+                    .key(s3Key)
+                    .build();
+
+            ResponseInputStream<GetObjectResponse> response = s3Client.getObject(getObjectRequest);
+
+            Long contentLength = response.response().contentLength();
+            if (contentLength != null && contentLength > s3Properties.getMaxFileSize()) {
+                response.abort();
+                throw new ValidationException("File size exceeds maximum allowed: " + s3Properties.getMaxFileSize());
+            }
+
+            return response;
+
+        } catch (NoSuchKeyException e) {
+            throw new ValidationException("File not found: " + s3Key);
+        } catch (S3Exception e) {
+            logger.error("Failed to read file from S3: bucket={}, key={}, error={}", s3Properties.getBucket(), s3Key, e.awsErrorDetails().errorMessage(), e);
+            throw new ValidationException("Failed to read file: " + e.awsErrorDetails().errorMessage());
+        }
+    }
+
     public String getPresignedDownloadUrl(String s3Key) {
-        try (S3Presigner presigner = S3Presigner.create()) {
+        try {
 
             GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                     .bucket(s3Properties.getBucket())
@@ -88,7 +138,7 @@ public class FileStorageService {
                     .getObjectRequest(getObjectRequest)
                     .build();
 
-            return presigner.presignGetObject(presignRequest).url().toString();
+            return s3Presigner.presignGetObject(presignRequest).url().toString();
 
         } catch (S3Exception e) {
             logger.error("Failed to generate presigned URL: key={}, error={}", s3Key, e.awsErrorDetails().errorMessage(), e);
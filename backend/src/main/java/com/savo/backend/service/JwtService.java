@@ -1,26 +1,61 @@
 package com.savo.backend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
+/**
+ * Issues and verifies the app's HMAC-signed JWTs.
+ *
+ * The signing key and parser are built once. Verified tokens are cached by SHA-256 of the token
+ * until they expire, so a client repeating its token skips signature verification and claim parsing.
+ * The cache holds at most MAX_CACHED_TOKENS entries, none longer than a token's lifetime, and keys them
+ * by digest, never by the tokens themselves.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private static final int MAX_CACHED_TOKENS = 10_000;
 
-    @Value("${jwt.expiration:86400000")
-    private int jwtExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    public JwtService(@Value("${jwt.secret}") String jwtSecret,
+                      @Value("${jwt.expiration:86400000}") long jwtExpiration) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        // Lock-free reads on every request; a token's own expiry is still checked on each hit
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_TOKENS)
+                .expireAfterWrite(Duration.ofMillis(jwtExpiration))
+                .build();
     }
 
     public String generateToken(String userId, String email) {
@@ -32,29 +67,66 @@ public class JwtService {
                 .claim("email", email)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifies the token once and returns its claims, or empty if it is malformed, forged or expired
+    public Optional<VerifiedToken> verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
 
-        return claims.getSubject();
-    }
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (cached.getExpiresAt() > now) {
+                return Optional.of(cached);
+            }
+            verifiedTokens.invalidate(digest);
+            return Optional.empty();
+        }
 
-    public boolean validateToken(String token) {
+        Claims claims;
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            claims = parser.parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+        if (claims.getSubject() == null) {
+            return Optional.empty();
+        }
+
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.get("email", String.class),
+                claims.getExpiration() != null ? claims.getExpiration().getTime() : now + jwtExpiration);
+        verifiedTokens.put(digest, verified);
+        return Optional.of(verified);
+    }
+
+    private static String digest(String token) {
+        return Base64.getEncoder().encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static class VerifiedToken {
+        private final String userId;
+        private final String email;
+        private final long expiresAt;
+
+        VerifiedToken(String userId, String email, long expiresAt) {
+            this.userId = userId;
+            this.email = email;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        // Epoch millis
+        public long getExpiresAt() {
+            return expiresAt;
         }
     }
 }
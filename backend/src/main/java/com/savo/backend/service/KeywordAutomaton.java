@@ -0,0 +1,129 @@
+package com.savo.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a fixed keyword dictionary.
+ *
+ * Compiled once into a dense transition table, so finding every keyword occurrence in a
+ * text is a single left-to-right scan with no allocation beyond the caller's result array.
+ * Matching is case-sensitive; callers uppercase both keywords and text.
+ */
+public final class KeywordAutomaton {
+
+    private static final int ASCII_LIMIT = 128;
+    private static final int[] NO_OUTPUT = new int[0];
+
+    private final int alphabetSize;
+    private final int[] charClass;
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int keywordCount;
+
+    public KeywordAutomaton(List<String> keywords) {
+        this.keywordCount = keywords.size();
+
+        // Class 0 is every character that appears in no keyword; it always leads back to the root
+        this.charClass = new int[ASCII_LIMIT];
+        int nextClass = 1;
+        for (String keyword : keywords) {
+            for (int i = 0; i < keyword.length(); i++) {
+                char c = keyword.charAt(i);
+                if (c >= ASCII_LIMIT) {
+                    throw new IllegalArgumentException("Keywords must be ASCII: " + keyword);
+                }
+                if (charClass[c] == 0) {
+                    charClass[c] = nextClass++;
+                }
+            }
+        }
+        this.alphabetSize = nextClass;
+
+        // Trie
+        List<int[]> gotoTable = new ArrayList<>();
+        List<List<Integer>> outputLists = new ArrayList<>();
+        gotoTable.add(newRow());
+        outputLists.add(new ArrayList<>());
+
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                int symbol = charClass[keyword.charAt(i)];
+                if (gotoTable.get(state)[symbol] < 0) {
+                    gotoTable.get(state)[symbol] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    outputLists.add(new ArrayList<>());
+                }
+                state = gotoTable.get(state)[symbol];
+            }
+            outputLists.get(state).add(id);
+        }
+
+        // Failure links, folded into a complete transition table (breadth-first)
+        int stateCount = gotoTable.size();
+        int[] failure = new int[stateCount];
+        this.transitions = gotoTable.toArray(new int[0][]);
+        this.outputs = new int[stateCount][];
+
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int next = transitions[0][symbol];
+            if (next < 0) {
+                transitions[0][symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        outputs[0] = NO_OUTPUT;
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+
+            List<Integer> merged = outputLists.get(state);
+            merged.addAll(outputLists.get(failure[state]));
+            outputs[state] = merged.isEmpty() ? NO_OUTPUT : merged.stream().mapToInt(Integer::intValue).toArray();
+
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int next = transitions[state][symbol];
+                if (next < 0) {
+                    transitions[state][symbol] = transitions[failure[state]][symbol];
+                } else {
+                    failure[next] = transitions[failure[state]][symbol];
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    public int getKeywordCount() {
+        return keywordCount;
+    }
+
+    /**
+     * Marks matched[id] for every keyword occurring anywhere in text.
+     */
+    public void findMatches(CharSequence text, boolean[] matched) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int symbol = c < ASCII_LIMIT ? charClass[c] : 0;
+            state = transitions[state][symbol];
+
+            for (int id : outputs[state]) {
+                matched[id] = true;
+            }
+        }
+    }
+
+    private int[] newRow() {
+        int[] row = new int[alphabetSize];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
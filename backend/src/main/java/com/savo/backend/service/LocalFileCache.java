@@ -0,0 +1,139 @@
+package com.savo.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.savo.backend.config.S3Properties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Bounded cache of recently uploaded files on local disk, keyed by S3 key.
+ * Lets statement processing read a file that was uploaded seconds earlier without a network fetch.
+ * A file is deleted as soon as its entry is evicted, expires or is removed.
+ *
+ * Each instance writes to its own subdirectory of the configured directory, which may be shared by
+ * several replicas or restarts, and removes only that subdirectory on shutdown.
+ */
+@Component
+public class LocalFileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalFileCache.class);
+
+    private final boolean enabled;
+    private final Path baseDirectory;
+    private Path directory;
+    private final Cache<String, Path> entries;
+
+    public LocalFileCache(S3Properties s3Properties) {
+        this.enabled = s3Properties.isLocalCacheEnabled();
+        this.baseDirectory = Paths.get(s3Properties.getLocalCacheDirectory());
+        // Maintenance runs on the calling thread, so a file is gone by the time put() or evict() returns.
+        // A replaced entry points at the file that was just written under the same name, so it is kept.
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(s3Properties.getLocalCacheMaxEntries())
+                .expireAfterWrite(Duration.ofMinutes(s3Properties.getLocalCacheTtlMinutes()))
+                .executor(Runnable::run)
+                .<String, Path>removalListener((key, path, cause) -> {
+                    if (cause != RemovalCause.REPLACED && path != null) {
+                        deleteQuietly(path);
+                    }
+                })
+                .build();
+
+        if (enabled) {
+            initialiseDirectory();
+        }
+    }
+
+    public void put(String key, InputStream inputStream) {
+        if (!enabled || directory == null) {
+            return;
+        }
+
+        Path target = directory.resolve(toFileName(key));
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory, "upload-", ".tmp");
+            Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to cache file locally: key={}, error={}", key, e.getMessage());
+            return;
+        } finally {
+            // Already gone after the move; left behind when the copy or the move failed
+            if (temp != null) {
+                deleteQuietly(temp);
+            }
+        }
+
+        entries.put(key, target);
+    }
+
+    public Optional<Path> get(String key) {
+        if (!enabled || directory == null) {
+            return Optional.empty();
+        }
+
+        Path cached = entries.getIfPresent(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+
+        if (!Files.exists(cached)) {
+            entries.invalidate(key);
+            return Optional.empty();
+        }
+
+        return Optional.of(cached);
+    }
+
+    public void evict(String key) {
+        entries.invalidate(key);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (directory == null) {
+            return;
+        }
+        entries.invalidateAll();
+        try (Stream<Path> remaining = Files.list(directory)) {
+            remaining.forEach(this::deleteQuietly);
+        } catch (IOException e) {
+            logger.debug("Failed to list local file cache directory: {}", directory);
+        }
+        deleteQuietly(directory);
+    }
+
+    // Other instances may be using the base directory, so nothing already in it is touched
+    private void initialiseDirectory() {
+        try {
+            Files.createDirectories(baseDirectory);
+            directory = Files.createTempDirectory(baseDirectory, "instance-");
+        } catch (IOException e) {
+            logger.warn("Failed to initialise local file cache directory, caching disabled: {}", baseDirectory, e);
+        }
+    }
+
+    private String toFileName(String key) {
+        return key.replaceAll("[^a-zA-Z0-9._-]", "_");
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.debug("Failed to delete cached file: {}", path);
+        }
+    }
+}
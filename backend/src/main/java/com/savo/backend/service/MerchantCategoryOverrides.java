@@ -0,0 +1,102 @@
+package com.savo.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.savo.backend.repository.CategorisationFeedbackRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user merchant key to category id map compiled from the user's categorisation corrections.
+ *
+ * A user's map is loaded on first lookup; the latest correction for a merchant wins. At most
+ * MAX_CACHED_USERS maps are kept, each for up to TTL, so memory stays bounded however many users
+ * import. Corrections are added once their feedback row commits.
+ */
+@Component
+public class MerchantCategoryOverrides {
+
+    private static final Logger logger = LoggerFactory.getLogger(MerchantCategoryOverrides.class);
+
+    private static final int MAX_CACHED_USERS = 10_000;
+    // Corrections made through this instance are applied in place; the TTL picks up the rest
+    private static final Duration TTL = Duration.ofHours(1);
+
+    private final CategorisationFeedbackRepository categorisationFeedbackRepository;
+
+    private final Cache<String, Map<String, String>> overridesByUser = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_USERS)
+            .expireAfterWrite(TTL)
+            .build();
+
+    public MerchantCategoryOverrides(CategorisationFeedbackRepository categorisationFeedbackRepository) {
+        this.categorisationFeedbackRepository = categorisationFeedbackRepository;
+    }
+
+    public Optional<String> findCategoryId(String userId, String merchantKey) {
+        if (merchantKey == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(overridesFor(userId).get(merchantKey));
+    }
+
+    public void put(String userId, String merchantKey, String categoryId) {
+        if (merchantKey == null) {
+            return;
+        }
+        runAfterCommit(() -> {
+            // Not loaded yet means the next lookup reads this correction from the database anyway
+            Map<String, String> overrides = overridesByUser.getIfPresent(userId);
+            if (overrides != null) {
+                overrides.put(merchantKey, categoryId);
+            }
+        });
+    }
+
+    // Drops a user's map, e.g. after corrections are deleted or a category they point to goes away
+    public void evict(String userId) {
+        overridesByUser.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    overridesByUser.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private Map<String, String> overridesFor(String userId) {
+        return overridesByUser.get(userId, this::load);
+    }
+
+    private Map<String, String> load(String userId) {
+        Map<String, String> loaded = new ConcurrentHashMap<>();
+        for (Object[] row : categorisationFeedbackRepository.findMerchantCorrections(userId)) {
+            loaded.put((String) row[0], (String) row[1]);
+        }
+        logger.debug("Loaded merchant category overrides: user={}, merchants={}", userId, loaded.size());
+        return loaded;
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,38 @@
+package com.savo.backend.service;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces a merchant name to the words that stay the same from one charge to the next,
+ * so "NETFLIX.COM 8412" and "Netflix.com 1190" share the key "NETFLIX".
+ */
+public final class MerchantKey {
+
+    private static final Pattern NON_LETTERS = Pattern.compile("[^A-Z]+");
+
+    // Domain and company suffixes that some statements print and others drop
+    private static final Set<String> NOISE = Set.of("WWW", "COM", "NET", "SG", "PTE", "LTD", "INC", "CO");
+
+    private static final int MAX_LENGTH = 255;
+
+    private MerchantKey() {}
+
+    public static String of(String merchantName) {
+        if (merchantName == null) {
+            return null;
+        }
+
+        String key = Arrays.stream(NON_LETTERS.split(merchantName.toUpperCase(Locale.ROOT)))
+                .filter(word -> word.length() > 1 && !NOISE.contains(word))
+                .collect(Collectors.joining(" "));
+
+        if (key.isEmpty()) {
+            return null;
+        }
+        return key.length() > MAX_LENGTH ? key.substring(0, MAX_LENGTH) : key;
+    }
+}
@@ -0,0 +1,434 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.PatternType;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.enums.TrendDirection;
+import com.savo.backend.event.TransactionChangeEvent;
+import com.savo.backend.model.SpendingPattern;
+import com.savo.backend.repository.MonthlySpendingRollupRepository;
+import com.savo.backend.repository.SpendingPatternRepository;
+import com.savo.backend.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mines a user's spending habits into ranked SpendingPattern rows without reading their history.
+ *
+ * Every TransactionChangeEvent adjusts per-user debit histograms in spending_pattern_stats:
+ * day of week, weekend vs weekday, and time of day. The cost is proportional to the changed rows.
+ * Category trends compare the last three complete months with the three before, read from the
+ * monthly spending rollup. Patterns are re-derived once per transaction, just before it commits, from
+ * these small aggregates only.
+ */
+@Service
+public class SpendingPatternMiner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpendingPatternMiner.class);
+
+    private static final String ADJUST_SQL = "INSERT INTO spending_pattern_stats " +
+            "(id, user_id, pattern_type, bucket, transaction_count, total_amount, updated_at) VALUES (?, ?, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (user_id, pattern_type, bucket) DO UPDATE SET " +
+            "transaction_count = spending_pattern_stats.transaction_count + EXCLUDED.transaction_count, " +
+            "total_amount = spending_pattern_stats.total_amount + EXCLUDED.total_amount, updated_at = now()";
+
+    private static final String USER_STATS_SQL = "SELECT pattern_type, bucket, transaction_count, total_amount " +
+            "FROM spending_pattern_stats WHERE user_id = ? AND transaction_count > 0";
+
+    private static final String DELETE_USER_STATS_SQL = "DELETE FROM spending_pattern_stats WHERE user_id = ?";
+
+    // Same buckets as onTransactionChange, computed from source for backfill
+    private static final String REBUILD_USER_STATS_SQL = "INSERT INTO spending_pattern_stats " +
+            "(id, user_id, pattern_type, bucket, transaction_count, total_amount, updated_at) " +
+            "SELECT gen_random_uuid()::text, user_id, pattern_type, bucket, COUNT(*), SUM(amount), now() FROM (" +
+            "SELECT user_id, amount, 'DAY_OF_WEEK' AS pattern_type, trim(upper(to_char(transaction_date, 'Day'))) AS bucket " +
+            "FROM transactions WHERE user_id = ? AND transaction_type = 'Debit' " +
+            "UNION ALL SELECT user_id, amount, 'WEEKEND', CASE WHEN extract(isodow FROM transaction_date) >= 6 THEN 'WEEKEND' ELSE 'WEEKDAY' END " +
+            "FROM transactions WHERE user_id = ? AND transaction_type = 'Debit' " +
+            "UNION ALL SELECT user_id, amount, 'TIME_OF_DAY', CASE " +
+            "WHEN extract(hour FROM time_of_day) BETWEEN 5 AND 11 THEN 'MORNING' " +
+            "WHEN extract(hour FROM time_of_day) BETWEEN 12 AND 16 THEN 'AFTERNOON' " +
+            "WHEN extract(hour FROM time_of_day) BETWEEN 17 AND 21 THEN 'EVENING' ELSE 'LATE_NIGHT' END " +
+            "FROM transactions WHERE user_id = ? AND transaction_type = 'Debit' AND time_of_day IS NOT NULL" +
+            ") buckets GROUP BY user_id, pattern_type, bucket";
+
+    // Below this many debits a histogram says more about noise than habits
+    private static final int MIN_SAMPLE = 20;
+
+    // A bucket is a pattern once it takes this many times its even share of spending
+    private static final double MIN_LIFT = 1.25;
+
+    // Month-over-month change in a category's spending that counts as a trend
+    private static final double TREND_THRESHOLD = 0.15;
+
+    private static final int TREND_MONTHS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SpendingPatternRepository spendingPatternRepository;
+    private final MonthlySpendingRollupRepository monthlySpendingRollupRepository;
+    private final UserRepository userRepository;
+
+    public SpendingPatternMiner(JdbcTemplate jdbcTemplate, SpendingPatternRepository spendingPatternRepository,
+                                MonthlySpendingRollupRepository monthlySpendingRollupRepository, UserRepository userRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.spendingPatternRepository = spendingPatternRepository;
+        this.monthlySpendingRollupRepository = monthlySpendingRollupRepository;
+        this.userRepository = userRepository;
+    }
+
+    @EventListener
+    @Transactional
+    public void onTransactionChange(TransactionChangeEvent event) {
+        Map<BucketKey, Delta> deltas = new LinkedHashMap<>();
+        for (TransactionChangeEvent.Change change : event.getChanges()) {
+            if (change.getTransactionType() != TransactionType.Debit || change.getCount() == 0) {
+                continue;
+            }
+            DayOfWeek day = change.getTransactionDate().getDayOfWeek();
+            add(deltas, PatternType.DAY_OF_WEEK, day.name(), change);
+            add(deltas, PatternType.WEEKEND, isWeekend(day) ? "WEEKEND" : "WEEKDAY", change);
+            if (change.getTimeOfDay() != null) {
+                add(deltas, PatternType.TIME_OF_DAY, TimeBucket.of(change.getTimeOfDay()).name(), change);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> rows.add(new Object[] {
+                UUID.randomUUID().toString(), event.getUserId(), key.patternType.name(), key.bucket, delta.count, delta.amount}));
+        jdbcTemplate.batchUpdate(ADJUST_SQL, rows);
+
+        refreshBeforeCommit(event.getUserId());
+    }
+
+    // Backfill from the transactions table; runs with the rollup rebuild, after which patterns are re-derived
+    @Transactional
+    public void rebuild(String userId) {
+        jdbcTemplate.update(DELETE_USER_STATS_SQL, userId);
+        jdbcTemplate.update(REBUILD_USER_STATS_SQL, userId, userId, userId);
+        refreshPatterns(userId);
+    }
+
+    // Imports publish one event per batch and refresh the rollup last, so patterns are derived once at the end
+    private void refreshBeforeCommit(String userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshPatterns(userId);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> users = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, users);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    users.forEach(SpendingPatternMiner.this::refreshPatterns);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SpendingPatternMiner.this);
+                }
+            });
+            pending = users;
+        }
+        pending.add(userId);
+    }
+
+    private void refreshPatterns(String userId) {
+        Map<PatternType, Map<String, Delta>> stats = loadStats(userId);
+        double months = Math.max(1, monthlySpendingRollupRepository.countSpendingMonths(userId));
+
+        List<SpendingPattern> mined = new ArrayList<>();
+        mined.addAll(histogramPatterns(PatternType.DAY_OF_WEEK, stats, months));
+        mined.addAll(histogramPatterns(PatternType.TIME_OF_DAY, stats, months));
+        mined.addAll(weekendPattern(stats, months));
+        mined.addAll(categoryTrends(userId));
+
+        BigDecimal monthlySpend = total(stats.getOrDefault(PatternType.WEEKEND, Map.of())).amount
+                .divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+        for (SpendingPattern pattern : mined) {
+            pattern.setPriorityScore(priority(pattern, monthlySpend));
+        }
+
+        save(userId, mined);
+    }
+
+    private List<SpendingPattern> histogramPatterns(PatternType type, Map<PatternType, Map<String, Delta>> stats, double months) {
+        Map<String, Delta> buckets = stats.getOrDefault(type, Map.of());
+        Delta total = total(buckets);
+        if (total.count < MIN_SAMPLE || total.amount.signum() <= 0) {
+            return List.of();
+        }
+
+        int bucketCount = type == PatternType.DAY_OF_WEEK ? DayOfWeek.values().length : TimeBucket.values().length;
+        BigDecimal evenShare = total.amount.divide(BigDecimal.valueOf(bucketCount), 2, RoundingMode.HALF_UP);
+
+        List<SpendingPattern> patterns = new ArrayList<>();
+        buckets.forEach((bucket, delta) -> {
+            double lift = delta.amount.doubleValue() / evenShare.doubleValue();
+            if (lift < MIN_LIFT) {
+                return;
+            }
+            String label = type == PatternType.DAY_OF_WEEK ? capitalise(bucket) + "s" : capitalise(bucket);
+            SpendingPattern pattern = pattern(type, "High spending on " + label, delta, months, total.count, lift);
+            pattern.setTriggerConditions((type == PatternType.DAY_OF_WEEK ? "dayOfWeek=" : "timeOfDay=") + bucket);
+            pattern.setPotentialSavings(delta.amount.subtract(evenShare).divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP));
+            patterns.add(pattern);
+        });
+        return patterns;
+    }
+
+    // Compares spend per weekend day with spend per weekday
+    private List<SpendingPattern> weekendPattern(Map<PatternType, Map<String, Delta>> stats, double months) {
+        Map<String, Delta> buckets = stats.getOrDefault(PatternType.WEEKEND, Map.of());
+        Delta weekend = buckets.getOrDefault("WEEKEND", new Delta());
+        Delta weekday = buckets.getOrDefault("WEEKDAY", new Delta());
+        long count = weekend.count + weekday.count;
+        if (count < MIN_SAMPLE || weekday.amount.signum() <= 0) {
+            return List.of();
+        }
+
+        double lift = (weekend.amount.doubleValue() / 2) / (weekday.amount.doubleValue() / 5);
+        if (lift < MIN_LIFT) {
+            return List.of();
+        }
+
+        SpendingPattern pattern = pattern(PatternType.WEEKEND, "Weekend spending", weekend, months, count, lift);
+        pattern.setTriggerConditions("isWeekend=true");
+        // What the weekend would cost at the weekday rate
+        BigDecimal atWeekdayRate = weekday.amount.multiply(BigDecimal.valueOf(2)).divide(BigDecimal.valueOf(5), 2, RoundingMode.HALF_UP);
+        pattern.setPotentialSavings(weekend.amount.subtract(atWeekdayRate).divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP));
+        return List.of(pattern);
+    }
+
+    private List<SpendingPattern> categoryTrends(String userId) {
+        // Complete months only: a partial current month would make every category look like it is falling
+        YearMonth lastComplete = YearMonth.now().minusMonths(1);
+        Map<String, Object[]> recent = byCategory(monthlySpendingRollupRepository.getSpendingByCategoryForPeriod(userId,
+                SpendingRollupService.monthStart(lastComplete.minusMonths(TREND_MONTHS - 1)),
+                SpendingRollupService.monthStart(lastComplete)));
+        Map<String, Object[]> prior = byCategory(monthlySpendingRollupRepository.getSpendingByCategoryForPeriod(userId,
+                SpendingRollupService.monthStart(lastComplete.minusMonths(2L * TREND_MONTHS - 1)),
+                SpendingRollupService.monthStart(lastComplete.minusMonths(TREND_MONTHS))));
+
+        List<SpendingPattern> patterns = new ArrayList<>();
+        for (Map.Entry<String, Object[]> entry : recent.entrySet()) {
+            Object[] row = entry.getValue();
+            BigDecimal recentTotal = (BigDecimal) row[4];
+            long recentCount = ((Number) row[5]).longValue();
+            Object[] priorRow = prior.get(entry.getKey());
+            BigDecimal priorTotal = priorRow != null ? (BigDecimal) priorRow[4] : BigDecimal.ZERO;
+            long priorCount = priorRow != null ? ((Number) priorRow[5]).longValue() : 0;
+
+            TrendDirection direction = trend(recentTotal, priorTotal);
+            if (direction == TrendDirection.Stable || recentCount + priorCount < TREND_MONTHS) {
+                continue;
+            }
+
+            SpendingPattern pattern = new SpendingPattern();
+            pattern.setPatternType(PatternType.CATEGORY_TREND);
+            pattern.setPatternName((direction == TrendDirection.Increasing ? "Rising " : "Falling ") + row[1] + " spending");
+            pattern.setTrendDirection(direction);
+            pattern.setFrequencyCount((int) recentCount);
+            pattern.setAverageAmount(recentTotal.divide(BigDecimal.valueOf(Math.max(1, recentCount)), 2, RoundingMode.HALF_UP));
+            pattern.setMonthlyCost(recentTotal.divide(BigDecimal.valueOf(TREND_MONTHS), 2, RoundingMode.HALF_UP));
+            pattern.setPotentialSavings(direction == TrendDirection.Increasing
+                    ? recentTotal.subtract(priorTotal).divide(BigDecimal.valueOf(TREND_MONTHS), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO);
+            pattern.setConfidenceScore(score(Math.min(1.0, (recentCount + priorCount) / 30.0)));
+            pattern.setAffectedCategories(new ArrayList<>(List.of(entry.getKey())));
+            pattern.setTriggerConditions("category=" + entry.getKey());
+            patterns.add(pattern);
+        }
+        return patterns;
+    }
+
+    // Upserts by (type, name) and deactivates patterns that no longer hold
+    private void save(String userId, List<SpendingPattern> mined) {
+        Map<String, SpendingPattern> existing = new HashMap<>();
+        for (SpendingPattern pattern : spendingPatternRepository.findByUserId(userId)) {
+            existing.put(pattern.getPatternType() + "|" + pattern.getPatternName(), pattern);
+        }
+
+        for (SpendingPattern candidate : mined) {
+            SpendingPattern pattern = existing.remove(candidate.getPatternType() + "|" + candidate.getPatternName());
+            if (pattern == null) {
+                pattern = candidate;
+                pattern.setUser(userRepository.getReferenceById(userId));
+            } else {
+                pattern.setConfidenceScore(candidate.getConfidenceScore());
+                pattern.setFrequencyCount(candidate.getFrequencyCount());
+                pattern.setAverageAmount(candidate.getAverageAmount());
+                pattern.setTrendDirection(candidate.getTrendDirection());
+                pattern.setTriggerConditions(candidate.getTriggerConditions());
+                pattern.setAffectedCategories(candidate.getAffectedCategories());
+                pattern.setMonthlyCost(candidate.getMonthlyCost());
+                pattern.setPotentialSavings(candidate.getPotentialSavings());
+                pattern.setPriorityScore(candidate.getPriorityScore());
+            }
+            pattern.setActive(true);
+            spendingPatternRepository.save(pattern);
+        }
+
+        existing.values().forEach(pattern -> pattern.setActive(false));
+
+        logger.debug("Refreshed spending patterns: user={}, active={}, retired={}", userId, mined.size(), existing.size());
+    }
+
+    private SpendingPattern pattern(PatternType type, String name, Delta bucket, double months, long sample, double lift) {
+        SpendingPattern pattern = new SpendingPattern();
+        pattern.setPatternType(type);
+        pattern.setPatternName(name);
+        pattern.setFrequencyCount((int) bucket.count);
+        pattern.setAverageAmount(bucket.count > 0
+                ? bucket.amount.divide(BigDecimal.valueOf(bucket.count), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO);
+        pattern.setMonthlyCost(bucket.amount.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP));
+        // Stronger lift and a larger sample both make the habit more certain
+        pattern.setConfidenceScore(score((1 - 1 / lift) * Math.min(1.0, sample / (double) (MIN_SAMPLE * 5))));
+        return pattern;
+    }
+
+    // Monthly savings as a share of monthly spend, discounted by confidence
+    private BigDecimal priority(SpendingPattern pattern, BigDecimal monthlySpend) {
+        if (monthlySpend.signum() <= 0 || pattern.getPotentialSavings() == null) {
+            return BigDecimal.ZERO;
+        }
+        double share = pattern.getPotentialSavings().doubleValue() / monthlySpend.doubleValue() * 100;
+        return BigDecimal.valueOf(Math.max(0, Math.min(99.99, share * pattern.getConfidenceScore().doubleValue())))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private Map<PatternType, Map<String, Delta>> loadStats(String userId) {
+        Map<PatternType, Map<String, Delta>> stats = new HashMap<>();
+        jdbcTemplate.query(USER_STATS_SQL, rs -> {
+            Delta delta = new Delta();
+            delta.count = rs.getLong("transaction_count");
+            delta.amount = rs.getBigDecimal("total_amount");
+            stats.computeIfAbsent(PatternType.valueOf(rs.getString("pattern_type")), key -> new LinkedHashMap<>())
+                    .put(rs.getString("bucket"), delta);
+        }, userId);
+        return stats;
+    }
+
+    private Map<String, Object[]> byCategory(List<Object[]> rows) {
+        Map<String, Object[]> result = new LinkedHashMap<>();
+        rows.forEach(row -> result.put((String) row[0], row));
+        return result;
+    }
+
+    private TrendDirection trend(BigDecimal recent, BigDecimal prior) {
+        if (prior.signum() <= 0) {
+            return recent.signum() > 0 ? TrendDirection.Increasing : TrendDirection.Stable;
+        }
+        double change = recent.subtract(prior).doubleValue() / prior.doubleValue();
+        if (change >= TREND_THRESHOLD) {
+            return TrendDirection.Increasing;
+        }
+        if (change <= -TREND_THRESHOLD) {
+            return TrendDirection.Decreasing;
+        }
+        return TrendDirection.Stable;
+    }
+
+    private static void add(Map<BucketKey, Delta> deltas, PatternType type, String bucket, TransactionChangeEvent.Change change) {
+        Delta delta = deltas.computeIfAbsent(new BucketKey(type, bucket), key -> new Delta());
+        delta.count += change.getCount();
+        delta.amount = delta.amount.add(change.getAmount());
+    }
+
+    private static Delta total(Map<String, Delta> buckets) {
+        Delta total = new Delta();
+        for (Delta delta : buckets.values()) {
+            total.count += delta.count;
+            total.amount = total.amount.add(delta.amount);
+        }
+        return total;
+    }
+
+    private static BigDecimal score(double value) {
+        return BigDecimal.valueOf(Math.max(0, Math.min(0.99, value))).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static boolean isWeekend(DayOfWeek day) {
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    private static String capitalise(String bucket) {
+        return bucket.charAt(0) + bucket.substring(1).toLowerCase(Locale.ROOT).replace('_', ' ');
+    }
+
+    private enum TimeBucket {
+        MORNING, AFTERNOON, EVENING, LATE_NIGHT;
+
+        static TimeBucket of(LocalTime time) {
+            int hour = time.getHour();
+            if (hour >= 5 && hour < 12) {
+                return MORNING;
+            }
+            if (hour >= 12 && hour < 17) {
+                return AFTERNOON;
+            }
+            if (hour >= 17 && hour < 22) {
+                return EVENING;
+            }
+            return LATE_NIGHT;
+        }
+    }
+
+    private static class Delta {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+    }
+
+    private static class BucketKey {
+        private final PatternType patternType;
+        private final String bucket;
+
+        BucketKey(PatternType patternType, String bucket) {
+            this.patternType = patternType;
+            this.bucket = bucket;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey other)) {
+                return false;
+            }
+            return patternType == other.patternType && bucket.equals(other.bucket);
+        }
+
+        @Override
+        public int hashCode() {
+            return patternType.hashCode() * 31 + bucket.hashCode();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.savo.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Backfills the monthly spending rollup, and the spending pattern histograms derived alongside it,
+ * from the transactions table.
+ *
+ * Runs once at startup when the rollup is empty but transactions exist, and on
+ * app.spending-rollup.rebuild-cron when set. Each user is rebuilt in its own transaction,
+ * so a rebuild never holds locks across the whole table and is safe to run on several replicas.
+ */
+@Component
+public class SpendingRollupRebuildJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpendingRollupRebuildJob.class);
+
+    private final SpendingRollupService spendingRollupService;
+    private final SpendingPatternMiner spendingPatternMiner;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SpendingRollupRebuildJob(SpendingRollupService spendingRollupService, SpendingPatternMiner spendingPatternMiner,
+                                    JdbcTemplate jdbcTemplate) {
+        this.spendingRollupService = spendingRollupService;
+        this.spendingPatternMiner = spendingPatternMiner;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        Boolean needsBackfill = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM monthly_spending_rollups) AND EXISTS (SELECT 1 FROM transactions)", Boolean.class);
+        if (Boolean.TRUE.equals(needsBackfill)) {
+            logger.info("Spending rollup is empty, backfilling from transactions");
+            rebuildAll();
+        }
+    }
+
+    @Scheduled(cron = "${app.spending-rollup.rebuild-cron:-}")
+    public void rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Spending rollup rebuild already running");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int users = 0;
+        int groups = 0;
+        try {
+            List<String> userIds = jdbcTemplate.queryForList("SELECT DISTINCT user_id FROM transactions", String.class);
+            for (String userId : userIds) {
+                try {
+                    groups += spendingRollupService.rebuildUser(userId);
+                    spendingPatternMiner.rebuild(userId);
+                    users++;
+                } catch (Exception e) {
+                    logger.error("Failed to rebuild spending rollup for user: {}", userId, e);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+
+        logger.info("Rebuilt spending rollup: users={}, groups={}, took={}ms", users, groups, System.currentTimeMillis() - start);
+    }
+}
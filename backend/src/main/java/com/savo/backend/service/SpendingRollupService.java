@@ -0,0 +1,153 @@
+package com.savo.backend.service;
+
+import com.savo.backend.model.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Maintains monthly_spending_rollups, the per (user, bank account, category, month, type)
+ * sum, count, min and max of transactions.
+ *
+ * New rows are added as a delta. Anything that moves or removes a transaction recomputes the
+ * affected account-months from source instead, since min and max cannot be decremented.
+ * All writes join the caller's transaction, so the rollup commits or rolls back with the rows it describes;
+ * a refresh called outside one runs in its own.
+ */
+@Service
+public class SpendingRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpendingRollupService.class);
+
+    private static final String GROUP_COLUMNS = "user_id, bank_account_id, category_id, month_start, transaction_type";
+
+    private static final String UPSERT_CONFLICT = " ON CONFLICT (" + GROUP_COLUMNS + ") DO UPDATE SET ";
+
+    private static final String ADD_SQL = "INSERT INTO monthly_spending_rollups (id, " + GROUP_COLUMNS + ", " +
+            "total_amount, transaction_count, min_amount, max_amount, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, 1, ?, ?, now())" +
+            UPSERT_CONFLICT +
+            "total_amount = monthly_spending_rollups.total_amount + EXCLUDED.total_amount, " +
+            "transaction_count = monthly_spending_rollups.transaction_count + 1, " +
+            "min_amount = LEAST(monthly_spending_rollups.min_amount, EXCLUDED.min_amount), " +
+            "max_amount = GREATEST(monthly_spending_rollups.max_amount, EXCLUDED.max_amount), " +
+            "updated_at = now()";
+
+    private static final String AGGREGATE_SELECT = "SELECT gen_random_uuid()::text, user_id, bank_account_id, category_id, " +
+            "CAST(date_trunc('month', transaction_date) AS date), transaction_type, " +
+            "SUM(amount), COUNT(*), MIN(amount), MAX(amount), now() FROM transactions ";
+
+    private static final String AGGREGATE_GROUP_BY = " GROUP BY user_id, bank_account_id, category_id, " +
+            "CAST(date_trunc('month', transaction_date) AS date), transaction_type";
+
+    private static final String REPLACE_SET = "total_amount = EXCLUDED.total_amount, transaction_count = EXCLUDED.transaction_count, " +
+            "min_amount = EXCLUDED.min_amount, max_amount = EXCLUDED.max_amount, updated_at = now()";
+
+    // The date range lets the (user_id, transaction_date, ...) index narrow the scan before the month filter
+    private static final String REFRESH_SQL = "INSERT INTO monthly_spending_rollups (id, " + GROUP_COLUMNS + ", " +
+            "total_amount, transaction_count, min_amount, max_amount, updated_at) " +
+            AGGREGATE_SELECT +
+            "WHERE user_id = ? AND bank_account_id = ? AND transaction_date >= ? AND transaction_date < ? " +
+            "AND CAST(date_trunc('month', transaction_date) AS date) = ANY(?)" +
+            AGGREGATE_GROUP_BY + UPSERT_CONFLICT + REPLACE_SET;
+
+    private static final String DELETE_EMPTY_SQL = "DELETE FROM monthly_spending_rollups r " +
+            "WHERE r.user_id = ? AND r.bank_account_id = ? AND r.month_start = ANY(?) AND NOT EXISTS (" +
+            "SELECT 1 FROM transactions t WHERE t.user_id = r.user_id AND t.bank_account_id = r.bank_account_id " +
+            "AND t.category_id = r.category_id AND t.transaction_type = r.transaction_type " +
+            "AND t.transaction_date >= r.month_start AND t.transaction_date < r.month_start + INTERVAL '1 month')";
+
+    private static final String DELETE_USER_SQL = "DELETE FROM monthly_spending_rollups WHERE user_id = ?";
+
+    private static final String REBUILD_USER_SQL = "INSERT INTO monthly_spending_rollups (id, " + GROUP_COLUMNS + ", " +
+            "total_amount, transaction_count, min_amount, max_amount, updated_at) " +
+            AGGREGATE_SELECT + "WHERE user_id = ?" + AGGREGATE_GROUP_BY;
+
+    private static final String UPLOAD_MONTHS_SQL = "SELECT DISTINCT CAST(date_trunc('month', transaction_date) AS date) " +
+            "FROM transactions WHERE statement_upload_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SpendingRollupService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // For a newly inserted transaction only; the row need not be flushed yet
+    public void add(Transaction transaction) {
+        jdbcTemplate.update(ADD_SQL,
+                UUID.randomUUID().toString(),
+                transaction.getUser().getId(),
+                transaction.getBankAccount().getId(),
+                transaction.getCategory().getId(),
+                Date.valueOf(monthStart(YearMonth.from(transaction.getTransactionDate()))),
+                transaction.getTransactionType().name(),
+                transaction.getAmount(),
+                transaction.getAmount(),
+                transaction.getAmount());
+    }
+
+    // Recomputes the given months of one account from the transactions table; changes must be flushed first
+    @Transactional
+    public void refresh(String userId, String bankAccountId, Collection<YearMonth> months) {
+        if (months.isEmpty()) {
+            return;
+        }
+
+        TreeSet<YearMonth> sorted = new TreeSet<>(months);
+        Object[] monthStarts = sorted.stream().map(month -> Date.valueOf(monthStart(month))).toArray();
+        Date from = Date.valueOf(monthStart(sorted.first()));
+        Date to = Date.valueOf(monthStart(sorted.last().plusMonths(1)));
+
+        int upserted = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(REFRESH_SQL);
+            ps.setString(1, userId);
+            ps.setString(2, bankAccountId);
+            ps.setDate(3, from);
+            ps.setDate(4, to);
+            ps.setArray(5, connection.createArrayOf("date", monthStarts));
+            return ps;
+        });
+
+        int removed = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DELETE_EMPTY_SQL);
+            ps.setString(1, userId);
+            ps.setString(2, bankAccountId);
+            ps.setArray(3, connection.createArrayOf("date", monthStarts));
+            return ps;
+        });
+
+        logger.debug("Refreshed spending rollup: account={}, months={}, upserted={}, removed={}",
+                bankAccountId, sorted.size(), upserted, removed);
+    }
+
+    // Months touched by an upload's transactions; read before deleting them so the rollup can be refreshed after
+    public Set<YearMonth> findMonthsForUpload(String uploadId) {
+        List<LocalDate> months = jdbcTemplate.query(UPLOAD_MONTHS_SQL,
+                (rs, rowNum) -> rs.getDate(1).toLocalDate(), uploadId);
+
+        Set<YearMonth> result = new TreeSet<>();
+        months.forEach(month -> result.add(YearMonth.from(month)));
+        return result;
+    }
+
+    @Transactional
+    public int rebuildUser(String userId) {
+        jdbcTemplate.update(DELETE_USER_SQL, userId);
+        return jdbcTemplate.update(REBUILD_USER_SQL, userId);
+    }
+
+    public static LocalDate monthStart(YearMonth month) {
+        return month.atDay(1);
+    }
+}
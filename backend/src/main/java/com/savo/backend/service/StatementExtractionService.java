@@ -0,0 +1,298 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.exception.ValidationException;
+import com.savo.backend.parser.ParsedStatement;
+import com.savo.backend.parser.StatementContent;
+import jakarta.annotation.PreDestroy;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class StatementExtractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementExtractionService.class);
+
+    // Bank name, account number and statement period are always printed within the first two pages
+    private static final int HEADER_PAGES = 2;
+
+    // How far parallel extraction may run ahead of the handler, in pages per worker
+    private static final int REORDER_PAGES_PER_WORKER = 2;
+
+    private final int extractionThreads;
+    private final int parallelMinPages;
+    private final ThreadPoolExecutor extractionExecutor;
+
+    public StatementExtractionService(StatementProcessingProperties properties) {
+        this.extractionThreads = Math.max(1, properties.getExtractionThreads());
+        this.parallelMinPages = properties.getParallelExtractionMinPages();
+        // Bounded like the processing pool: a burst of large statements cannot queue work (and document copies) without limit
+        this.extractionExecutor = new ThreadPoolExecutor(
+                extractionThreads,
+                extractionThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getExtractionQueueCapacity())),
+                new ExtractionThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Reads the upload once, hashing it on the way through
+    public StatementContent read(MultipartFile file) {
+        MessageDigest digest = newSha256();
+        try (DigestInputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+            byte[] bytes = inputStream.readAllBytes();
+            return new StatementContent(file.getOriginalFilename(), file.getSize(), bytes, HexFormat.of().formatHex(digest.digest()));
+        } catch (IOException e) {
+            logger.error("Failed to read PDF: filename={}", file.getOriginalFilename(), e);
+            throw new ValidationException("Unable to read PDF statement");
+        }
+    }
+
+    // Only the pages bank and period detection read, so the upload request does not scale with statement length;
+    // the full text is extracted by the processing job
+    public ParsedStatement extractHeader(StatementContent content) {
+        try (PDDocument document = PDDocument.load(content.getBytes())) {
+            int pageCount = document.getNumberOfPages();
+            return toParsedStatement(document, content.getFileName(), content.getFileSize(),
+                    extractPages(document, 1, Math.min(pageCount, HEADER_PAGES)));
+        } catch (IOException e) {
+            logger.error("Failed to read PDF: filename={}", content.getFileName(), e);
+            throw new ValidationException("Unable to read PDF statement");
+        }
+    }
+
+    // Hands a stored statement to the handler one page at a time. The PDF is spooled to a temp file and opened
+    // file-backed, so heap use follows a page rather than the statement. Large documents are split across the
+    // extraction pool; pages still reach the handler on the calling thread, in page order.
+    public void streamPages(InputStream inputStream, String fileName, long fileSize, PageHandler handler) throws IOException {
+        long start = System.currentTimeMillis();
+        Path file = Files.createTempFile("statement-", ".pdf");
+
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+
+            try (PDDocument document = load(file)) {
+                int pageCount = document.getNumberOfPages();
+                handler.start(toParsedStatement(document, fileName, fileSize,
+                        extractPages(document, 1, Math.min(pageCount, HEADER_PAGES))));
+
+                // Each worker gets at least half the threshold in pages, so a document load is never spent on a handful of pages
+                int workers = Math.min(extractionThreads, pageCount / Math.max(1, parallelMinPages / 2));
+                boolean parallel = pageCount >= parallelMinPages && workers > 1
+                        && streamPagesInParallel(file, pageCount, workers, handler);
+                if (!parallel) {
+                    PDFTextStripper stripper = new PDFTextStripper();
+                    for (int page = 1; page <= pageCount; page++) {
+                        handler.page(pageText(stripper, document, page));
+                    }
+                }
+
+                logger.debug("Extracted PDF text: filename={}, pages={}, workers={}, took={}ms",
+                        fileName, pageCount, parallel ? workers : 1, System.currentTimeMillis() - start);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // PDDocument is not thread-safe, so every worker opens the file itself. Worker k extracts pages k, k + workers, ...
+    // so the workers advance together, and none starts a page more than REORDER_PAGES_PER_WORKER * workers ahead of
+    // the handler. Pages that finish early wait in a reorder buffer of at most that size.
+    // Returns false, having handed over no pages, when the extraction pool is full.
+    private boolean streamPagesInParallel(Path file, int pageCount, int workers, PageHandler handler) throws IOException {
+        PageWindow window = new PageWindow(workers * REORDER_PAGES_PER_WORKER);
+        // Room for every page in the window plus one failure per worker, so workers never block on it
+        BlockingQueue<ExtractedPage> pages = new ArrayBlockingQueue<>(window.size + workers);
+        List<Future<?>> stripes = new ArrayList<>();
+        try {
+            try {
+                for (int first = 1; first <= workers; first++) {
+                    int firstPage = first;
+                    stripes.add(extractionExecutor.submit(() -> extractStripe(file, firstPage, workers, pageCount, window, pages)));
+                }
+            } catch (RejectedExecutionException e) {
+                logger.debug("Extraction pool full, extracting on the calling thread: queued={}", extractionExecutor.getQueue().size());
+                return false;
+            }
+
+            Map<Integer, String> reorderBuffer = new HashMap<>();
+            for (int next = 1; next <= pageCount; ) {
+                String text = reorderBuffer.remove(next);
+                if (text == null) {
+                    ExtractedPage page = pages.take();
+                    if (page.failure != null) {
+                        throw page.failure;
+                    }
+                    reorderBuffer.put(page.number, page.text);
+                    continue;
+                }
+                handler.page(text);
+                window.advance(++next);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting statement pages");
+        } finally {
+            // No-op for finished workers; stops the rest after a failure or rejection
+            stripes.forEach(stripe -> stripe.cancel(true));
+        }
+    }
+
+    private void extractStripe(Path file, int firstPage, int stride, int pageCount, PageWindow window,
+                               BlockingQueue<ExtractedPage> pages) {
+        try {
+            try (PDDocument document = load(file)) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                for (int page = firstPage; page <= pageCount; page += stride) {
+                    window.awaitTurn(page);
+                    pages.put(new ExtractedPage(page, pageText(stripper, document, page), null));
+                }
+            } catch (IOException e) {
+                pages.put(new ExtractedPage(firstPage, null, e));
+            } catch (RuntimeException e) {
+                pages.put(new ExtractedPage(firstPage, null, new IOException("Failed to extract from page " + firstPage, e)));
+            }
+        } catch (InterruptedException e) {
+            // Cancelled by the handler's thread
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ParsedStatement toParsedStatement(PDDocument document, String fileName, long fileSize, List<String> pages) {
+        PDDocumentInformation info = document.getDocumentInformation();
+        return new ParsedStatement(
+                fileName,
+                fileSize,
+                document.getNumberOfPages(),
+                pages,
+                info.getTitle(),
+                info.getProducer(),
+                toLocalDateTime(info.getCreationDate())
+        );
+    }
+
+    private static PDDocument load(Path file) throws IOException {
+        return PDDocument.load(file.toFile(), MemoryUsageSetting.setupTempFileOnly());
+    }
+
+    private static String pageText(PDFTextStripper stripper, PDDocument document, int page) throws IOException {
+        stripper.setStartPage(page);
+        stripper.setEndPage(page);
+        return stripper.getText(document);
+    }
+
+    private List<String> extractPages(PDDocument document, int startPage, int endPage) throws IOException {
+        List<String> pages = new ArrayList<>(Math.max(0, endPage - startPage + 1));
+
+        PDFTextStripper stripper = new PDFTextStripper();
+        for (int page = startPage; page <= endPage; page++) {
+            pages.add(pageText(stripper, document, page));
+        }
+        return pages;
+    }
+
+    private MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private LocalDateTime toLocalDateTime(Calendar calendar) {
+        if (calendar == null) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(calendar.toInstant(), ZoneId.systemDefault());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        extractionExecutor.shutdownNow();
+    }
+
+    public interface PageHandler {
+        // Called once, before any page, with the document's header pages and metadata
+        void start(ParsedStatement header);
+
+        void page(String pageText) throws IOException;
+    }
+
+    private static class ExtractedPage {
+        private final int number;
+        private final String text;
+        private final IOException failure;
+
+        ExtractedPage(int number, String text, IOException failure) {
+            this.number = number;
+            this.text = text;
+            this.failure = failure;
+        }
+    }
+
+    // The pages workers may start: from the next page the handler expects, up to size pages on
+    private static class PageWindow {
+        private final int size;
+        private int nextPage = 1;
+
+        PageWindow(int size) {
+            this.size = size;
+        }
+
+        synchronized void awaitTurn(int page) throws InterruptedException {
+            while (page >= nextPage + size) {
+                wait();
+            }
+        }
+
+        synchronized void advance(int nextPage) {
+            this.nextPage = nextPage;
+            notifyAll();
+        }
+    }
+
+    private static class ExtractionThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "statement-extraction-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
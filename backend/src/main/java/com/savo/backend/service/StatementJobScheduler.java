@@ -0,0 +1,86 @@
+package com.savo.backend.service;
+
+import com.savo.backend.model.StatementProcessingJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs statement processing jobs on the processing pool, keeps their leases alive,
+ * and pulls queued or recovered jobs from the database when the pool has room.
+ */
+@Component
+public class StatementJobScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementJobScheduler.class);
+
+    private static final int REAP_BATCH_SIZE = 100;
+
+    private final StatementJobService statementJobService;
+    private final StatementProcessingService statementProcessingService;
+    private final StatementProcessingExecutor statementProcessingExecutor;
+
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public StatementJobScheduler(StatementJobService statementJobService, StatementProcessingService statementProcessingService,
+                                 StatementProcessingExecutor statementProcessingExecutor) {
+        this.statementJobService = statementJobService;
+        this.statementProcessingService = statementProcessingService;
+        this.statementProcessingExecutor = statementProcessingExecutor;
+    }
+
+    public void dispatch(StatementProcessingExecutor.Slot slot, String jobId, String uploadId) {
+        statementProcessingExecutor.dispatch(slot, () -> run(jobId, uploadId));
+    }
+
+    @Scheduled(fixedDelayString = "${app.statement-processing.poll-interval-ms:10000}")
+    public void pollQueuedJobs() {
+        int capacity = statementProcessingExecutor.availableCapacity();
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<StatementProcessingJob> jobs = statementJobService.claimJobs(capacity);
+
+        for (StatementProcessingJob job : jobs) {
+            StatementProcessingExecutor.Slot slot = statementProcessingExecutor.tryReserve();
+            if (slot == null) {
+                statementJobService.releaseJob(job.getId());
+                continue;
+            }
+            dispatch(slot, job.getId(), job.getStatementUpload().getId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.statement-processing.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        statementJobService.heartbeat(Set.copyOf(runningJobs));
+    }
+
+    @Scheduled(fixedDelayString = "${app.statement-processing.reaper-interval-ms:60000}")
+    public void reapStuckJobs() {
+        int reaped = statementJobService.reapExpiredLeases(REAP_BATCH_SIZE);
+        int requeued = statementJobService.requeueStuckUploads();
+
+        if (reaped > 0 || requeued > 0) {
+            logger.info("Statement job reaper: expiredLeases={}, requeuedUploads={}", reaped, requeued);
+        }
+    }
+
+    private void run(String jobId, String uploadId) {
+        runningJobs.add(jobId);
+        try {
+            statementProcessingService.processStatement(jobId, uploadId);
+        } catch (Exception e) {
+            logger.error("Statement processing failed for upload: {}", uploadId, e);
+            statementJobService.recordFailure(jobId, e.getMessage());
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+}
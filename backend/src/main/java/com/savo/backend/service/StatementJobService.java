@@ -0,0 +1,179 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.enums.UploadStatus;
+import com.savo.backend.exception.ValidationException;
+import com.savo.backend.model.StatementProcessingJob;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.repository.StatementProcessingJobRepository;
+import com.savo.backend.repository.StatementUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable, lease-based job queue backing statement processing.
+ *
+ * Each upload has one job row. A replica owns a job while its lease is valid and keeps it
+ * alive with heartbeats; jobs whose lease expires (e.g. the JVM died mid-parse) are put
+ * back on the queue and picked up by any replica.
+ */
+@Service
+@Transactional
+public class StatementJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementJobService.class);
+
+    private final StatementProcessingJobRepository jobRepository;
+    private final StatementUploadRepository statementUploadRepository;
+    private final StatementProcessingProperties properties;
+    private final DistributedCache distributedCache;
+    private final String nodeId;
+
+    public StatementJobService(StatementProcessingJobRepository jobRepository, StatementUploadRepository statementUploadRepository,
+                               StatementProcessingProperties properties, DistributedCache distributedCache) {
+        this.jobRepository = jobRepository;
+        this.statementUploadRepository = statementUploadRepository;
+        this.properties = properties;
+        this.distributedCache = distributedCache;
+        this.nodeId = resolveNodeId();
+    }
+
+    // Creates (or resets) the job for an upload, already leased to this replica
+    public StatementProcessingJob startJob(StatementUpload upload) {
+        StatementProcessingJob job = jobRepository.findByStatementUploadId(upload.getId())
+                .orElseGet(() -> new StatementProcessingJob(upload));
+
+        job.setAttempts(0);
+        job.setLastError(null);
+        job.setAvailableAt(LocalDateTime.now());
+        job.lease(nodeId, leaseExpiry());
+
+        return jobRepository.save(job);
+    }
+
+    public List<StatementProcessingJob> claimJobs(int limit) {
+        List<StatementProcessingJob> jobs = jobRepository.lockAvailableJobs(LocalDateTime.now(), limit);
+
+        for (StatementProcessingJob job : jobs) {
+            job.lease(nodeId, leaseExpiry());
+        }
+
+        if (!jobs.isEmpty()) {
+            logger.info("Claimed {} statement processing jobs", jobs.size());
+        }
+        return jobs;
+    }
+
+    // Marks the upload processed and its job done together, once every batch of rows is committed
+    public void completeJob(String jobId, String uploadId, Integer transactionsExtracted) {
+        StatementUpload upload = statementUploadRepository.findById(uploadId)
+                .orElseThrow(() -> new ValidationException("Upload not found"));
+        upload.setTotalTransactionsExtracted(transactionsExtracted);
+        upload.setUploadStatus(UploadStatus.COMPLETED);
+        upload.setProcessingCompletedAt(LocalDateTime.now());
+        distributedCache.evictUser(DistributedCache.UPLOAD_HISTORY, upload.getUser().getId());
+
+        int updated = jobRepository.completeLeasedJob(jobId, nodeId, LocalDateTime.now());
+        if (updated == 0) {
+            throw new IllegalStateException("Lease lost for statement processing job: " + jobId);
+        }
+    }
+
+    public void recordFailure(String jobId, String error) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            if (!nodeId.equals(job.getLeaseOwner())) {
+                logger.warn("Ignoring failure for job no longer leased by this node: job={}", jobId);
+                return;
+            }
+            retryOrFail(job, error);
+        });
+    }
+
+    // Gives a claimed job back without counting the attempt
+    public void releaseJob(String jobId) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            if (nodeId.equals(job.getLeaseOwner())) {
+                job.setAttempts(Math.max(0, job.getAttempts() - 1));
+                job.requeue(LocalDateTime.now(), job.getLastError());
+            }
+        });
+    }
+
+    public void heartbeat(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int extended = jobRepository.extendLeases(jobIds, nodeId, now.plusSeconds(properties.getLeaseSeconds()), now);
+        if (extended < jobIds.size()) {
+            logger.warn("Extended {} of {} statement job leases", extended, jobIds.size());
+        }
+    }
+
+    public int reapExpiredLeases(int limit) {
+        List<StatementProcessingJob> expired = jobRepository.lockExpiredLeases(LocalDateTime.now(), limit);
+
+        for (StatementProcessingJob job : expired) {
+            logger.warn("Statement job lease expired: job={}, owner={}, attempts={}", job.getId(), job.getLeaseOwner(), job.getAttempts());
+            retryOrFail(job, "Processing lease expired");
+        }
+        return expired.size();
+    }
+
+    // Uploads left in PROCESSING without a job (e.g. created before the job queue existed)
+    public int requeueStuckUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(properties.getStuckUploadMinutes());
+        int requeued = 0;
+
+        for (StatementUpload upload : statementUploadRepository.findStuckProcessingUploads(cutoff)) {
+            if (!jobRepository.existsByStatementUploadId(upload.getId())) {
+                jobRepository.save(new StatementProcessingJob(upload));
+                requeued++;
+                logger.info("Re-enqueued stuck statement upload: {}", upload.getId());
+            }
+        }
+        return requeued;
+    }
+
+    public void deleteJobForUpload(String uploadId) {
+        jobRepository.deleteByStatementUploadId(uploadId);
+    }
+
+    private void retryOrFail(StatementProcessingJob job, String error) {
+        if (job.getAttempts() >= properties.getMaxAttempts()) {
+            job.fail(error);
+            job.getStatementUpload().failProcessing(error);
+            distributedCache.evictUser(DistributedCache.UPLOAD_HISTORY, job.getStatementUpload().getUser().getId());
+            logger.error("Statement job failed permanently after {} attempts: job={}, error={}", job.getAttempts(), job.getId(), error);
+            return;
+        }
+
+        long delaySeconds = (long) properties.getRetryBaseDelaySeconds() << Math.max(0, job.getAttempts() - 1);
+        job.requeue(LocalDateTime.now().plusSeconds(delaySeconds), error);
+        logger.info("Statement job scheduled for retry in {}s: job={}, attempt={}", delaySeconds, job.getId(), job.getAttempts());
+    }
+
+    private LocalDateTime leaseExpiry() {
+        return LocalDateTime.now().plusSeconds(properties.getLeaseSeconds());
+    }
+
+    private static String resolveNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -1,29 +1,27 @@
 package com.savo.backend.service;
 
+import com.savo.backend.config.StatementProcessingProperties;
 import com.savo.backend.enums.TransactionType;
-import com.savo.backend.model.Category;
 import com.savo.backend.model.StatementUpload;
 import com.savo.backend.model.Transaction;
-import com.savo.backend.repository.CategoryRepository;
-import com.savo.backend.repository.TransactionRepository;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import com.savo.backend.parser.ParsedStatement;
+import com.savo.backend.parser.StatementParser;
+import com.savo.backend.parser.StatementParserRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.math.BigDecimal;
-import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @Service
 public class StatementParserService {
@@ -31,325 +29,175 @@ public class StatementParserService {
     private static final Logger logger = LoggerFactory.getLogger(StatementParserService.class);
 
     private final FileStorageService fileStorageService;
-    private final TransactionRepository transactionRepository;
-    private final CategoryRepository categoryRepository;
+    private final StatementParserRegistry statementParserRegistry;
     private final AutoCategorisationService autoCategorisationService;
-
-    public StatementParserService(FileStorageService fileStorageService, AutoCategorisationService autoCategorisationService, TransactionRepository transactionRepository, CategoryRepository categoryRepository) {
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final StatementExtractionService statementExtractionService;
+    private final StatementProcessingProgress statementProcessingProgress;
+    private final SpendingRollupService spendingRollupService;
+    private final SubscriptionDetectionService subscriptionDetectionService;
+    private final int batchSize;
+
+    public StatementParserService(FileStorageService fileStorageService, AutoCategorisationService autoCategorisationService, StatementParserRegistry statementParserRegistry,
+                                  StatementExtractionService statementExtractionService, TransactionBatchWriter transactionBatchWriter,
+                                  StatementProcessingProgress statementProcessingProgress, SpendingRollupService spendingRollupService,
+                                  SubscriptionDetectionService subscriptionDetectionService, StatementProcessingProperties properties) {
         this.fileStorageService = fileStorageService;
+        this.statementExtractionService = statementExtractionService;
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.statementProcessingProgress = statementProcessingProgress;
+        this.spendingRollupService = spendingRollupService;
+        this.subscriptionDetectionService = subscriptionDetectionService;
+        this.batchSize = properties.getInsertBatchSize();
         this.autoCategorisationService = autoCategorisationService;
-        this.transactionRepository = transactionRepository;
-        this.categoryRepository = categoryRepository;
+        this.statementParserRegistry = statementParserRegistry;
     }
 
     public void parseAndSaveTransactions(StatementUpload upload) {
         try {
             logger.info("Starting statement processing for upload: {}", upload.getId());
 
-            String presignedUrl = fileStorageService.getPresignedDownloadUrl(upload.getS3Key());
-            String pdfText = extractPDFTextFromUrl(presignedUrl);
-
-            // Parse based on bank
-            List<Transaction> transactions = parseTransactionsByBank(
-                    pdfText,
-                    upload.getBankAccount().getBankName(),
-                    upload
-            );
-
-            List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+            // The upload request only extracted the header pages; the rest is streamed here, off the request path
+            long start = System.nanoTime();
+            TransactionSink sink = parseTransactionsFromStorage(upload);
 
-            upload.setTotalTransactionsExtracted(savedTransactions.size());
+            upload.setTotalTransactionsExtracted(sink.parsed);
 
-            logger.info("Successfully parsed {} transactions for upload: {}", savedTransactions.size(), upload.getId());
+            double seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+            logger.info("Successfully parsed {} transactions for upload: {}, inserted={}, alreadyImported={}, rate={} rows/sec",
+                    sink.parsed, upload.getId(), sink.written, sink.parsed - sink.written, Math.round(sink.parsed / seconds));
 
         } catch (Exception e) {
             logger.error("Failed to parse transactions for upload: {}", upload.getId(), e);
             throw new RuntimeException("Failed to parse transactions for upload: " + upload.getId(), e);
+        } finally {
+            statementProcessingProgress.finish(upload.getId());
         }
     }
 
-    private List<Transaction> parseTransactionsByBank(String pdfText, String bankName, StatementUpload upload) {
-        switch (bankName.toUpperCase()) {
-            case "DBS":
-                return parseDBSTransactions(pdfText, upload);
-            case "OCBC":
-                return parseOCBCTransactions(pdfText, upload);
-            case "UOB":
-                return parseUOBTransactions(pdfText, upload);
-            default:
-                throw new IllegalArgumentException("Unsupported bank: " + bankName);
-        }
-    }
-
-    private List<Transaction> parseDBSTransactions(String pdfText, StatementUpload upload) {
-        List<Transaction> transactions = new ArrayList<>();
-
-        Pattern transactionPattern = Pattern.compile(
-                "(\\d{2}/\\d{2}/\\d{4})\\s+" +
-                        "(.+?)\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})?" +
-                        "\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})?" +
-                        "(?:\\s+(\\d{1,3}(?:,\\d{3})*\\.\\d{2}))?",
-                Pattern.MULTILINE
-        );
-
-        Matcher matcher = transactionPattern.matcher(pdfText);
-
-        while (matcher.find()) {
-            try {
-                Transaction transaction = new Transaction();
-
-                String dateStr = matcher.group(1);
-                LocalDate transactionDate = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                transaction.setTransactionDate(transactionDate);
+    // Page -> rows -> categoriser -> batched writer; at most one page of text, its matches and one batch of rows are held at a time
+    private TransactionSink parseTransactionsFromStorage(StatementUpload upload) throws IOException {
+        logger.debug("Extracting PDF text from storage: key={}", upload.getS3Key());
 
-                String description = matcher.group(2);
-                transaction.setDescription(description);
-                transaction.setMerchantName(extractMerchantName(description, "DBS"));
-
-                String debitStr = matcher.group(3);
-                String creditStr = matcher.group(4);
-                String balanceStr = matcher.group(5);
-
-                BigDecimal amount;
-                TransactionType type;
-
-                if (debitStr != null && !debitStr.trim().isEmpty()) {
-                    amount = new BigDecimal(debitStr.replace(",", ""));
-                    type = TransactionType.Debit;
-                } else if (creditStr != null && !creditStr.trim().isEmpty()) {
-                    amount = new BigDecimal(creditStr.replace(",", ""));
-                    type = TransactionType.Credit;
-                } else {
-                    logger.warn("Transaction with no amount found, skipping: {}", matcher.group(0));
-                    continue;
-                }
-
-                transaction.setAmount(amount);
-                transaction.setTransactionType(type);
-
-                if (balanceStr != null && !balanceStr.trim().isEmpty()) {
-                    transaction.setBalanceAfter(new BigDecimal(balanceStr.replace(",", "")));
-                }
+        PageParser pageParser = new PageParser(upload);
+        try (InputStream inputStream = fileStorageService.openFile(upload.getS3Key())) {
+            statementExtractionService.streamPages(inputStream, upload.getFileName(), upload.getFileSize(), pageParser);
+        } catch (IOException e) {
+            logger.error("Failed to extract PDF text from storage: {}", e.getMessage());
+            throw new IOException("Failed to process PDF from S3", e);
+        }
 
-                setTransactionMetadata(transaction, upload);
+        TransactionSink sink = pageParser.sink;
+        sink.flush();
 
-                transactions.add(transaction);
-            } catch (Exception e) {
-                logger.warn("Failed to parse DBS transaction line: '{}', error: {}", matcher.group(0), e.getMessage());
-            }
+        // Also when every row was already stored: an earlier attempt may have committed its batches and failed after
+        if (sink.parsed > 0) {
+            spendingRollupService.refresh(upload.getUser().getId(), upload.getBankAccount().getId(), sink.months);
+            subscriptionDetectionService.detectForMerchants(upload.getUser(), sink.debitMerchants);
         }
 
-        return transactions;
+        return sink;
     }
 
-    private List<Transaction> parseOCBCTransactions(String pdfText, StatementUpload upload) {
-        List<Transaction> transactions = new ArrayList<>();
-
-        int statementYear = extractStatementYear(pdfText, "OCBC");
-
-        Pattern transactionPattern = Pattern.compile(
-                "(\\d{2}\\s+\\w{3})\\s+" +
-                        "(\\d{2}\\s+\\w{3})\\s+" +
-                        "(.+?)\\s+" +
-                        "(?:(\\S+)\\s+)?" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})?\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})?\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})",
-                Pattern.MULTILINE
-        );
-
-        Matcher matcher = transactionPattern.matcher(pdfText);
-
-        while (matcher.find()) {
-            try {
-                Transaction transaction = new Transaction();
-
-                String dateStr = matcher.group(1) + " " + statementYear;
-                LocalDate transactionDate = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH));
-                transaction.setTransactionDate(transactionDate);
-
-                String description = matcher.group(3);
-                transaction.setDescription(description);
-                transaction.setMerchantName(extractMerchantName(description, "OCBC"));
-
-                String debitStr = matcher.group(5);
-                String creditStr = matcher.group(6);
-                String balanceStr = matcher.group(7);
-
-                BigDecimal amount;
-                TransactionType type;
-
-                if (debitStr != null && !debitStr.trim().isEmpty()) {
-                    amount = new BigDecimal(debitStr.replace(",", ""));
-                    type = TransactionType.Debit;
-                } else if (creditStr != null && !creditStr.trim().isEmpty()) {
-                    amount = new BigDecimal(creditStr.replace(",", ""));
-                    type = TransactionType.Credit;
-                } else {
-                    continue;
-                }
-
-                transaction.setAmount(amount);
-                transaction.setTransactionType(type);
-                transaction.setBalanceAfter(new BigDecimal(balanceStr.replace(",", "")));
-
-                setTransactionMetadata(transaction, upload);
-                transactions.add(transaction);
+    private LocalDate resolvePeriodStart(StatementParser parser, ParsedStatement statement, StatementUpload upload) {
+        if (upload.getStatementPeriodStart() != null) {
+            return upload.getStatementPeriodStart();
+        }
 
-            } catch (Exception e) {
-                logger.warn("Failed to parse OCBC transaction line: '{}', error: {}", matcher.group(0), e.getMessage());
+        try {
+            LocalDate[] period = parser.extractStatementPeriod(statement.getText(1, 2));
+            if (period != null) {
+                return period[0];
             }
+        } catch (DateTimeParseException e) {
+            logger.debug("Failed to parse statement period: {}", e.getMessage());
         }
 
-        return transactions;
+        logger.warn("Statement period not found for upload: {}, assuming current year", upload.getId());
+        return null;
     }
 
-    private List<Transaction> parseUOBTransactions(String pdfText, StatementUpload upload) {
-        List<Transaction> transactions = new ArrayList<>();
-
-        Pattern transactionPattern = Pattern.compile(
-                "(\\d{2}/\\d{2}/\\d{4})\\s+" +
-                        "(\\d{2}/\\d{2}/\\d{4})\\s+" +
-                        "(\\d{2}/\\d{2}/\\d{4}\\s+\\d{2}:\\d{2}:\\d{2}\\s+[AP]M)\\s+" +
-                        "(.+?)\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})\\s+" +
-                        "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})",
-                Pattern.MULTILINE
-        );
-
-        Matcher matcher = transactionPattern.matcher(pdfText);
-
-        while (matcher.find()) {
-            try {
-                Transaction transaction = new Transaction();
-
-                String dateStr = matcher.group(1);
-                LocalDate transactionDate = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-                transaction.setTransactionDate(transactionDate);
-
-                String description = matcher.group(4).replaceAll("\\s+", " ").trim();
-                transaction.setDescription(description);
-                transaction.setMerchantName(extractMerchantName(description, "UOB"));
+    private class PageParser implements StatementExtractionService.PageHandler {
+        private final StatementUpload upload;
+        private final StatementParser parser;
+        private LocalDate periodStart;
+        private StatementProcessingProgress.Progress progress;
+        private TransactionSink sink;
 
-                String creditStr = matcher.group(5);
-                String debitStr = matcher.group(6);
-                String balanceStr = matcher.group(7);
-
-                BigDecimal amount;
-                TransactionType type;
+        PageParser(StatementUpload upload) {
+            this.upload = upload;
+            this.parser = statementParserRegistry.forBank(upload.getBankAccount().getBankName());
+        }
 
-                BigDecimal credit = new BigDecimal(creditStr.replace(",", ""));
-                BigDecimal debit = new BigDecimal(debitStr.replace(",", ""));
+        @Override
+        public void start(ParsedStatement header) {
+            periodStart = resolvePeriodStart(parser, header, upload);
+            progress = statementProcessingProgress.start(upload.getId(), header.getPageCount());
+            sink = new TransactionSink(upload, progress);
+        }
 
-                if (debit.compareTo(BigDecimal.ZERO) > 0) {
-                    amount = debit;
-                    type = TransactionType.Debit;
-                } else if (credit.compareTo(BigDecimal.ZERO) > 0) {
-                    amount = credit;
-                    type = TransactionType.Credit;
-                } else {
-                    continue;
-                }
+        @Override
+        public void page(String pageText) {
+            parser.parsePage(pageText, periodStart, sink);
+            progress.pageProcessed();
+        }
+    }
 
-                transaction.setAmount(amount);
-                transaction.setTransactionType(type);
-                transaction.setBalanceAfter(new BigDecimal(balanceStr.replace(",", "")));
+    private class TransactionSink implements Consumer<Transaction> {
+        private final StatementUpload upload;
+        private final StatementProcessingProgress.Progress progress;
+        private final List<Transaction> batch = new ArrayList<>(batchSize);
+        private final TransactionFingerprint fingerprint = new TransactionFingerprint();
+        private final Set<YearMonth> months = new HashSet<>();
+        private final Set<String> debitMerchants = new HashSet<>();
+        private int parsed;
+        private int written;
+
+        TransactionSink(StatementUpload upload, StatementProcessingProgress.Progress progress) {
+            this.upload = upload;
+            this.progress = progress;
+        }
 
-                setTransactionMetadata(transaction, upload);
-                transactions.add(transaction);
-            } catch (Exception e) {
-                logger.warn("Failed to parse UOB transaction line: '{}', error: {}", matcher.group(0), e.getMessage());
+        @Override
+        public void accept(Transaction transaction) {
+            setTransactionMetadata(transaction, upload);
+            fingerprint.assign(transaction);
+            batch.add(transaction);
+            months.add(YearMonth.from(transaction.getTransactionDate()));
+            if (transaction.getTransactionType() == TransactionType.Debit && transaction.getMerchantKey() != null) {
+                debitMerchants.add(transaction.getMerchantKey());
+            }
+            parsed++;
+            if (batch.size() >= batchSize) {
+                flush();
             }
         }
 
-        return transactions;
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            int count = transactionBatchWriter.writeAll(batch);
+            written += count;
+            progress.transactionsWritten(count);
+            batch.clear();
+        }
     }
 
     private void setTransactionMetadata(Transaction transaction, StatementUpload upload) {
         transaction.setUser(upload.getUser());
         transaction.setBankAccount(upload.getBankAccount());
         transaction.setStatementUpload(upload);
+        transaction.setMerchantKey(MerchantKey.of(transaction.getMerchantName()));
 
         LocalDate date = transaction.getTransactionDate();
         transaction.setDayOfWeek(date.getDayOfWeek().getValue());
         transaction.setWeekend(date.getDayOfWeek().getValue() >= 6);
 
-        String categoryId = autoCategorisationService.autoCategoriseTransaction(transaction);
-        Category category = categoryRepository.findById(categoryId)
-                .orElse(null);
-        transaction.setCategory(category);
+        transaction.setCategory(autoCategorisationService.autoCategoriseTransaction(transaction));
         transaction.setManuallyCategorized(false);
 
         transaction.setCreatedAt(LocalDateTime.now());
         transaction.setUpdatedAt(LocalDateTime.now());
     }
-
-    private String extractMerchantName(String description, String bankName) {
-
-        // Generic cleaning
-        String cleaned = description.replaceAll("\\b\\d{2}/\\d{2}\\b", "") // Remove dates
-                .replaceAll("\\*\\d+", "") // Remove reference numbers
-                .replaceAll("\\s+", " ")
-                .trim();
-
-        // Bank-specific cleaning rules
-        switch (bankName.toUpperCase()) {
-            case "DBS":
-                cleaned = cleaned.replaceAll("^(GIRO|NETS|FAST|PAYNOW)\\s*-?\\s*", "");
-                break;
-            case "OCBC":
-                cleaned = cleaned.replaceAll("^(TXN|REF)\\s*\\w+\\s*", "");
-                break;
-            case "UOB":
-                cleaned = cleaned.replaceAll("^(VISA|MASTERCARD)\\s*", "");
-                break;
-        }
-
-        String[] words = cleaned.split("\\s+");
-        if (words.length > 3) {
-            return String.join(" ", words[0], words[1], words[2]);
-        }
-
-        return cleaned;
-    }
-
-    private int extractStatementYear(String pdfText, String bankName) {
-        int currentYear = LocalDate.now().getYear();
-
-        try {
-            Pattern ocbcPattern = Pattern.compile(
-                    "\\d{1,2}\\s+\\w{3}\\s+(\\d{4})\\s+TO\\s+\\d{1,2}\\s+\\w{3}\\s+(\\d{4})",
-                    Pattern.CASE_INSENSITIVE
-            );
-            Matcher ocbcMatcher = ocbcPattern.matcher(pdfText);
-
-            if (ocbcMatcher.find()) {
-                currentYear = Integer.parseInt(ocbcMatcher.group(1));
-            }
-
-        } catch (Exception e) {
-            logger.warn("Failed to extract statement year for {}, using current year", bankName);
-        }
-
-        return currentYear;
-    }
-
-    private String extractPDFTextFromUrl(String presignedUrl) throws IOException {
-        logger.debug("Extracting PDF text from URL: {}", presignedUrl);
-
-        try (InputStream inputStream = new URL(presignedUrl).openStream();
-            PDDocument document = PDDocument.load(inputStream)) {
-
-            PDFTextStripper stripper = new PDFTextStripper();
-            return stripper.getText(document);
-
-        } catch (IOException e) {
-            logger.error("Failed to extract PDF text from presigned URL: {}", e.getMessage());
-            throw new IOException("Failed to process PDF from S3", e);
-        }
-    }
 }
-
@@ -0,0 +1,175 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.exception.ProcessingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded worker pool for statement processing.
+ *
+ * Callers reserve a slot before doing any expensive work, so a saturated pool rejects
+ * new uploads up front (HTTP 503, or 429 when a single user is over their limit)
+ * instead of tying up request threads.
+ */
+@Component
+public class StatementProcessingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementProcessingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore capacity;
+    private final int maxConcurrentPerUser;
+    private final int shutdownTimeoutSeconds;
+    private final ConcurrentHashMap<String, Integer> slotsPerUser = new ConcurrentHashMap<>();
+
+    private final Counter userLimitRejections;
+    private final Counter capacityRejections;
+    private final Timer processingTimer;
+
+    public StatementProcessingExecutor(StatementProcessingProperties properties, MeterRegistry meterRegistry) {
+        this.maxConcurrentPerUser = properties.getMaxConcurrentPerUser();
+        this.shutdownTimeoutSeconds = properties.getShutdownTimeoutSeconds();
+
+        // Queue is sized so that every reserved slot fits; the semaphore does the admission control
+        this.capacity = new Semaphore(properties.getPoolSize() + properties.getQueueCapacity());
+        this.executor = new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity() + properties.getPoolSize()),
+                new ProcessingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("statement.processing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Statements waiting for a processing worker")
+                .register(meterRegistry);
+        Gauge.builder("statement.processing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Workers currently processing a statement")
+                .register(meterRegistry);
+        Gauge.builder("statement.processing.reserved", capacity, c -> properties.getPoolSize() + properties.getQueueCapacity() - c.availablePermits())
+                .description("Reserved processing slots, including uploads not yet dispatched")
+                .register(meterRegistry);
+
+        this.userLimitRejections = Counter.builder("statement.processing.rejected")
+                .tag("reason", "user_limit")
+                .register(meterRegistry);
+        this.capacityRejections = Counter.builder("statement.processing.rejected")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+        this.processingTimer = Timer.builder("statement.processing.duration")
+                .register(meterRegistry);
+    }
+
+    public Slot reserve(String userId) {
+        if (!tryAcquireUserSlot(userId)) {
+            userLimitRejections.increment();
+            logger.warn("Statement processing rejected, per-user limit reached: user={}", userId);
+            throw ProcessingRejectedException.userLimitReached();
+        }
+
+        if (!capacity.tryAcquire()) {
+            releaseUserSlot(userId);
+            capacityRejections.increment();
+            logger.warn("Statement processing rejected, pool at capacity: queued={}, active={}", executor.getQueue().size(), executor.getActiveCount());
+            throw ProcessingRejectedException.capacityReached();
+        }
+
+        return new Slot(userId);
+    }
+
+    // Background work (e.g. recovered jobs) only needs pool capacity, not a per-user slot
+    public Slot tryReserve() {
+        return capacity.tryAcquire() ? new Slot(null) : null;
+    }
+
+    public int availableCapacity() {
+        return capacity.availablePermits();
+    }
+
+    public void dispatch(Slot slot, Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    processingTimer.record(task);
+                } finally {
+                    slot.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slot.release();
+            logger.error("Statement processing task rejected after reservation for user: {}", slot.userId, e);
+            throw ProcessingRejectedException.capacityReached();
+        }
+    }
+
+    private boolean tryAcquireUserSlot(String userId) {
+        AtomicBoolean acquired = new AtomicBoolean(false);
+        slotsPerUser.compute(userId, (id, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConcurrentPerUser) {
+                return count;
+            }
+            acquired.set(true);
+            return current + 1;
+        });
+        return acquired.get();
+    }
+
+    private void releaseUserSlot(String userId) {
+        slotsPerUser.computeIfPresent(userId, (id, count) -> count <= 1 ? null : count - 1);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("Statement processing did not finish within {}s, interrupting workers", shutdownTimeoutSeconds);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public class Slot {
+        private final String userId;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Slot(String userId) {
+            this.userId = userId;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                capacity.release();
+                if (userId != null) {
+                    releaseUserSlot(userId);
+                }
+            }
+        }
+    }
+
+    private static class ProcessingThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "statement-processing-" + threadNumber.getAndIncrement());
+            thread.setDaemon(false);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.savo.backend.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live progress of statements being parsed on this node.
+ *
+ * Processing only writes its totals to statement_uploads once the whole statement is imported;
+ * the status endpoint reads in-flight progress from here instead.
+ */
+@Component
+public class StatementProcessingProgress {
+
+    private final ConcurrentHashMap<String, Progress> inFlight = new ConcurrentHashMap<>();
+
+    public Progress start(String uploadId, int totalPages) {
+        Progress progress = new Progress(totalPages);
+        inFlight.put(uploadId, progress);
+        return progress;
+    }
+
+    public void finish(String uploadId) {
+        inFlight.remove(uploadId);
+    }
+
+    public Optional<Progress> get(String uploadId) {
+        return Optional.ofNullable(inFlight.get(uploadId));
+    }
+
+    public static class Progress {
+        private final int totalPages;
+        private final AtomicInteger pagesProcessed = new AtomicInteger();
+        private final AtomicInteger transactionsProcessed = new AtomicInteger();
+
+        private Progress(int totalPages) {
+            this.totalPages = totalPages;
+        }
+
+        public void pageProcessed() {
+            pagesProcessed.incrementAndGet();
+        }
+
+        public void transactionsWritten(int count) {
+            transactionsProcessed.addAndGet(count);
+        }
+
+        public int getTotalPages() {
+            return totalPages;
+        }
+
+        public int getPagesProcessed() {
+            return pagesProcessed.get();
+        }
+
+        public int getTransactionsProcessed() {
+            return transactionsProcessed.get();
+        }
+    }
+}
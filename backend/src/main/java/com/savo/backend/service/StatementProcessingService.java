@@ -0,0 +1,46 @@
+package com.savo.backend.service;
+
+import com.savo.backend.exception.ValidationException;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.repository.StatementUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Imports the transactions of an uploaded statement for its processing job.
+ *
+ * No transaction spans the import: the file is streamed from storage and parsed with no connection held,
+ * each batch of rows commits on its own, and the upload and job are marked complete in a last short
+ * transaction. A retry after a failure part way skips the rows already committed by their fingerprint.
+ */
+@Service
+public class StatementProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementProcessingService.class);
+
+    private final StatementUploadRepository statementUploadRepository;
+    private final StatementParserService statementParserService;
+    private final StatementJobService statementJobService;
+
+    public StatementProcessingService(StatementUploadRepository statementUploadRepository, StatementParserService statementParserService,
+                                      StatementJobService statementJobService) {
+        this.statementUploadRepository = statementUploadRepository;
+        this.statementParserService = statementParserService;
+        this.statementJobService = statementJobService;
+    }
+
+    public void processStatement(String jobId, String uploadId) {
+        StatementUpload upload = statementUploadRepository.findWithUserAndBankAccountById(uploadId)
+                .orElseThrow(() -> new ValidationException("Upload not found"));
+
+        logger.info("Starting statement processing for upload: {}", uploadId);
+
+        statementParserService.parseAndSaveTransactions(upload);
+
+        // Fails if another replica took over the job meanwhile; the rows it wrote are skipped there as already imported
+        statementJobService.completeJob(jobId, uploadId, upload.getTotalTransactionsExtracted());
+
+        logger.info("Finished statement processing for upload: {}", uploadId);
+    }
+}
@@ -1,37 +1,46 @@
 package com.savo.backend.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.savo.backend.dto.statementupload.*;
+import com.savo.backend.enums.TransactionType;
 import com.savo.backend.enums.UploadStatus;
+import com.savo.backend.event.TransactionChangeEvent;
 import com.savo.backend.exception.ValidationException;
 import com.savo.backend.model.BankAccount;
 import com.savo.backend.model.StatementUpload;
 import com.savo.backend.model.User;
+import com.savo.backend.parser.ParsedStatement;
+import com.savo.backend.parser.StatementContent;
+import com.savo.backend.parser.StatementParserRegistry;
 import com.savo.backend.repository.BankAccountRepository;
+import com.savo.backend.repository.CategorisationFeedbackRepository;
 import com.savo.backend.repository.StatementUploadRepository;
+import com.savo.backend.repository.SubscriptionTransactionRepository;
 import com.savo.backend.repository.TransactionRepository;
 import com.savo.backend.repository.UserRepository;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -39,6 +48,11 @@ public class StatementUploadService {
 
     private static final Logger logger = LoggerFactory.getLogger(StatementUploadService.class);
 
+    private static final String DUPLICATE_UPLOAD_MESSAGE = "This statement has already been uploaded";
+    private static final String CONTENT_SHA256_CONSTRAINT = "uk_statement_upload_account_sha256";
+
+    private static final TypeReference<UploadHistoryPage> UPLOAD_HISTORY_PAGE = new TypeReference<>() {};
+
     private final StatementUploadRepository statementUploadRepository;
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
@@ -46,11 +60,28 @@ public class StatementUploadService {
     private final TransactionRepository transactionRepository;
     private final BankAccountService bankAccountService;
     private final BankDetectionService bankDetectionService;
-    private final StatementParserService statementParserService;
+    private final StatementExtractionService statementExtractionService;
+    private final StatementProcessingExecutor statementProcessingExecutor;
+    private final StatementJobService statementJobService;
+    private final StatementJobScheduler statementJobScheduler;
+    private final StatementParserRegistry statementParserRegistry;
+    private final StatementProcessingProgress statementProcessingProgress;
+    private final SpendingRollupService spendingRollupService;
+    private final CategorisationFeedbackRepository categorisationFeedbackRepository;
+    private final SubscriptionTransactionRepository subscriptionTransactionRepository;
+    private final SubscriptionDetectionService subscriptionDetectionService;
+    private final DistributedCache distributedCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public StatementUploadService(StatementUploadRepository statementUploadRepository, UserRepository userRepository, FileStorageService fileStorageService,
                                   BankAccountRepository bankAccountRepository, TransactionRepository transactionRepository, BankAccountService bankAccountService,
-                                  BankDetectionService bankDetectionService, StatementParserService statementParserService) {
+                                  BankDetectionService bankDetectionService, StatementExtractionService statementExtractionService,
+                                  StatementProcessingExecutor statementProcessingExecutor, StatementJobService statementJobService,
+                                  StatementJobScheduler statementJobScheduler, StatementParserRegistry statementParserRegistry,
+                                  StatementProcessingProgress statementProcessingProgress, SpendingRollupService spendingRollupService,
+                                  CategorisationFeedbackRepository categorisationFeedbackRepository,
+                                  SubscriptionTransactionRepository subscriptionTransactionRepository,
+                                  SubscriptionDetectionService subscriptionDetectionService, DistributedCache distributedCache, ApplicationEventPublisher eventPublisher) {
         this.statementUploadRepository = statementUploadRepository;
         this.userRepository = userRepository;
         this.fileStorageService = fileStorageService;
@@ -58,7 +89,18 @@ public class StatementUploadService {
         this.transactionRepository = transactionRepository;
         this.bankAccountService = bankAccountService;
         this.bankDetectionService = bankDetectionService;
-        this.statementParserService = statementParserService;
+        this.statementExtractionService = statementExtractionService;
+        this.statementProcessingExecutor = statementProcessingExecutor;
+        this.statementJobService = statementJobService;
+        this.statementJobScheduler = statementJobScheduler;
+        this.statementParserRegistry = statementParserRegistry;
+        this.statementProcessingProgress = statementProcessingProgress;
+        this.spendingRollupService = spendingRollupService;
+        this.categorisationFeedbackRepository = categorisationFeedbackRepository;
+        this.subscriptionTransactionRepository = subscriptionTransactionRepository;
+        this.subscriptionDetectionService = subscriptionDetectionService;
+        this.distributedCache = distributedCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public StatementUploadResponseDTO processStatementUpload(MultipartFile file, String userId) {
@@ -66,114 +108,111 @@ public class StatementUploadService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ValidationException("User not found"));
 
-        BankAccount bankAccount = bankDetectionService.detectAndResolveBankAccount(file, userId);
-
-        validateNoDuplicateUpload(file, bankAccount);
+        // Reject before any PDF or S3 work when the processing pool has no room
+        StatementProcessingExecutor.Slot slot = statementProcessingExecutor.reserve(userId);
 
-        String s3Key = fileStorageService.uploadFile(file, userId, "statements");
+        try {
+            StatementContent content = statementExtractionService.read(file);
 
-        StatementUpload upload = createStatementUpload(file, user, bankAccount, s3Key);
-        StatementUpload savedUpload = statementUploadRepository.save(upload);
+            // Exact re-upload: one indexed lookup before any PDF parsing or S3 work
+            if (statementUploadRepository.existsByUserIdAndContentSha256(userId, content.getSha256())) {
+                throw new ValidationException(DUPLICATE_UPLOAD_MESSAGE);
+            }
 
-        // Start background processing
-        processStatementAsync(savedUpload.getId());
+            // Just the leading pages: enough to resolve the account and period, independent of statement length
+            ParsedStatement statement = statementExtractionService.extractHeader(content);
 
-        return StatementUploadResponseDTO.from(savedUpload);
-    }
+            BankAccount bankAccount = bankDetectionService.detectAndResolveBankAccount(statement, userId);
 
-    private void validateNoDuplicateUpload(MultipartFile file, BankAccount bankAccount) {
-        try {
-            LocalDate[] period = extractStatementPeriod(file, bankAccount.getBankName());
+            LocalDate[] period = extractStatementPeriodSafely(statement, bankAccount.getBankName());
 
-            if (period != null && period.length == 2) {
-                LocalDate startDate = period[0];
-                LocalDate endDate = period[1];
+            String s3Key = fileStorageService.uploadFile(file, userId, "statements");
 
-                long existingTransactionCount = transactionRepository
-                        .countByBankAccountIdAndDateRange(bankAccount.getId(), startDate, endDate);
+            StatementUpload upload = createStatementUpload(file, user, bankAccount, s3Key, period);
+            upload.setContentSha256(content.getSha256());
+            StatementUpload savedUpload = saveNewUpload(upload);
+            distributedCache.evictUser(DistributedCache.UPLOAD_HISTORY, userId);
 
-                if (existingTransactionCount > 0) {
-                    List<TransactionSample> sampleTransactions = extractSampleTransactions(file, bankAccount.getBankName(), 5);
-                    boolean hasDuplicateTransactions = checkForDuplicateTransactions(sampleTransactions, bankAccount.getId());
+            // Start background processing
+            dispatchAfterCommit(slot, savedUpload);
 
-                    if (hasDuplicateTransactions) {
-                        throw new ValidationException(String.format(
-                                "Statement for period %s to %s contains transactions that already exist",
-                                startDate, endDate));
-                    }
+            return StatementUploadResponseDTO.from(savedUpload);
+        } catch (RuntimeException e) {
+            slot.release();
+            throw e;
+        }
+    }
 
-                    logger.warn("Period overlap detected but transaction differ: bankAccount={}, period={}-{}",
-                            bankAccount.getId(), startDate, endDate);
-                }
+    // Flushed here so an identical upload that raced past the pre-check fails on the unique key now, not at commit
+    private StatementUpload saveNewUpload(StatementUpload upload) {
+        try {
+            return statementUploadRepository.saveAndFlush(upload);
+        } catch (DataIntegrityViolationException e) {
+            fileStorageService.deleteFile(upload.getS3Key());
+            if (CONTENT_SHA256_CONSTRAINT.equals(violatedConstraint(e))) {
+                logger.info("Concurrent duplicate upload rejected: bankAccount={}", upload.getBankAccount().getId());
+                throw new ValidationException(DUPLICATE_UPLOAD_MESSAGE);
             }
-
-            validateBasicFileDuplicate(file, bankAccount);
-
-        } catch (ValidationException e) {
             throw e;
-        } catch (Exception e) {
-            logger.error("Failed to perform deep duplicate validation: {}", e.getMessage(), e);
-            validateBasicFileDuplicate(file, bankAccount);
         }
     }
 
-    private LocalDate[] extractStatementPeriod(MultipartFile file, String bankAccountName) throws IOException {
-        String pdfText = extractPDFText(file, 2);
-
-        Pattern periodPattern = null;
-        DateTimeFormatter dateFormatter = null;
-
-        switch (bankAccountName.toUpperCase()) {
-            case "DBS":
-                // "as at 31 Jul 2025"
-                periodPattern = Pattern.compile("as at (\\d{1,2}\\s+\\w{3}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
-                dateFormatter = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
-                break;
-
-            case "OCBC":
-                // "01 Jan 2024 TO 31 Jan 2024"
-                periodPattern = Pattern.compile("(\\d{1,2}\\s+\\w{3}\\s+\\d{4})\\s+TO\\s+(\\d{1,2}\\s+\\w{3}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
-                dateFormatter = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
-                break;
-
-            case "UOB":
-                // "Period: 01 Jan 2024 to 31 Jan 2024"
-                periodPattern = Pattern.compile("Period[:\\s]+(\\d{1,2}\\s+\\w{3}\\s+\\d{4})\\s+to\\s+(\\d{1,2}\\s+\\w{3}\\s+\\d{4})", Pattern.CASE_INSENSITIVE);
-                dateFormatter = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
-                break;
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName();
+            }
         }
+        return null;
+    }
 
-        if (periodPattern != null && dateFormatter != null) {
-            Matcher matcher = periodPattern.matcher(pdfText);
-
-            if (matcher.find()) {
-                try {
-                    if (bankAccountName.equalsIgnoreCase("DBS")) {
-                        LocalDate endDate = LocalDate.parse(matcher.group(1).trim(), dateFormatter);
-                        LocalDate startDate = endDate.withDayOfMonth(1);
-                        return new LocalDate[]{startDate, endDate};
-                    }
-                    LocalDate startDate = LocalDate.parse(matcher.group(1).trim(), dateFormatter);
-                    LocalDate endDate = LocalDate.parse(matcher.group(2).trim(), dateFormatter);
-                    return new LocalDate[]{startDate, endDate};
-                } catch (Exception e) {
-                    logger.warn("Failed to parse dates for bank {}: {}", bankAccountName, e.getMessage());
-                }
-            }
+    private LocalDate[] extractStatementPeriodSafely(ParsedStatement statement, String bankAccountName) {
+        try {
+            return extractStatementPeriod(statement, bankAccountName);
+        } catch (Exception e) {
+            logger.warn("Could not extract statement period: {}", e.getMessage());
+            return null;
         }
+    }
 
-        return null;
+    private LocalDate[] extractStatementPeriod(ParsedStatement statement, String bankAccountName) {
+        // Statement period is always printed within the first two pages
+        String pdfText = statement.getText(1, 2);
+
+        try {
+            return statementParserRegistry.forBank(bankAccountName).extractStatementPeriod(pdfText);
+        } catch (DateTimeParseException e) {
+            logger.warn("Failed to parse dates for bank {}: {}", bankAccountName, e.getMessage());
+            return null;
+        }
     }
 
     public UploadStatusResponseDTO getUploadStatus(String uploadId, String userId) {
         StatementUpload upload = statementUploadRepository.findByIdAndUserId(uploadId, userId)
                 .orElseThrow(() -> new ValidationException("Upload not found"));
 
-        return UploadStatusResponseDTO.from(upload);
+        UploadStatusResponseDTO dto = UploadStatusResponseDTO.from(upload);
+
+        // Rows written so far are uncommitted, so in-flight progress comes from the processing node
+        statementProcessingProgress.get(uploadId).ifPresent(progress -> {
+            dto.setTotalPages(progress.getTotalPages());
+            dto.setPagesProcessed(progress.getPagesProcessed());
+            dto.setTransactionsProcessed(progress.getTransactionsProcessed());
+        });
+
+        return dto;
     }
 
     public Page<UploadHistoryResponseDTO> getUploadHistory(String userId, Pageable pageable,
                                                            String bankName, String status) {
+        // Page itself cannot be read back from JSON, so the cache holds its content and total
+        String key = pageable + "|" + bankName + "|" + status;
+        UploadHistoryPage cached = distributedCache.get(DistributedCache.UPLOAD_HISTORY, userId, key, UPLOAD_HISTORY_PAGE,
+                () -> UploadHistoryPage.from(findUploadHistory(userId, pageable, bankName, status)));
+        return new PageImpl<>(cached.getContent(), pageable, cached.getTotalElements());
+    }
+
+    private Page<UploadHistoryResponseDTO> findUploadHistory(String userId, Pageable pageable, String bankName, String status) {
 
         Specification<StatementUpload> spec = (root, query, builder) ->
                 builder.equal(root.get("user").get("id"), userId);
@@ -214,14 +253,32 @@ public class StatementUploadService {
         try {
             // Delete associated transactions first
             if (upload.getUploadStatus() == UploadStatus.COMPLETED) {
+                Set<YearMonth> months = spendingRollupService.findMonthsForUpload(uploadId);
+                List<TransactionChangeEvent.Change> removed = transactionRepository.sumAmountsForUpload(uploadId).stream()
+                        .map(row -> new TransactionChangeEvent.Change((String) row[0], (LocalDate) row[1], (LocalTime) row[2],
+                                (TransactionType) row[3], ((BigDecimal) row[4]).negate(), -((Long) row[5]).intValue()))
+                        .toList();
+
+                List<String> debitMerchants = transactionRepository.findDebitMerchantKeysForUpload(uploadId);
+
+                categorisationFeedbackRepository.detachFromStatementUpload(uploadId);
+                subscriptionTransactionRepository.deleteByStatementUploadId(uploadId);
                 transactionRepository.deleteByStatementUploadId(uploadId);
+                transactionRepository.flush();
+                spendingRollupService.refresh(userId, upload.getBankAccount().getId(), months);
+                // Re-run detection on what is left, so subscriptions built from these charges update or lapse
+                subscriptionDetectionService.detectForMerchants(upload.getUser(), debitMerchants);
+                eventPublisher.publishEvent(new TransactionChangeEvent(userId, removed));
                 logger.info("Deleted transactions for upload: {}", uploadId);
             }
 
+            statementJobService.deleteJobForUpload(uploadId);
+
             // Delete file from S3
             fileStorageService.deleteFile(upload.getS3Key());
 
             statementUploadRepository.delete(upload);
+            distributedCache.evictUser(DistributedCache.UPLOAD_HISTORY, userId);
 
             logger.info("Successfully deleted upload: {}", uploadId);
 
@@ -245,159 +302,30 @@ public class StatementUploadService {
             throw new ValidationException("Original file no longer exists and cannot be retried");
         }
 
-        // Reset upload status and timestamps
-        upload.setUploadStatus(UploadStatus.PROCESSING);
-        upload.setProcessingStartedAt(LocalDateTime.now());
-        upload.setProcessingCompletedAt(null);
-        upload.setErrorMessage(null);
-        upload.setTotalTransactionsExtracted(null);
-
-        StatementUpload savedUpload = statementUploadRepository.save(upload);
-
-        // Start background processing
-        processStatementAsync(savedUpload.getId());
-
-        return StatementUploadResponseDTO.from(savedUpload);
-    }
-
-    private List<TransactionSample> extractSampleTransactions(MultipartFile file, String bankAccountName, int sampleSize) throws IOException {
-        String pdfText = extractPDFText(file, -1); // Read full document
-        List<TransactionSample> samples = new ArrayList<>();
-        int count = 0;
-
-        switch (bankAccountName.toUpperCase()) {
-            // TODO: Write correct transaction pattern and find year of transactions
-            case "DBS":
-                Pattern transactionPattern = Pattern.compile(
-                        "(\\d{2}/\\d{2}/\\d{4})\\s+(.+?)\\s+(\\d{1,3}(?:,\\d{3})*\\.\\d{2}|-)\\s+(\\d{1,3}(?:,\\d{3})*\\.\\d{2}|-)",
-                        Pattern.CASE_INSENSITIVE);
-
-                Matcher matcher = transactionPattern.matcher(pdfText);
-
-                while (matcher.find() && count < sampleSize) {
-                    try {
-                        // "Date: 01/08/2025"
-                        String fullDateStr = matcher.group(1);
-                        LocalDate date = LocalDate.parse(fullDateStr, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-
-                        String description = matcher.group(2);
-
-                        BigDecimal debit = matcher.group(3).equals("-") ? null : new BigDecimal(matcher.group(3).replace(",",""));
-                        BigDecimal credit = matcher.group(4).equals("-") ? null : new BigDecimal(matcher.group(4).replace(",", ""));
-
-                        BigDecimal amount = (debit != null) ? debit.negate() : (credit != null) ? credit : BigDecimal.ZERO;
-
-                        samples.add(new TransactionSample(date, description, amount));
-                        count++;
-                    } catch (Exception e) {
-                        logger.warn("Failed to parse DBS transaction line: {}", matcher.group(0));
-                    }
-                }
-
-                break;
-
-            case "OCBC":
-                int currentYear = LocalDate.now().getYear(); // fallback
-
-                try {
-                    Pattern periodPattern = Pattern.compile("(\\d{1,2}\\s+\\w{3}\\s+(\\d{4}))\\s+TO\\s+(\\d{1,2}\\s+\\w{3}\\s+(\\d{4}))", Pattern.CASE_INSENSITIVE);
-                    Matcher periodMatcher = periodPattern.matcher(pdfText);
-                    if (periodMatcher.find()) {
-                        currentYear = Integer.parseInt(periodMatcher.group(2)); // Start year
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to extract statement year for OCBC, defaulting to current year");
-                }
-
-                Pattern ocbcPattern = Pattern.compile(
-                        "(\\d{2}\\s+\\w{3})\\s+\\d{2}\\s+\\w{3}\\s+(.+?)\\s+\\S+\\s+(\\d{1,3}(?:,\\d{3})*\\.\\d{2}|-)\\s+(\\d{1,3}(?:,\\d{3})*\\.\\d{2}|-)",
-                        Pattern.CASE_INSENSITIVE);
-
-                Matcher ocbcMatcher = ocbcPattern.matcher(pdfText);
-
-                while (ocbcMatcher.find() && count < sampleSize) {
-                    try {
-                        String dateStr = ocbcMatcher.group(1) + " " + currentYear;
-                        LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH));
-
-                        String description = ocbcMatcher.group(2);
-
-                        BigDecimal withdrawal = ocbcMatcher.group(3).equals("-") ? null : new BigDecimal(ocbcMatcher.group(3).replace(",", ""));
-                        BigDecimal deposit = ocbcMatcher.group(4).equals("-") ? null : new BigDecimal(ocbcMatcher.group(4).replace(",", ""));
-
-                        BigDecimal amount = (withdrawal != null) ? withdrawal.negate() : (deposit != null) ? deposit : BigDecimal.ZERO;
-
-                        samples.add(new TransactionSample(date, description, amount));
-                        count++;
-                    } catch (Exception e) {
-                        logger.warn("Failed to parse OCBC transaction line: {}", ocbcMatcher.group(0));
-                    }
-                }
-                break;
-
-            case "UOB":
-                Pattern uobPattern = Pattern.compile(
-                        "(\\d{2}/\\d{2}/\\d{4})\\s+" +
-                                "(\\d{2}/\\d{2}/\\d{4})\\s+" +
-                                "(\\d{2}/\\d{2}/\\d{4}\\s+d{2}:\\d{2}:\\d{2}\\s+[AP]M)\\s+" +
-                                "(.+?)\\s+" +
-                                "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})\\s+" +
-                                "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})\\s+" +
-                                "(\\d{1,3}(?:,\\d{3})*\\.\\d{2})"
-                );
-                Matcher uobMatcher = uobPattern.matcher(pdfText);
-
-                while (uobMatcher.find() && count < sampleSize) {
-                    try {
-                        String dateStr = uobMatcher.group(1);
-                        LocalDate date = LocalDate.parse(dateStr, DateTimeFormatter.ofPattern("dd/MM/yyyy", Locale.ENGLISH));
-
-                        String description = uobMatcher.group(4);
-
-                        BigDecimal deposit = uobMatcher.group(5).equals("-") ? null : new BigDecimal(uobMatcher.group(5).replace(",", ""));
-                        BigDecimal withdrawal = uobMatcher.group(6).equals("-") ? null : new BigDecimal(uobMatcher.group(6).replace(",", ""));
-
-                        BigDecimal amount = (withdrawal != null) ? withdrawal.negate() : (deposit != null) ? deposit : BigDecimal.ZERO;
-
-                        samples.add(new TransactionSample(date, description, amount));
-                        count++;
-                    } catch (Exception e) {
-                        logger.warn("Failed to parse UOB transaction line: {}", uobMatcher.group(0));
-                    }
-                }
-                break;
-        }
-
-        return samples;
-    }
-
-    private boolean checkForDuplicateTransactions(List<TransactionSample> samples, String bankAccountId) {
-        for (TransactionSample sample : samples) {
-            boolean exists = transactionRepository.existsByBankAccountIdAndDateAndDescriptionAndAmount(
-                    bankAccountId, sample.getDate(), sample.getDescription(), sample.getAmount());
+        StatementProcessingExecutor.Slot slot = statementProcessingExecutor.reserve(userId);
 
-            if (exists) {
-                logger.info("Found duplicate transaction: date={}, description={}, amount={}", sample.getDate(), sample.getDescription(), sample.getAmount());
-                return true;
-            }
-        }
-        return false;
-    }
-
-    // Fallback validation
-    private void validateBasicFileDuplicate(MultipartFile file, BankAccount bankAccount) {
-        String fileName = file.getOriginalFilename();
-        long fileSize = file.getSize();
-
-        boolean basicDuplicate = statementUploadRepository
-                .existsByBankAccountIdAndFileNameAndFileSize(bankAccount.getId(), fileName, fileSize);
-
-        if (basicDuplicate) {
-            throw new ValidationException("A file with the same name and size has already been uploaded");
+        try {
+            // Reset upload status and timestamps
+            upload.setUploadStatus(UploadStatus.PROCESSING);
+            upload.setProcessingStartedAt(LocalDateTime.now());
+            upload.setProcessingCompletedAt(null);
+            upload.setErrorMessage(null);
+            upload.setTotalTransactionsExtracted(null);
+
+            StatementUpload savedUpload = statementUploadRepository.save(upload);
+            distributedCache.evictUser(DistributedCache.UPLOAD_HISTORY, userId);
+
+            // Start background processing
+            dispatchAfterCommit(slot, savedUpload);
+
+            return StatementUploadResponseDTO.from(savedUpload);
+        } catch (RuntimeException e) {
+            slot.release();
+            throw e;
         }
     }
 
-    private StatementUpload createStatementUpload(MultipartFile file, User user, BankAccount bankAccount, String s3Key) {
+    private StatementUpload createStatementUpload(MultipartFile file, User user, BankAccount bankAccount, String s3Key, LocalDate[] period) {
         StatementUpload upload = new StatementUpload();
         upload.setUser(user);
         upload.setBankAccount(bankAccount);
@@ -408,58 +336,64 @@ public class StatementUploadService {
         upload.setProcessingStartedAt(LocalDateTime.now());
         upload.setCreatedAt(LocalDateTime.now());
 
-        try {
-            LocalDate[] period = extractStatementPeriod(file, bankAccount.getBankName());
-            if (period != null && period.length == 2) {
-                upload.setStatementPeriodStart(period[0]);
-                upload.setStatementPeriodEnd(period[1]);
-            }
-        } catch (Exception e) {
-            logger.warn("Could not extract statement period during upload creation", e);
+        if (period != null && period.length == 2) {
+            upload.setStatementPeriodStart(period[0]);
+            upload.setStatementPeriodEnd(period[1]);
         }
 
         return upload;
     }
 
-    @Async
-    public void processStatementAsync(String uploadId) {
-        try {
-            StatementUpload upload = statementUploadRepository.findById(uploadId)
-                    .orElseThrow(() -> new ValidationException("Upload not found"));
+    // The job row commits with the upload, so a crash before or during processing is recovered by the reaper.
+    // Workers only start once the commit is visible; a rollback gives the slot back.
+    private void dispatchAfterCommit(StatementProcessingExecutor.Slot slot, StatementUpload upload) {
+        String jobId = statementJobService.startJob(upload).getId();
+        String uploadId = upload.getId();
 
-            logger.info("Starting statement processing for upload: {}", uploadId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statementJobScheduler.dispatch(slot, jobId, uploadId);
+            return;
+        }
 
-            statementParserService.parseAndSaveTransactions(upload);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    statementJobScheduler.dispatch(slot, jobId, uploadId);
+                } else {
+                    slot.release();
+                }
+            }
+        });
+    }
 
-            upload.setUploadStatus(UploadStatus.COMPLETED);
-            upload.setProcessingCompletedAt(LocalDateTime.now());
-            statementUploadRepository.save(upload);
+    public static class UploadHistoryPage {
+        private List<UploadHistoryResponseDTO> content;
+        private long totalElements;
 
-            logger.info("Finished statement processing for upload: {}", uploadId);
-        } catch (Exception e) {
-            logger.error("Statement processing failed for upload: {}", uploadId, e);
-            updateUploadStatus(uploadId, UploadStatus.FAILED, e.getMessage());
+        public UploadHistoryPage() {}
+
+        static UploadHistoryPage from(Page<UploadHistoryResponseDTO> page) {
+            UploadHistoryPage cached = new UploadHistoryPage();
+            cached.setContent(page.getContent());
+            cached.setTotalElements(page.getTotalElements());
+            return cached;
         }
-    }
 
-    private void updateUploadStatus(String uploadId, UploadStatus status, String errorMessage) {
-        statementUploadRepository.findById(uploadId).ifPresent(upload -> {
-            upload.setUploadStatus(status);
-            upload.setErrorMessage(errorMessage);
-            upload.setProcessingCompletedAt(LocalDateTime.now());
-            statementUploadRepository.save(upload);
-        });
-    }
+        public List<UploadHistoryResponseDTO> getContent() {
+            return content;
+        }
 
-    private String extractPDFText(MultipartFile file, int maxPages) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper stripper = new PDFTextStripper();
+        public void setContent(List<UploadHistoryResponseDTO> content) {
+            this.content = content;
+        }
 
-            if (maxPages > 0) {
-                stripper.setEndPage(Math.min(maxPages, document.getNumberOfPages()));
-            }
+        public long getTotalElements() {
+            return totalElements;
+        }
 
-            return stripper.getText(document);
+        public void setTotalElements(long totalElements) {
+            this.totalElements = totalElements;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,222 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.BillingCycle;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Subscription;
+import com.savo.backend.model.SubscriptionTransaction;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.repository.SubscriptionRepository;
+import com.savo.backend.repository.SubscriptionTransactionRepository;
+import com.savo.backend.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Finds recurring payments among a user's debits and records them as subscriptions.
+ *
+ * Runs per import over only the merchants that import touched: each merchant's recent debits
+ * are reduced to the charges near its typical amount, and the gaps between them are matched
+ * against a billing cycle. Matches are upserted as a Subscription, unique per user and merchant key,
+ * with the charges linked through SubscriptionTransaction and flagged on the transaction itself.
+ */
+@Service
+public class SubscriptionDetectionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubscriptionDetectionService.class);
+
+    // Long enough to see three yearly charges
+    private static final int HISTORY_MONTHS = 36;
+
+    // Charges within this fraction of the median amount count as the same plan
+    private static final BigDecimal AMOUNT_TOLERANCE = new BigDecimal("0.10");
+
+    private static final double MIN_CONFIDENCE = 0.6;
+
+    private final TransactionRepository transactionRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionTransactionRepository subscriptionTransactionRepository;
+
+    public SubscriptionDetectionService(TransactionRepository transactionRepository, SubscriptionRepository subscriptionRepository,
+                                        SubscriptionTransactionRepository subscriptionTransactionRepository) {
+        this.transactionRepository = transactionRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionTransactionRepository = subscriptionTransactionRepository;
+    }
+
+    @Transactional
+    public int detectForMerchants(User user, Collection<String> merchantKeys) {
+        if (merchantKeys.isEmpty()) {
+            return 0;
+        }
+
+        LocalDate since = LocalDate.now().minusMonths(HISTORY_MONTHS);
+        Map<String, List<Transaction>> byMerchant = transactionRepository
+                .findDebitsForMerchants(user.getId(), merchantKeys, since).stream()
+                .collect(Collectors.groupingBy(Transaction::getMerchantKey, LinkedHashMap::new, Collectors.toList()));
+
+        int detected = 0;
+        // Merchants with no debits left (e.g. after an upload is deleted) still run, so their subscription lapses
+        for (String merchantKey : merchantKeys) {
+            if (detect(user, merchantKey, byMerchant.getOrDefault(merchantKey, List.of()))) {
+                detected++;
+            }
+        }
+
+        logger.debug("Subscription detection: user={}, merchants={}, detected={}", user.getId(), merchantKeys.size(), detected);
+        return detected;
+    }
+
+    private boolean detect(User user, String merchantKey, List<Transaction> debits) {
+        List<Transaction> charges = chargesNearMedian(debits);
+        Cadence cadence = charges.size() >= 2 ? Cadence.of(charges) : null;
+
+        double confidence = cadence != null && charges.size() >= cadence.cycle.minCharges ? cadence.confidence(charges) : 0.0;
+
+        if (confidence < MIN_CONFIDENCE) {
+            Subscription existing = subscriptionRepository.findByUserIdAndServiceName(user.getId(), merchantKey).orElse(null);
+            if (existing != null && existing.isActive()) {
+                existing.setActive(false);
+                logger.info("Subscription no longer recurring: user={}, merchant={}", user.getId(), merchantKey);
+            }
+            return false;
+        }
+
+        Transaction latest = charges.get(charges.size() - 1);
+        LocalDate nextBillingDate = cadence.cycle.next(latest.getTransactionDate());
+
+        // Insert-then-lock: concurrent imports of the same merchant would otherwise both see no subscription and insert one
+        if (subscriptionRepository.insertIfAbsent(UUID.randomUUID().toString(), user.getId(), merchantKey, latest.getAmount(),
+                cadence.cycle.billingCycle.name(), nextBillingDate, user.getCurrency(), latest.getCategory().getId()) == 1) {
+            logger.info("Subscription detected: user={}, merchant={}, cycle={}", user.getId(), merchantKey, cadence.cycle.billingCycle);
+        }
+        Subscription subscription = subscriptionRepository.findForUpdate(user.getId(), merchantKey)
+                .orElseThrow(() -> new IllegalStateException("Subscription missing after insert: user=" + user.getId() + ", merchant=" + merchantKey));
+        subscription.setAmount(latest.getAmount());
+        subscription.setBillingCycle(cadence.cycle.billingCycle);
+        subscription.setNextBillingDate(nextBillingDate);
+        subscription.setLastTransactionDate(latest.getTransactionDate().atStartOfDay());
+        subscription.setDetectionConfidence(confidence);
+        // Lapsed once a full cycle passes without the expected charge
+        subscription.setActive(!LocalDate.now().isAfter(cadence.cycle.next(nextBillingDate)));
+        subscription.setBankAccounts(new ArrayList<>(charges.stream()
+                .map(Transaction::getBankAccount)
+                .collect(Collectors.toMap(BankAccount::getId, account -> account, (a, b) -> a, LinkedHashMap::new))
+                .values()));
+        subscription = subscriptionRepository.save(subscription);
+
+        for (Transaction charge : charges) {
+            if (charge.getLinkedSubscription() != null && subscription.getId().equals(charge.getLinkedSubscription().getId())) {
+                continue;
+            }
+            LocalDate periodStart = charge.getTransactionDate();
+            subscriptionTransactionRepository.save(new SubscriptionTransaction(subscription, charge,
+                    periodStart, cadence.cycle.next(periodStart).minusDays(1)));
+
+            charge.setSubscription(subscription);
+            charge.setSubscription(true);
+            charge.setRecurrencePattern(cadence.cycle.billingCycle.name());
+        }
+        return true;
+    }
+
+    // Keeps the charges within tolerance of the median amount, oldest first
+    private List<Transaction> chargesNearMedian(List<Transaction> debits) {
+        if (debits.isEmpty()) {
+            return List.of();
+        }
+        List<BigDecimal> amounts = debits.stream().map(Transaction::getAmount).sorted().toList();
+        BigDecimal median = amounts.get(amounts.size() / 2);
+        BigDecimal tolerance = median.multiply(AMOUNT_TOLERANCE).max(BigDecimal.ONE);
+
+        return debits.stream()
+                .filter(debit -> debit.getAmount().subtract(median).abs().compareTo(tolerance) <= 0)
+                .sorted(Comparator.comparing(Transaction::getTransactionDate))
+                .toList();
+    }
+
+    private enum Cycle {
+        MONTHLY(BillingCycle.Monthly, 30.44, 5, 3),
+        QUARTERLY(BillingCycle.Quarterly, 91.31, 10, 3),
+        YEARLY(BillingCycle.Yearly, 365.25, 15, 2);
+
+        private final BillingCycle billingCycle;
+        private final double expectedDays;
+        private final int toleranceDays;
+        private final int minCharges;
+
+        Cycle(BillingCycle billingCycle, double expectedDays, int toleranceDays, int minCharges) {
+            this.billingCycle = billingCycle;
+            this.expectedDays = expectedDays;
+            this.toleranceDays = toleranceDays;
+            this.minCharges = minCharges;
+        }
+
+        LocalDate next(LocalDate date) {
+            return switch (this) {
+                case MONTHLY -> date.plusMonths(1);
+                case QUARTERLY -> date.plusMonths(3);
+                case YEARLY -> date.plusYears(1);
+            };
+        }
+
+        boolean matches(long gapDays) {
+            return Math.abs(gapDays - expectedDays) <= toleranceDays;
+        }
+    }
+
+    private static class Cadence {
+        private final Cycle cycle;
+        private final List<Long> gaps;
+
+        private Cadence(Cycle cycle, List<Long> gaps) {
+            this.cycle = cycle;
+            this.gaps = gaps;
+        }
+
+        // Picks the cycle matching the median gap between consecutive charges
+        static Cadence of(List<Transaction> charges) {
+            List<Long> gaps = new ArrayList<>(charges.size() - 1);
+            for (int i = 1; i < charges.size(); i++) {
+                gaps.add(ChronoUnit.DAYS.between(charges.get(i - 1).getTransactionDate(), charges.get(i).getTransactionDate()));
+            }
+
+            long medianGap = gaps.stream().sorted().toList().get(gaps.size() / 2);
+            for (Cycle cycle : Cycle.values()) {
+                if (cycle.matches(medianGap)) {
+                    return new Cadence(cycle, gaps);
+                }
+            }
+            return null;
+        }
+
+        // Share of on-cycle gaps, amount stability and number of charges, weighted towards cadence
+        double confidence(List<Transaction> charges) {
+            double onCycle = gaps.stream().filter(cycle::matches).count() / (double) gaps.size();
+
+            BigDecimal min = charges.stream().map(Transaction::getAmount).min(Comparator.naturalOrder()).orElseThrow();
+            BigDecimal max = charges.stream().map(Transaction::getAmount).max(Comparator.naturalOrder()).orElseThrow();
+            double amountStability = max.signum() == 0 ? 1.0
+                    : 1.0 - max.subtract(min).divide(max, 4, RoundingMode.HALF_UP).doubleValue();
+
+            double history = Math.min(1.0, charges.size() / 6.0);
+
+            return Math.round((0.5 * onCycle + 0.3 * amountStability + 0.2 * history) * 100) / 100.0;
+        }
+    }
+}
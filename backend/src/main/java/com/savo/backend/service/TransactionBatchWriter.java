@@ -0,0 +1,196 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.event.TransactionChangeEvent;
+import com.savo.backend.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert path for transactions parsed from a statement.
+ *
+ * Ids are generated client-side and each batch is written as a single INSERT over unnest()ed
+ * column arrays, so an import costs one round trip per batch instead of one per row. A call joins the
+ * caller's transaction, or commits on its own, with the listeners of its event, when there is none.
+ * Rows bypass the persistence context: entity callbacks do not run and the written Transaction
+ * objects are not managed afterwards.
+ *
+ * Rows whose fingerprint is already stored are skipped, so overlapping statements merge:
+ * one bulk lookup per batch filters known rows, and ON CONFLICT DO NOTHING covers concurrent imports.
+ * The insert returns the ids it actually wrote, and only those rows are counted and published as a
+ * TransactionChangeEvent, since entity listeners never see these rows.
+ */
+@Component
+public class TransactionBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionBatchWriter.class);
+
+    // One row per array index; every column is sent as text and cast here
+    private static final String INSERT_SQL = "INSERT INTO transactions (" +
+            "id, user_id, bank_account_id, statement_upload_id, transaction_date, description, amount, " +
+            "transaction_type, balance_after, merchant_name, category_id, category_confidence, " +
+            "is_manually_categorized, time_of_day, day_of_week, is_weekend, is_subscription, " +
+            "recurrence_pattern, merchant_key, fingerprint, created_at, updated_at" +
+            ") SELECT * FROM unnest(" +
+            "?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::text[]::date[], ?::varchar[], ?::text[]::numeric[], " +
+            "?::varchar[], ?::text[]::numeric[], ?::varchar[], ?::varchar[], ?::text[]::float8[], " +
+            "?::text[]::boolean[], ?::text[]::time[], ?::text[]::integer[], ?::text[]::boolean[], ?::text[]::boolean[], " +
+            "?::varchar[], ?::varchar[], ?::varchar[], ?::text[]::timestamp[], ?::text[]::timestamp[]" +
+            ") ON CONFLICT DO NOTHING RETURNING id";
+
+    private static final int COLUMNS = 22;
+
+    private static final String EXISTING_FINGERPRINTS_SQL = "SELECT fingerprint FROM transactions WHERE fingerprint = ANY(?)";
+
+    // Keeps batches in index order so consecutive rows land on neighbouring pages
+    private static final Comparator<Transaction> INSERT_ORDER = Comparator
+            .comparing(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    private final Counter rowsWritten;
+    private final Timer writeTimer;
+
+    public TransactionBatchWriter(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+                                  StatementProcessingProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = properties.getInsertBatchSize();
+
+        this.rowsWritten = Counter.builder("statement.import.rows")
+                .description("Transactions inserted by statement imports")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("statement.import.write.duration")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public int writeAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+
+        Set<String> existing = findExistingFingerprints(transactions);
+        List<Transaction> ordered = transactions.stream()
+                .filter(transaction -> transaction.getFingerprint() == null || !existing.contains(transaction.getFingerprint()))
+                .sorted(INSERT_ORDER)
+                .toList();
+        if (ordered.isEmpty()) {
+            logger.debug("Skipped {} transactions already imported", transactions.size());
+            return 0;
+        }
+        for (Transaction transaction : ordered) {
+            if (transaction.getId() == null) {
+                transaction.setId(UUID.randomUUID().toString());
+            }
+        }
+
+        List<Transaction> inserted = new ArrayList<>(ordered.size());
+        int batches = 0;
+        for (int from = 0; from < ordered.size(); from += batchSize) {
+            inserted.addAll(insertBatch(ordered.subList(from, Math.min(from + batchSize, ordered.size()))));
+            batches++;
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        writeTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        rowsWritten.increment(inserted.size());
+
+        double seconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        logger.debug("Inserted {} transactions in {} batches, skipped {} already imported: took={}ms, rate={} rows/sec",
+                inserted.size(), batches, transactions.size() - inserted.size(), elapsedNanos / 1_000_000, Math.round(inserted.size() / seconds));
+
+        if (!inserted.isEmpty()) {
+            eventPublisher.publishEvent(TransactionChangeEvent.added(inserted.get(0).getUser().getId(), inserted));
+        }
+
+        return inserted.size();
+    }
+
+    // Returns the rows the database actually wrote; rows lost to a concurrent import's conflict are left out
+    private List<Transaction> insertBatch(List<Transaction> batch) {
+        String[][] columns = new String[COLUMNS][batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            Transaction transaction = batch.get(i);
+            columns[0][i] = transaction.getId();
+            columns[1][i] = transaction.getUser().getId();
+            columns[2][i] = transaction.getBankAccount().getId();
+            columns[3][i] = transaction.getStatementUpload() != null ? transaction.getStatementUpload().getId() : null;
+            columns[4][i] = transaction.getTransactionDate().toString();
+            columns[5][i] = transaction.getDescription();
+            columns[6][i] = transaction.getAmount().toPlainString();
+            columns[7][i] = transaction.getTransactionType().name();
+            columns[8][i] = transaction.getBalanceAfter() != null ? transaction.getBalanceAfter().toPlainString() : null;
+            columns[9][i] = transaction.getMerchantName();
+            columns[10][i] = transaction.getCategory().getId();
+            columns[11][i] = text(transaction.getCategoryConfidence());
+            columns[12][i] = String.valueOf(Boolean.TRUE.equals(transaction.getManuallyCategorized()));
+            columns[13][i] = text(transaction.getTimeOfDay());
+            columns[14][i] = text(transaction.getDayOfWeek());
+            columns[15][i] = text(transaction.getWeekend());
+            columns[16][i] = text(transaction.getSubscription());
+            columns[17][i] = transaction.getRecurrencePattern();
+            columns[18][i] = transaction.getMerchantKey();
+            columns[19][i] = transaction.getFingerprint();
+            columns[20][i] = transaction.getCreatedAt().toString();
+            columns[21][i] = text(transaction.getUpdatedAt());
+        }
+
+        Set<String> insertedIds = new HashSet<>(jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+            for (int column = 0; column < COLUMNS; column++) {
+                ps.setArray(column + 1, connection.createArrayOf("varchar", columns[column]));
+            }
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+
+        if (insertedIds.size() == batch.size()) {
+            return batch;
+        }
+        return batch.stream().filter(transaction -> insertedIds.contains(transaction.getId())).toList();
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private Set<String> findExistingFingerprints(List<Transaction> transactions) {
+        Object[] fingerprints = transactions.stream()
+                .map(Transaction::getFingerprint)
+                .filter(Objects::nonNull)
+                .toArray();
+        if (fingerprints.length == 0) {
+            return Set.of();
+        }
+
+        List<String> existing = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXISTING_FINGERPRINTS_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", fingerprints));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1));
+
+        return new HashSet<>(existing);
+    }
+}
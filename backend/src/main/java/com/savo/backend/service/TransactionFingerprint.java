@@ -0,0 +1,53 @@
+package com.savo.backend.service;
+
+import com.savo.backend.model.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Assigns import fingerprints to the rows of one statement.
+ *
+ * A fingerprint is the SHA-256 of bank account, date, normalised description, type and amount,
+ * plus an occurrence number: the second identical coffee on the same day is a different
+ * transaction, while the same two rows in an overlapping statement map to the same fingerprints.
+ * Not thread-safe; use one instance per import.
+ */
+public class TransactionFingerprint {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MessageDigest digest;
+    private final Map<String, Integer> occurrences = new HashMap<>();
+
+    public TransactionFingerprint() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String assign(Transaction transaction) {
+        String key = String.join("|",
+                transaction.getBankAccount().getId(),
+                transaction.getTransactionDate().toString(),
+                WHITESPACE.matcher(transaction.getDescription().trim()).replaceAll(" ").toUpperCase(Locale.ROOT),
+                transaction.getTransactionType().name(),
+                transaction.getAmount().stripTrailingZeros().toPlainString());
+
+        int occurrence = occurrences.merge(key, 1, Integer::sum);
+
+        byte[] hash = digest.digest((key + "|" + occurrence).getBytes(StandardCharsets.UTF_8));
+        String fingerprint = HexFormat.of().formatHex(hash);
+        transaction.setFingerprint(fingerprint);
+        return fingerprint;
+    }
+}
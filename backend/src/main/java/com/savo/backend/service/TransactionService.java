@@ -1,15 +1,19 @@
 package com.savo.backend.service;
 
+import com.savo.backend.dto.transaction.SpendingSummaryDTO;
 import com.savo.backend.dto.transaction.TransactionCreateDTO;
+import com.savo.backend.dto.transaction.TransactionFilterDTO;
+import com.savo.backend.dto.transaction.TransactionPageResponseDTO;
 import com.savo.backend.dto.transaction.TransactionResponseDTO;
 import com.savo.backend.dto.transaction.TransactionUpdateDTO;
 
-import java.util.List;
+import java.time.YearMonth;
 
 public interface TransactionService {
     TransactionResponseDTO createTransaction(String userId, TransactionCreateDTO dto);
-    List<TransactionResponseDTO> getUserTransactions(String userId);
+    TransactionPageResponseDTO getUserTransactions(String userId, TransactionFilterDTO filter, String cursor, int limit);
     TransactionResponseDTO getTransaction(String userId, String transactionId);
     TransactionResponseDTO updateTransaction(String userId, String transactionId, TransactionUpdateDTO dto);
     void deleteTransaction(String userId, String transactionId);
+    SpendingSummaryDTO getSpendingSummary(String userId, YearMonth fromMonth, YearMonth toMonth);
 }
@@ -1,5 +1,6 @@
 package com.savo.backend.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.savo.backend.dto.bankaccount.BankAccountCreateDTO;
 import com.savo.backend.dto.bankaccount.BankAccountResponseDTO;
 import com.savo.backend.dto.bankaccount.BankAccountUpdateDTO;
@@ -8,6 +9,7 @@ import com.savo.backend.model.User;
 import com.savo.backend.repository.BankAccountRepository;
 import com.savo.backend.repository.UserRepository;
 import com.savo.backend.service.BankAccountService;
+import com.savo.backend.service.DistributedCache;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
@@ -22,10 +24,14 @@ public class BankAccountServiceImpl implements BankAccountService {
 
     private final BankAccountRepository bankAccountRepository;
     private final UserRepository userRepository;
+    private final DistributedCache distributedCache;
 
-    public BankAccountServiceImpl(BankAccountRepository bankAccountRepository, UserRepository userRepository) {
+    private static final TypeReference<List<BankAccountResponseDTO>> BANK_ACCOUNT_LIST = new TypeReference<>() {};
+
+    public BankAccountServiceImpl(BankAccountRepository bankAccountRepository, UserRepository userRepository, DistributedCache distributedCache) {
         this.bankAccountRepository = bankAccountRepository;
         this.userRepository = userRepository;
+        this.distributedCache = distributedCache;
     }
 
     @Override
@@ -47,6 +53,7 @@ public class BankAccountServiceImpl implements BankAccountService {
         bankAccount.setCreatedAt(LocalDateTime.now());
 
         BankAccount saved = bankAccountRepository.save(bankAccount);
+        distributedCache.evictUser(DistributedCache.BANK_ACCOUNTS, userId);
 
         return BankAccountResponseDTO.from(saved);
     }
@@ -63,11 +70,13 @@ public class BankAccountServiceImpl implements BankAccountService {
     @Override
     @Transactional(readOnly = true)
     public List<BankAccountResponseDTO> getUserBankAccounts(String userId) {
-        List<BankAccount> bankAccounts = bankAccountRepository.findByUserIdAndIsActiveTrue(userId);
+        return distributedCache.get(DistributedCache.BANK_ACCOUNTS, userId, "active", BANK_ACCOUNT_LIST, () -> {
+            List<BankAccount> bankAccounts = bankAccountRepository.findByUserIdAndIsActiveTrue(userId);
 
-        return bankAccounts.stream()
-                .map(BankAccountResponseDTO::from)
-                .collect(Collectors.toList());
+            return bankAccounts.stream()
+                    .map(BankAccountResponseDTO::from)
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
@@ -86,6 +95,7 @@ public class BankAccountServiceImpl implements BankAccountService {
         existingAccount.setUpdatedAt(LocalDateTime.now());
 
         BankAccount updated = bankAccountRepository.save(existingAccount);
+        distributedCache.evictUser(DistributedCache.BANK_ACCOUNTS, userId);
         return BankAccountResponseDTO.from(updated);
     }
 
@@ -97,6 +107,7 @@ public class BankAccountServiceImpl implements BankAccountService {
         account.setActive(false);
         account.setUpdatedAt(LocalDateTime.now());
         bankAccountRepository.save(account);
+        distributedCache.evictUser(DistributedCache.BANK_ACCOUNTS, userId);
 
         return BankAccountResponseDTO.from(account);
     }
@@ -109,6 +120,7 @@ public class BankAccountServiceImpl implements BankAccountService {
         account.setActive(true);
         account.setUpdatedAt(LocalDateTime.now());
         bankAccountRepository.save(account);
+        distributedCache.evictUser(DistributedCache.BANK_ACCOUNTS, userId);
 
         return BankAccountResponseDTO.from(account);
     }
@@ -1,5 +1,6 @@
 package com.savo.backend.service.impl;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.savo.backend.dto.category.CategoryUpdateDTO;
 import com.savo.backend.enums.BudgetPeriod;
 import com.savo.backend.dto.category.CategoryCreateDTO;
@@ -8,7 +9,10 @@ import com.savo.backend.model.Category;
 import com.savo.backend.model.User;
 import com.savo.backend.repository.CategoryRepository;
 import com.savo.backend.repository.UserRepository;
+import com.savo.backend.service.CategoryResolutionCache;
 import com.savo.backend.service.CategoryService;
+import com.savo.backend.service.DistributedCache;
+import com.savo.backend.service.MerchantCategoryOverrides;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Service;
@@ -22,10 +26,19 @@ public class CategoryServiceImpl implements CategoryService {
 
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final CategoryResolutionCache categoryResolutionCache;
+    private final MerchantCategoryOverrides merchantCategoryOverrides;
+    private final DistributedCache distributedCache;
 
-    public CategoryServiceImpl(CategoryRepository categoryRepository, UserRepository userRepository) {
+    private static final TypeReference<List<CategoryResponseDTO>> CATEGORY_LIST = new TypeReference<>() {};
+
+    public CategoryServiceImpl(CategoryRepository categoryRepository, UserRepository userRepository, CategoryResolutionCache categoryResolutionCache,
+                               MerchantCategoryOverrides merchantCategoryOverrides, DistributedCache distributedCache) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.categoryResolutionCache = categoryResolutionCache;
+        this.merchantCategoryOverrides = merchantCategoryOverrides;
+        this.distributedCache = distributedCache;
     }
 
     @Override
@@ -54,20 +67,24 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category savedCategory = categoryRepository.save(category);
+        categoryResolutionCache.evict(userId);
+        distributedCache.evictUser(DistributedCache.CATEGORIES, userId);
         return CategoryResponseDTO.from(savedCategory);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponseDTO> getAllCategoriesForUser(String userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException("User not found with id: " + userId);
-        }
-
-        List<Category> categories = categoryRepository.findAllAvaliableForUser(userId);
-        return categories.stream()
-                .map(CategoryResponseDTO::from)
-                .collect(Collectors.toList());
+        return distributedCache.get(DistributedCache.CATEGORIES, userId, "all", CATEGORY_LIST, () -> {
+            if (!userRepository.existsById(userId)) {
+                throw new EntityNotFoundException("User not found with id: " + userId);
+            }
+
+            List<Category> categories = categoryRepository.findAllAvaliableForUser(userId);
+            return categories.stream()
+                    .map(CategoryResponseDTO::from)
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
@@ -87,27 +104,31 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponseDTO> getIncomeCategoriesForUser(String userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException("User not found with id: " + userId);
-        }
-
-        List<Category> incomeCategories = categoryRepository.findIncomeCategories(userId);
-        return incomeCategories.stream()
-                .map(CategoryResponseDTO::from)
-                .collect(Collectors.toList());
+        return distributedCache.get(DistributedCache.CATEGORIES, userId, "income", CATEGORY_LIST, () -> {
+            if (!userRepository.existsById(userId)) {
+                throw new EntityNotFoundException("User not found with id: " + userId);
+            }
+
+            List<Category> incomeCategories = categoryRepository.findIncomeCategories(userId);
+            return incomeCategories.stream()
+                    .map(CategoryResponseDTO::from)
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponseDTO> getExpenseCategoriesForUser(String userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException("User not found with id: " + userId);
-        }
-
-        List<Category> expenseCategories = categoryRepository.findExpenseCategories(userId);
-        return expenseCategories.stream()
-                .map(CategoryResponseDTO::from)
-                .collect(Collectors.toList());
+        return distributedCache.get(DistributedCache.CATEGORIES, userId, "expense", CATEGORY_LIST, () -> {
+            if (!userRepository.existsById(userId)) {
+                throw new EntityNotFoundException("User not found with id: " + userId);
+            }
+
+            List<Category> expenseCategories = categoryRepository.findExpenseCategories(userId);
+            return expenseCategories.stream()
+                    .map(CategoryResponseDTO::from)
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
@@ -172,6 +193,9 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         Category updatedCategory = categoryRepository.save(category);
+        evictCachedCategory(category);
+        // Overrides only point at active categories, see CategorisationFeedbackRepository.findMerchantCorrections
+        merchantCategoryOverrides.evict(userId);
         return CategoryResponseDTO.from(updatedCategory);
     }
 
@@ -181,5 +205,16 @@ public class CategoryServiceImpl implements CategoryService {
                 .orElseThrow(() -> new EntityNotFoundException("Category not found with id: " + categoryId));
 
         categoryRepository.delete(category);
+        evictCachedCategory(category);
+        merchantCategoryOverrides.evict(userId);
+    }
+
+    private void evictCachedCategory(Category category) {
+        categoryResolutionCache.evict(category.getUser() != null ? category.getUser().getId() : null);
+        if (category.getUser() != null) {
+            distributedCache.evictUser(DistributedCache.CATEGORIES, category.getUser().getId());
+        } else {
+            distributedCache.evictAll(DistributedCache.CATEGORIES);
+        }
     }
 }
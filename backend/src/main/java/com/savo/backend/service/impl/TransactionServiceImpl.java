@@ -1,40 +1,83 @@
 package com.savo.backend.service.impl;
 
+import com.savo.backend.dto.transaction.CategorySpendingDTO;
+import com.savo.backend.dto.transaction.SpendingSummaryDTO;
 import com.savo.backend.dto.transaction.TransactionCreateDTO;
+import com.savo.backend.dto.transaction.TransactionCursor;
+import com.savo.backend.dto.transaction.TransactionFilterDTO;
+import com.savo.backend.dto.transaction.TransactionPageResponseDTO;
 import com.savo.backend.dto.transaction.TransactionResponseDTO;
 import com.savo.backend.dto.transaction.TransactionUpdateDTO;
+import com.savo.backend.enums.FeedbackType;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.event.TransactionChangeEvent;
+import com.savo.backend.exception.ValidationException;
 import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.CategorisationFeedback;
 import com.savo.backend.model.Category;
 import com.savo.backend.model.Transaction;
 import com.savo.backend.model.User;
 import com.savo.backend.repository.BankAccountRepository;
+import com.savo.backend.repository.CategorisationFeedbackRepository;
 import com.savo.backend.repository.CategoryRepository;
+import com.savo.backend.repository.MonthlySpendingRollupRepository;
+import com.savo.backend.repository.SubscriptionTransactionRepository;
 import com.savo.backend.repository.TransactionRepository;
 import com.savo.backend.repository.UserRepository;
+import com.savo.backend.service.MerchantCategoryOverrides;
+import com.savo.backend.service.MerchantKey;
+import com.savo.backend.service.SpendingRollupService;
+import com.savo.backend.service.SubscriptionDetectionService;
 import com.savo.backend.service.TransactionService;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "transactionDate", "createdAt", "id");
+
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final BankAccountRepository bankAccountRepository;
     private final CategoryRepository categoryRepository;
+    private final MonthlySpendingRollupRepository monthlySpendingRollupRepository;
+    private final SpendingRollupService spendingRollupService;
+    private final CategorisationFeedbackRepository categorisationFeedbackRepository;
+    private final MerchantCategoryOverrides merchantCategoryOverrides;
+    private final SubscriptionTransactionRepository subscriptionTransactionRepository;
+    private final SubscriptionDetectionService subscriptionDetectionService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TransactionServiceImpl(TransactionRepository transactionRepository, UserRepository userRepository, BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository, UserRepository userRepository, BankAccountRepository bankAccountRepository, CategoryRepository categoryRepository,
+                                  MonthlySpendingRollupRepository monthlySpendingRollupRepository, SpendingRollupService spendingRollupService,
+                                  CategorisationFeedbackRepository categorisationFeedbackRepository, MerchantCategoryOverrides merchantCategoryOverrides,
+                                  SubscriptionTransactionRepository subscriptionTransactionRepository,
+                                  SubscriptionDetectionService subscriptionDetectionService, ApplicationEventPublisher eventPublisher) {
         this.transactionRepository = transactionRepository;
         this.userRepository = userRepository;
         this.bankAccountRepository = bankAccountRepository;
         this.categoryRepository = categoryRepository;
+        this.monthlySpendingRollupRepository = monthlySpendingRollupRepository;
+        this.spendingRollupService = spendingRollupService;
+        this.categorisationFeedbackRepository = categorisationFeedbackRepository;
+        this.merchantCategoryOverrides = merchantCategoryOverrides;
+        this.subscriptionTransactionRepository = subscriptionTransactionRepository;
+        this.subscriptionDetectionService = subscriptionDetectionService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -56,6 +99,7 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setCategory(category);
         transaction.setTransactionType(dto.getTransactionType());
         transaction.setMerchantName(dto.getMerchantName());
+        transaction.setMerchantKey(MerchantKey.of(dto.getMerchantName()));
 
         // Use merchant name if description not provided
         transaction.setDescription(dto.getMerchantName());
@@ -64,18 +108,100 @@ public class TransactionServiceImpl implements TransactionService {
         transaction.setManuallyCategorized(true);
         transaction.setCategoryConfidence(1.0);
 
-        Transaction savedTransaction = transactionRepository.save(transaction);
+        Transaction savedTransaction = transactionRepository.saveAndFlush(transaction);
+        spendingRollupService.add(savedTransaction);
+        eventPublisher.publishEvent(TransactionChangeEvent.added(userId, List.of(savedTransaction)));
         return TransactionResponseDTO.from(savedTransaction);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<TransactionResponseDTO> getUserTransactions(String userId) {
-        List<Transaction> transactions = transactionRepository.findByUserIdOrderByTransactionDateDesc(userId);
+    public TransactionPageResponseDTO getUserTransactions(String userId, TransactionFilterDTO filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<Transaction> spec = buildFilterSpec(userId, filter);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(after(TransactionCursor.decode(cursor)));
+        }
+
+        // One extra row tells us whether another page exists without a count query;
+        // account and category are fetched in the same select since every row is mapped with them
+        List<Transaction> transactions = transactionRepository.findBy(spec, query -> query
+                .sortBy(KEYSET_ORDER)
+                .project("bankAccount", "category")
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> page = hasMore ? transactions.subList(0, pageSize) : transactions;
 
-        return transactions.stream()
+        List<TransactionResponseDTO> items = page.stream()
                 .map(TransactionResponseDTO::from)
                 .collect(Collectors.toList());
+        String nextCursor = hasMore ? TransactionCursor.encode(page.get(page.size() - 1)) : null;
+
+        return new TransactionPageResponseDTO(items, nextCursor);
+    }
+
+    private Specification<Transaction> buildFilterSpec(String userId, TransactionFilterDTO filter) {
+        Specification<Transaction> spec = (root, query, builder) ->
+                builder.equal(root.get("user").get("id"), userId);
+
+        if (filter == null) {
+            return spec;
+        }
+
+        if (filter.getStartDate() != null) {
+            spec = spec.and((root, query, builder) -> builder.greaterThanOrEqualTo(root.get("transactionDate"), filter.getStartDate()));
+        }
+
+        if (filter.getEndDate() != null) {
+            spec = spec.and((root, query, builder) -> builder.lessThanOrEqualTo(root.get("transactionDate"), filter.getEndDate()));
+        }
+
+        if (filter.getTransactionType() != null) {
+            spec = spec.and((root, query, builder) -> builder.equal(root.get("transactionType"), filter.getTransactionType()));
+        }
+
+        if (filter.getCategoryId() != null && !filter.getCategoryId().isBlank()) {
+            spec = spec.and((root, query, builder) -> builder.equal(root.get("category").get("id"), filter.getCategoryId()));
+        }
+
+        if (filter.getBankAccountId() != null && !filter.getBankAccountId().isBlank()) {
+            spec = spec.and((root, query, builder) -> builder.equal(root.get("bankAccount").get("id"), filter.getBankAccountId()));
+        }
+
+        if (filter.getMinAmount() != null) {
+            spec = spec.and((root, query, builder) -> builder.greaterThanOrEqualTo(root.get("amount"), filter.getMinAmount()));
+        }
+
+        if (filter.getMaxAmount() != null) {
+            spec = spec.and((root, query, builder) -> builder.lessThanOrEqualTo(root.get("amount"), filter.getMaxAmount()));
+        }
+
+        if (filter.getMerchant() != null && !filter.getMerchant().isBlank()) {
+            String pattern = "%" + filter.getMerchant().trim().toLowerCase() + "%";
+            spec = spec.and((root, query, builder) -> builder.like(builder.lower(root.get("merchantName")), pattern));
+        }
+
+        return spec;
+    }
+
+    // Rows strictly after the cursor in (transactionDate, createdAt, id) descending order.
+    // The redundant transactionDate <= bound is what lets PostgreSQL turn this into a range on idx_transactions_user_keyset;
+    // the OR chain alone is only applied as a filter, so deep pages would rescan every newer row.
+    private Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, builder) -> builder.and(
+                builder.lessThanOrEqualTo(root.get("transactionDate"), cursor.getTransactionDate()),
+                builder.or(
+                        builder.lessThan(root.get("transactionDate"), cursor.getTransactionDate()),
+                        builder.and(
+                                builder.equal(root.get("transactionDate"), cursor.getTransactionDate()),
+                                builder.lessThan(root.get("createdAt"), cursor.getCreatedAt())),
+                        builder.and(
+                                builder.equal(root.get("transactionDate"), cursor.getTransactionDate()),
+                                builder.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                                builder.lessThan(root.get("id"), cursor.getId()))));
     }
 
     @Override
@@ -92,6 +218,9 @@ public class TransactionServiceImpl implements TransactionService {
         Transaction existingTransaction = transactionRepository.findByUserIdAndId(userId, transactionId)
                 .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + transactionId));
 
+        YearMonth previousMonth = YearMonth.from(existingTransaction.getTransactionDate());
+        TransactionChangeEvent.Change previous = TransactionChangeEvent.Change.removed(existingTransaction);
+
         if (dto.getAmount() != null) {
             existingTransaction.setAmount(dto.getAmount());
         }
@@ -111,18 +240,31 @@ public class TransactionServiceImpl implements TransactionService {
 
         if (dto.getMerchantName() != null) {
             existingTransaction.setMerchantName(dto.getMerchantName());
+            existingTransaction.setMerchantKey(MerchantKey.of(dto.getMerchantName()));
         }
 
         if (dto.getCategoryId() != null) {
             Category category = categoryRepository.findById(dto.getCategoryId())
                     .orElseThrow(() -> new EntityNotFoundException("Category not found"));
+
+            String originalCategoryId = previous.getCategoryId();
+            if (!category.getId().equals(originalCategoryId)) {
+                // Recorded against the merchant so future imports from it land in the corrected category
+                categorisationFeedbackRepository.save(new CategorisationFeedback(existingTransaction.getUser(), existingTransaction,
+                        originalCategoryId, category.getId(), FeedbackType.MANUAL_CORRECTION));
+                merchantCategoryOverrides.put(userId, existingTransaction.getMerchantKey(), category.getId());
+            }
             existingTransaction.setCategory(category);
 
             existingTransaction.setCategoryConfidence(1.0);
             existingTransaction.setManuallyCategorized(true);
         }
 
-        Transaction updatedTransaction = transactionRepository.save(existingTransaction);
+        Transaction updatedTransaction = transactionRepository.saveAndFlush(existingTransaction);
+        spendingRollupService.refresh(userId, updatedTransaction.getBankAccount().getId(),
+                Set.of(previousMonth, YearMonth.from(updatedTransaction.getTransactionDate())));
+        eventPublisher.publishEvent(new TransactionChangeEvent(userId,
+                List.of(previous, TransactionChangeEvent.Change.added(updatedTransaction))));
         return TransactionResponseDTO.from(updatedTransaction);
     }
 
@@ -135,7 +277,37 @@ public class TransactionServiceImpl implements TransactionService {
             throw new IllegalStateException("Cannot delete transaction imported from bank statement. Please contact support.");
         }
 
+        categorisationFeedbackRepository.detachFromTransaction(transactionId);
+        subscriptionTransactionRepository.deleteByTransactionId(transactionId);
         transactionRepository.delete(transaction);
+        transactionRepository.flush();
+        spendingRollupService.refresh(userId, transaction.getBankAccount().getId(), Set.of(YearMonth.from(transaction.getTransactionDate())));
+        if (transaction.getLinkedSubscription() != null) {
+            subscriptionDetectionService.detectForMerchants(transaction.getUser(), List.of(transaction.getLinkedSubscription().getServiceName()));
+        }
+        eventPublisher.publishEvent(new TransactionChangeEvent(userId, List.of(TransactionChangeEvent.Change.removed(transaction))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SpendingSummaryDTO getSpendingSummary(String userId, YearMonth fromMonth, YearMonth toMonth) {
+        if (fromMonth.isAfter(toMonth)) {
+            throw new ValidationException("fromMonth must not be after toMonth");
+        }
+
+        LocalDate from = SpendingRollupService.monthStart(fromMonth);
+        LocalDate to = SpendingRollupService.monthStart(toMonth);
+
+        SpendingSummaryDTO summary = new SpendingSummaryDTO();
+        summary.setFromMonth(fromMonth);
+        summary.setToMonth(toMonth);
+        summary.setTotalSpending(monthlySpendingRollupRepository.sumAmountByUserIdAndTransactionType(userId, TransactionType.Debit, from, to));
+        summary.setTotalIncome(monthlySpendingRollupRepository.sumAmountByUserIdAndTransactionType(userId, TransactionType.Credit, from, to));
+        summary.setCategories(monthlySpendingRollupRepository.getSpendingByCategoryForPeriod(userId, from, to).stream()
+                .map(CategorySpendingDTO::from)
+                .collect(Collectors.toList()));
+
+        return summary;
     }
 
     private void setPatternRecognitionData(Transaction transaction) {
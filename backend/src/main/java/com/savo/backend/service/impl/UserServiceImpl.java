@@ -2,9 +2,10 @@ package com.savo.backend.service.impl;
 
 import com.savo.backend.model.User;
 import com.savo.backend.repository.UserRepository;
+import com.savo.backend.service.PasswordHashingExecutor;
 import com.savo.backend.service.UserService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -17,11 +18,11 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashing;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordHashingExecutor passwordHashing) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
     }
 
     // OAuth Method
@@ -70,8 +71,11 @@ public class UserServiceImpl implements UserService {
     }
 
     // Traditional Login Method
+    // Password methods run without a surrounding transaction: each repository call commits on its own,
+    // so no database connection is held while waiting on the hashing pool
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createLocalUser(String email, String username, String password,
                                 String firstName, String lastName) {
 
@@ -88,7 +92,7 @@ public class UserServiceImpl implements UserService {
         user.setId(UUID.randomUUID().toString());
         user.setEmail(email);
         user.setUsername(username);
-        user.setPasswordHash(passwordEncoder.encode(password));
+        user.setPasswordHash(passwordHashing.encode(password));
         user.setFirstName(firstName);
         user.setLastName(lastName);
         user.setProvider("local");
@@ -102,6 +106,7 @@ public class UserServiceImpl implements UserService {
     // Authenticate local user
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<User> authenticateLocalUser(String emailOrUsername, String password) {
         // Try to find by email first, then username
         Optional<User> userOptional = userRepository.findByEmail(emailOrUsername);
@@ -115,7 +120,12 @@ public class UserServiceImpl implements UserService {
             // Only authenticate local users
             if ("local".equals(user.getProvider()) &&
                 user.getPasswordHash() != null &&
-                passwordEncoder.matches(password, user.getPasswordHash())) {
+                passwordHashing.matches(password, user.getPasswordHash())) {
+
+                // Re-hash at the current cost while we still have the plaintext
+                if (passwordHashing.upgradeEncoding(user.getPasswordHash())) {
+                    user.setPasswordHash(passwordHashing.encode(password));
+                }
 
                 user.setUpdatedAt(LocalDateTime.now());
                 userRepository.save(user);
@@ -179,8 +189,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean changePassword(String id, String currentPassword, String newPassword) {
-        User user =  findById(id)
+        User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User with id " + id + " not found"));
 
         // Only local users can change password
@@ -189,11 +200,11 @@ public class UserServiceImpl implements UserService {
         }
 
         // Verify current password
-        if (!passwordEncoder.matches(currentPassword, user.getPasswordHash())) {
+        if (!passwordHashing.matches(currentPassword, user.getPasswordHash())) {
             return false;
         }
 
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
+        user.setPasswordHash(passwordHashing.encode(newPassword));
         user.setUpdatedAt(LocalDateTime.now());
         userRepository.save(user);
         return true;
@@ -0,0 +1,139 @@
+package com.savo.backend.repository;
+
+import com.savo.backend.enums.FeedbackType;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.CategorisationFeedback;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Deleting a corrected transaction, alone or with its upload, keeps the correction on PostgreSQL with its
+ * foreign key cleared, so the merchant override compiled from it survives.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CategorisationFeedbackRepositoryTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private CategorisationFeedbackRepository categorisationFeedbackRepository;
+    @Autowired private TransactionRepository transactionRepository;
+
+    private User user;
+    private BankAccount account;
+    private Category groceries;
+    private Category dining;
+    private StatementUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("user@example.com", "Ada", "Lovelace"));
+        account = new BankAccount(user, "DBS", "Savings", "****0001");
+        account.setActive(true);
+        entityManager.persist(account);
+        groceries = category("Groceries");
+        dining = category("Food & Dining");
+
+        upload = new StatementUpload();
+        upload.setUser(user);
+        upload.setBankAccount(account);
+        upload.setFileName("statement.pdf");
+        upload.setFileSize(1024L);
+        upload.setContentSha256("sha");
+        upload.setS3Key("statements/1");
+        entityManager.persist(upload);
+    }
+
+    @Test
+    void deletedTransactionKeepsItsCorrection() {
+        Transaction corrected = transaction("ya kun", null);
+        CategorisationFeedback feedback = correct(corrected);
+
+        categorisationFeedbackRepository.detachFromTransaction(corrected.getId());
+        transactionRepository.deleteById(corrected.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(entityManager.find(CategorisationFeedback.class, feedback.getId()).getTransaction());
+        assertMerchantCorrection("ya kun");
+    }
+
+    @Test
+    void deletedUploadKeepsTheCorrectionsOfItsTransactions() {
+        Transaction imported = transaction("ya kun", upload);
+        Transaction manual = transaction("toast box", null);
+        CategorisationFeedback importedFeedback = correct(imported);
+        CategorisationFeedback manualFeedback = correct(manual);
+
+        categorisationFeedbackRepository.detachFromStatementUpload(upload.getId());
+        transactionRepository.deleteByStatementUploadId(upload.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(entityManager.find(CategorisationFeedback.class, importedFeedback.getId()).getTransaction());
+        assertNotNull(entityManager.find(CategorisationFeedback.class, manualFeedback.getId()).getTransaction());
+        assertEquals(2, categorisationFeedbackRepository.findMerchantCorrections(user.getId()).size());
+    }
+
+    private void assertMerchantCorrection(String merchantKey) {
+        List<Object[]> corrections = categorisationFeedbackRepository.findMerchantCorrections(user.getId());
+        assertEquals(1, corrections.size());
+        assertArrayEquals(new Object[] {merchantKey, dining.getId()}, corrections.get(0));
+    }
+
+    private CategorisationFeedback correct(Transaction transaction) {
+        CategorisationFeedback feedback = entityManager.persist(new CategorisationFeedback(user, transaction,
+                groceries.getId(), dining.getId(), FeedbackType.MANUAL_CORRECTION));
+        entityManager.flush();
+        // The services delete without loading feedback, so the bulk update has no managed copy to go stale
+        entityManager.clear();
+        return feedback;
+    }
+
+    private Transaction transaction(String merchantKey, StatementUpload statementUpload) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setBankAccount(account);
+        transaction.setStatementUpload(statementUpload);
+        transaction.setCategory(dining);
+        transaction.setTransactionDate(LocalDate.of(2025, 3, 1));
+        transaction.setDescription(merchantKey.toUpperCase());
+        transaction.setMerchantName(merchantKey.toUpperCase());
+        transaction.setMerchantKey(merchantKey);
+        transaction.setAmount(new BigDecimal("6.40"));
+        transaction.setTransactionType(TransactionType.Debit);
+        return entityManager.persist(transaction);
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setActive(true);
+        return entityManager.persist(category);
+    }
+}
@@ -0,0 +1,132 @@
+package com.savo.backend.repository;
+
+import com.savo.backend.dto.statementupload.UploadHistoryResponseDTO;
+import com.savo.backend.dto.transaction.TransactionPageResponseDTO;
+import com.savo.backend.dto.transaction.TransactionResponseDTO;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.service.MerchantCategoryOverrides;
+import com.savo.backend.service.SpendingRollupService;
+import com.savo.backend.service.SubscriptionDetectionService;
+import com.savo.backend.service.impl.TransactionServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Response DTOs read lazy associations, so each of these reads must fetch them in the same select
+ * rather than one more per row.
+ */
+@DataJpaTest
+@Import(TransactionServiceImpl.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EntityGraphQueryCountTest {
+
+    private static final int ROWS = 5;
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TransactionRepository transactionRepository;
+    @Autowired private StatementUploadRepository statementUploadRepository;
+    @Autowired private TransactionServiceImpl transactionService;
+
+    @MockitoBean private SpendingRollupService spendingRollupService;
+    @MockitoBean private MerchantCategoryOverrides merchantCategoryOverrides;
+    @MockitoBean private SubscriptionDetectionService subscriptionDetectionService;
+
+    private User user;
+    private Transaction transaction;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("user@example.com", "Ada", "Lovelace"));
+
+        // A separate account and category per row, so lazy loading would cost one select each
+        for (int i = 0; i < ROWS; i++) {
+            BankAccount account = new BankAccount(user, "DBS", "Savings", "****000" + i);
+            account.setActive(true);
+            entityManager.persist(account);
+
+            Category category = new Category();
+            category.setName("Category " + i);
+            category.setUser(user);
+            entityManager.persist(category);
+
+            transaction = new Transaction();
+            transaction.setUser(user);
+            transaction.setBankAccount(account);
+            transaction.setCategory(category);
+            transaction.setTransactionDate(LocalDate.of(2025, 1, 1 + i));
+            transaction.setDescription("Purchase " + i);
+            transaction.setMerchantName("Merchant " + i);
+            transaction.setAmount(new BigDecimal("10.00"));
+            transaction.setTransactionType(TransactionType.Debit);
+            entityManager.persist(transaction);
+
+            StatementUpload upload = new StatementUpload();
+            upload.setUser(user);
+            upload.setBankAccount(account);
+            upload.setFileName("statement-" + i + ".pdf");
+            upload.setFileSize(1024L);
+            upload.setContentSha256("sha-" + i);
+            upload.setS3Key("statements/" + i);
+            entityManager.persist(upload);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void transactionListingLoadsAccountsAndCategoriesInOneSelect() {
+        TransactionPageResponseDTO page = transactionService.getUserTransactions(user.getId(), null, null, 50);
+
+        assertEquals(ROWS, page.getTransactions().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void singleTransactionLoadsAccountAndCategoryInOneSelect() {
+        Transaction found = transactionRepository.findByUserIdAndId(user.getId(), transaction.getId()).orElseThrow();
+        TransactionResponseDTO.from(found);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void uploadHistoryLoadsAccountsWithTheRows() {
+        Specification<StatementUpload> spec = (root, query, builder) -> builder.equal(root.get("user").get("id"), user.getId());
+        List<UploadHistoryResponseDTO> history = statementUploadRepository
+                .findAll(spec, PageRequest.of(0, 2 * ROWS, Sort.by("createdAt")))
+                .map(UploadHistoryResponseDTO::from)
+                .getContent();
+
+        assertEquals(ROWS, history.size());
+        // Everything fits on the first page, so no count query is needed either
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,95 @@
+package com.savo.backend.security;
+
+import com.savo.backend.repository.UserRepository;
+import com.savo.backend.service.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authentication cost of one API request carrying a bearer token. filterRepeatedToken is the common case of
+ * a client reusing its token; verifyFirstSight is a token the cache has not seen; twoParsesWithRebuiltKey is
+ * what the filter did before: rebuild the HMAC key and parse the token twice. Run from backend/ after
+ * mvn test-compile:
+ *
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.savo.backend.security.JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private String secret;
+    private String token;
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.existsById(Mockito.anyString())).thenReturn(true);
+
+        JwtService jwtService = new JwtService(SECRET, 86_400_000);
+        secret = SECRET;
+        token = jwtService.generateToken("user-1", "user@example.com");
+        filter = new JwtAuthenticationFilter(jwtService, new UserStatusCache(userRepository));
+
+        request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object filterRepeatedToken() throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+
+    // A fresh service each time, so the token is always a cache miss
+    @Benchmark
+    public Object verifyFirstSight() {
+        return new JwtService(secret, 86_400_000).verify(token).orElseThrow().getUserId();
+    }
+
+    @Benchmark
+    public Object twoParsesWithRebuiltKey() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build()
+                .parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8))).build()
+                .parseClaimsJws(token).getBody().getSubject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthenticationFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.savo.backend.security;
+
+import com.savo.backend.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import org.apache.catalina.filters.RemoteIpFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Login buckets behind a load balancer. Tomcat's RemoteIpFilter stands in for the valve that
+ * server.forward-headers-strategy=native installs, with its default trusted proxy ranges.
+ */
+class RateLimitFilterTest {
+
+    private static final String BALANCER = "10.0.0.5";
+
+    private final RemoteIpFilter remoteIpFilter = new RemoteIpFilter();
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        remoteIpFilter.init(new MockFilterConfig());
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(
+                new RateLimitProperties.Rule("login", "POST", "/api/v1/auth/login", RateLimitProperties.Scope.IP, 2, 1)));
+        rateLimitFilter = new RateLimitFilter(properties, new InMemoryRateLimiter());
+    }
+
+    @Test
+    void clientsBehindTheBalancerGetTheirOwnBuckets() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, login(BALANCER, "203.0.113.7"));
+        }
+        assertEquals(429, login(BALANCER, "203.0.113.7"));
+
+        // Another client through the same balancer is not locked out
+        assertEquals(200, login(BALANCER, "198.51.100.20"));
+    }
+
+    @Test
+    void forwardedHeaderFromAnUntrustedPeerIsIgnored() throws Exception {
+        assertEquals(200, login("203.0.113.7", "198.51.100.1"));
+        assertEquals(200, login("203.0.113.7", "198.51.100.2"));
+
+        // Rotating a forged X-Forwarded-For does not buy a fresh bucket
+        assertEquals(429, login("203.0.113.7", "198.51.100.3"));
+    }
+
+    private int login(String peer, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/auth/login");
+        request.setRemoteAddr(peer);
+        request.addHeader("X-Forwarded-For", forwardedFor);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain application = (req, res) -> { };
+        remoteIpFilter.doFilter(request, response,
+                (forwarded, res) -> rateLimitFilter.doFilter(forwarded, res, application));
+        return response.getStatus();
+    }
+}
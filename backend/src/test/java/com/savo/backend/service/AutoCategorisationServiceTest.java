@@ -0,0 +1,227 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.repository.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the compiled keyword automaton picks the same category as the per-keyword String.contains scan it
+ * replaced, including which category wins when several clear the threshold or score the same.
+ */
+class AutoCategorisationServiceTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final CategoryResolutionCache categoryResolutionCache = mock(CategoryResolutionCache.class);
+    private final MerchantCategoryOverrides merchantCategoryOverrides = mock(MerchantCategoryOverrides.class);
+    private final CategorisationModelRegistry categorisationModelRegistry = mock(CategorisationModelRegistry.class);
+
+    private AutoCategorisationService service;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.existsByNameAndUserIdIsNull(anyString())).thenReturn(true);
+        when(merchantCategoryOverrides.findCategoryId(any(), any())).thenReturn(Optional.empty());
+        when(categorisationModelRegistry.predict(any(), any(), any())).thenReturn(Optional.empty());
+        when(categoryResolutionCache.findSystemCategory(anyString())).thenAnswer(invocation -> {
+            Category category = new Category();
+            category.setName(invocation.getArgument(0));
+            return Optional.of(category);
+        });
+
+        service = new AutoCategorisationService(categoryRepository, categoryResolutionCache, merchantCategoryOverrides,
+                categorisationModelRegistry, mock(DistributedCache.class));
+    }
+
+    @Test
+    void everySingleKeywordPicksTheSameCategory() {
+        for (String[] keywords : AutoCategorisationService.CATEGORY_KEYWORDS.values()) {
+            for (String keyword : keywords) {
+                assertSameCategory(keyword, "12.50", TransactionType.Debit);
+                assertSameCategory("SALARY " + keyword, "3000.00", TransactionType.Credit);
+            }
+        }
+    }
+
+    @Test
+    void textsMatchingSeveralCategoriesPickTheSameWinner() {
+        List<String> categories = new ArrayList<>(AutoCategorisationService.CATEGORY_KEYWORDS.keySet());
+
+        // Every keyword of two or three categories: several scores clear the threshold, so the scan order decides
+        for (int first = 0; first < categories.size(); first++) {
+            for (int second = first + 1; second < categories.size(); second++) {
+                String pair = allKeywords(categories.get(first)) + " " + allKeywords(categories.get(second));
+                assertSameCategory(pair, "42.00", TransactionType.Debit);
+
+                for (int third = second + 1; third < categories.size(); third++) {
+                    assertSameCategory(pair + " " + allKeywords(categories.get(third)), "42.00", TransactionType.Debit);
+                }
+            }
+        }
+    }
+
+    @Test
+    void tiedScoresKeepTheFirstCategoryInMapOrder() {
+        List<String> categories = new ArrayList<>(AutoCategorisationService.CATEGORY_KEYWORDS.keySet());
+        Random random = new Random(11);
+        int ties = 0;
+
+        // Keyword weights are multiples of 0.1, so random subsets of two equally sized categories often tie exactly
+        for (String first : categories) {
+            for (String second : categories) {
+                String[] firstKeywords = AutoCategorisationService.CATEGORY_KEYWORDS.get(first);
+                String[] secondKeywords = AutoCategorisationService.CATEGORY_KEYWORDS.get(second);
+                if (first.equals(second) || firstKeywords.length != secondKeywords.length) {
+                    continue;
+                }
+
+                for (int i = 0; i < 500; i++) {
+                    // Second category's keywords first, so text order cannot be what breaks the tie
+                    String text = randomSubset(secondKeywords, random) + " " + randomSubset(firstKeywords, random);
+                    double firstScore = referenceScore(text, first);
+                    if (firstScore > 0.5 && firstScore == referenceScore(text, second) && isTopScore(text, firstScore)) {
+                        assertSameCategory(text, "42.00", TransactionType.Debit);
+                        ties++;
+                    }
+                }
+            }
+        }
+
+        assertTrue(ties > 0, "no tied texts generated");
+    }
+
+    @Test
+    void randomKeywordMixesPickTheSameCategory() {
+        List<String> keywords = new ArrayList<>();
+        for (String[] categoryKeywords : AutoCategorisationService.CATEGORY_KEYWORDS.values()) {
+            keywords.addAll(List.of(categoryKeywords));
+        }
+
+        Random random = new Random(7);
+        String[] amounts = {"3.00", "15.00", "80.00", "250.00", "900.00"};
+        for (int i = 0; i < 3_000; i++) {
+            StringBuilder text = new StringBuilder("POS ");
+            int parts = 1 + random.nextInt(40);
+            for (int part = 0; part < parts; part++) {
+                text.append(keywords.get(random.nextInt(keywords.size()))).append(' ');
+            }
+            TransactionType type = random.nextInt(5) == 0 ? TransactionType.Credit : TransactionType.Debit;
+            assertSameCategory(text.toString(), amounts[random.nextInt(amounts.length)], type);
+        }
+    }
+
+    private void assertSameCategory(String description, String amount, TransactionType type) {
+        Transaction transaction = new Transaction();
+        User user = new User();
+        user.setId("user-1");
+        transaction.setUser(user);
+        transaction.setDescription(description);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTransactionType(type);
+
+        assertEquals(referenceCategory(description, new BigDecimal(amount), type),
+                service.autoCategoriseTransaction(transaction).getName(), description);
+    }
+
+    private static String randomSubset(String[] keywords, Random random) {
+        List<String> subset = new ArrayList<>();
+        for (String keyword : keywords) {
+            if (random.nextInt(4) != 0) {
+                subset.add(keyword);
+            }
+        }
+        return String.join(" ", subset);
+    }
+
+    private static boolean isTopScore(String text, double score) {
+        for (String category : AutoCategorisationService.CATEGORY_KEYWORDS.keySet()) {
+            if (!category.equals("Salary") && !category.equals("Investment") && referenceScore(text, category) > score) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String allKeywords(String category) {
+        return String.join(" ", AutoCategorisationService.CATEGORY_KEYWORDS.get(category));
+    }
+
+    // The nested scan the automaton replaced, kept verbatim as the reference
+    private static String referenceCategory(String description, BigDecimal amount, TransactionType type) {
+        String fullText = (description.toUpperCase() + " " + null).toUpperCase();
+        Map<String, String[]> categoryKeywords = AutoCategorisationService.CATEGORY_KEYWORDS;
+
+        if (type == TransactionType.Credit) {
+            for (String keyword : categoryKeywords.get("Salary")) {
+                if (fullText.contains(keyword)) {
+                    return "Salary";
+                }
+            }
+            for (String keyword : categoryKeywords.get("Investment")) {
+                if (fullText.contains(keyword)) {
+                    return "Investment";
+                }
+            }
+            return "Other Income";
+        }
+
+        double maxScore = 0.0;
+        String bestCategory = null;
+        for (Map.Entry<String, String[]> entry : categoryKeywords.entrySet()) {
+            if (entry.getKey().equals("Salary") || entry.getKey().equals("Investment")) {
+                continue;
+            }
+            double score = referenceScore(fullText, entry.getKey());
+            if (score > maxScore) {
+                maxScore = score;
+                bestCategory = entry.getKey();
+            }
+        }
+        if (bestCategory != null && maxScore > 0.5) {
+            return bestCategory;
+        }
+
+        BigDecimal absAmount = amount.abs();
+        if (absAmount.compareTo(new BigDecimal("5")) <= 0) {
+            return "Transport";
+        }
+        if (absAmount.compareTo(new BigDecimal("20")) <= 0) {
+            return "Food & Dining";
+        }
+        if (absAmount.compareTo(new BigDecimal("100")) <= 0) {
+            return "Groceries";
+        }
+        if (absAmount.compareTo(new BigDecimal("500")) <= 0) {
+            return "Shopping";
+        }
+        return "Bills & Utilities";
+    }
+
+    private static double referenceScore(String text, String category) {
+        String[] keywords = AutoCategorisationService.CATEGORY_KEYWORDS.get(category);
+        int matches = 0;
+        double totalScore = 0.0;
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                matches++;
+                totalScore += Math.min(1.0, keyword.length() / 10.0);
+            }
+        }
+        return matches > 0 ? totalScore / keywords.length : 0.0;
+    }
+}
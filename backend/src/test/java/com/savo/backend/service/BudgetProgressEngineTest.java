@@ -0,0 +1,88 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.BudgetPeriod;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.event.TransactionChangeEvent;
+import com.savo.backend.model.Budget;
+import com.savo.backend.model.BudgetProgress;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.User;
+import com.savo.backend.repository.BudgetProgressRepository;
+import com.savo.backend.repository.BudgetRepository;
+import com.savo.backend.repository.CategoryRepository;
+import com.savo.backend.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetProgressEngineTest {
+
+    private static final LocalDate PERIOD_START = LocalDate.of(2025, 3, 1);
+
+    @Mock private BudgetRepository budgetRepository;
+    @Mock private BudgetProgressRepository budgetProgressRepository;
+    @Mock private CategoryRepository categoryRepository;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private BudgetProgressEngine engine;
+
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        Category groceries = new Category();
+        groceries.setId("groceries");
+        budget = new Budget(new User(), groceries, new BigDecimal("500.00"), BudgetPeriod.Monthly, LocalDate.of(2025, 1, 1));
+        budget.setId("budget-1");
+
+        when(budgetRepository.findByUserIdAndIsActiveTrue("user-1")).thenReturn(List.of(budget));
+        when(categoryRepository.findHierarchyForUser("user-1")).thenReturn(List.of());
+    }
+
+    @Test
+    void firstTouchSeedsThePeriodFromTransactions() {
+        when(budgetProgressRepository.insertIfAbsent(anyString(), eq("budget-1"), eq(PERIOD_START), any(), any())).thenReturn(1);
+        BudgetProgress inserted = new BudgetProgress(budget, PERIOD_START, PERIOD_START.plusMonths(1).minusDays(1));
+        when(budgetProgressRepository.findByBudgetIdAndPeriodStart("budget-1", PERIOD_START)).thenReturn(Optional.of(inserted));
+        when(transactionRepository.sumSpendingForCategories(eq("user-1"), any(), eq(PERIOD_START), any())).thenReturn(new BigDecimal("120.00"));
+
+        engine.onTransactionChange(debit("20.00"));
+
+        assertEquals(new BigDecimal("120.00"), inserted.getSpentAmount());
+    }
+
+    @Test
+    void periodSeededConcurrentlyOnlyReceivesTheDelta() {
+        // Another import inserted the row first, so this one must add its delta instead of inserting again
+        when(budgetProgressRepository.insertIfAbsent(anyString(), eq("budget-1"), eq(PERIOD_START), any(), any())).thenReturn(0);
+        BudgetProgress existing = new BudgetProgress(budget, PERIOD_START, PERIOD_START.plusMonths(1).minusDays(1));
+        existing.updateSpentAmount(new BigDecimal("100.00"));
+        when(budgetProgressRepository.findByBudgetIdAndPeriodStart("budget-1", PERIOD_START)).thenReturn(Optional.of(existing));
+
+        engine.onTransactionChange(debit("20.00"));
+
+        assertEquals(new BigDecimal("120.00"), existing.getSpentAmount());
+        verify(transactionRepository, never()).sumSpendingForCategories(any(), any(), any(), any());
+    }
+
+    private static TransactionChangeEvent debit(String amount) {
+        return new TransactionChangeEvent("user-1", List.of(new TransactionChangeEvent.Change(
+                "groceries", PERIOD_START.plusDays(9), null, TransactionType.Debit, new BigDecimal(amount), 1)));
+    }
+}
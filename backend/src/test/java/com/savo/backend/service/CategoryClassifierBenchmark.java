@@ -0,0 +1,90 @@
+package com.savo.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row inference cost of the categorisation model, restored from its serialised form as the registry
+ * does. Run with -prof gc to see allocation per prediction. Run from backend/ after mvn test-compile:
+ *
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.savo.backend.service.CategoryClassifierBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CategoryClassifierBenchmark {
+
+    private static final String[] SHARED_TOKENS = {"POS", "NETS", "SINGAPORE", "SG", "PTE LTD", "VISA", "PAYNOW", "REF"};
+
+    // Roughly the number of active system categories
+    @Param({"1", "13"})
+    private int categories;
+
+    private CategoryClassifier classifier;
+    private String merchantName;
+    private String description;
+
+    // Each category gets its own made-up merchants; descriptions mix in tokens every category shares
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        CategoryClassifier.Trainer trainer = new CategoryClassifier.Trainer();
+        for (int c = 0; c < categories; c++) {
+            for (int m = 0; m < 40; m++) {
+                String merchant = randomMerchant(random);
+                for (int sample = 0; sample < 5; sample++) {
+                    trainer.add(merchant, SHARED_TOKENS[random.nextInt(SHARED_TOKENS.length)] + " " + random.nextInt(10_000)
+                            + " " + merchant + " " + SHARED_TOKENS[random.nextInt(SHARED_TOKENS.length)], "category-" + c);
+                }
+                if (c == 0 && m == 0) {
+                    merchantName = merchant;
+                }
+            }
+        }
+        classifier = CategoryClassifier.fromBytes(trainer.toBytes());
+        description = "POS 1234 " + merchantName + " SINGAPORE 12/03";
+    }
+
+    @Benchmark
+    public CategoryClassifier.Prediction predict() {
+        return classifier.predict(merchantName, description);
+    }
+
+    private static String randomMerchant(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int word = 0; word < words; word++) {
+            if (word > 0) {
+                name.append(' ');
+            }
+            int length = 3 + random.nextInt(7);
+            for (int i = 0; i < length; i++) {
+                name.append((char) ('A' + random.nextInt(26)));
+            }
+        }
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CategoryClassifierBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,104 @@
+package com.savo.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryClassifierTest {
+
+    // Merchant, description, category
+    static final String[][] SAMPLES = {
+            {"NTUC FAIRPRICE", "POS 1234 NTUC FAIRPRICE JURONG", "groceries"},
+            {"COLD STORAGE", "POS 2231 COLD STORAGE GREAT WORLD", "groceries"},
+            {"SHENG SIONG", "NETS SHENG SIONG BEDOK", "groceries"},
+            {"GRAB", "GRAB*TRIP 88213 SINGAPORE", "transport"},
+            {"GOJEK", "GOJEK RIDE 44821", "transport"},
+            {"SHELL", "SHELL ORCHARD PETROL", "transport"},
+            {"STARBUCKS", "STARBUCKS RAFFLES PLACE", "food"},
+            {"MCDONALD'S", "MCDONALD'S TAMPINES", "food"},
+            {"YA KUN", "YA KUN KAYA TOAST", "food"},
+            {"NETFLIX", "NETFLIX.COM MONTHLY", "entertainment"},
+            {"SPOTIFY", "SPOTIFY P0A1B2C3", "entertainment"},
+    };
+
+    @Test
+    void roundTripPredictsExactlyTheSame() {
+        CategoryClassifier.Trainer trainer = trainer();
+        CategoryClassifier trained = trainer.build();
+        CategoryClassifier restored = CategoryClassifier.fromBytes(trainer.toBytes());
+
+        for (String[] sample : SAMPLES) {
+            assertSamePrediction(trained.predict(sample[0], sample[1]), restored.predict(sample[0], sample[1]));
+        }
+        assertSamePrediction(trained.predict("UNSEEN MERCHANT", "SOMETHING ELSE"),
+                restored.predict("UNSEEN MERCHANT", "SOMETHING ELSE"));
+        assertSamePrediction(trained.predict(null, "GRAB"), restored.predict(null, "GRAB"));
+    }
+
+    @Test
+    void serialisedFormIsDeterministicAndCompact() {
+        byte[] bytes = trainer().toBytes();
+
+        // Only non-zero buckets are written, so a small model stays far below the 65,536-bucket table
+        assertArrayEquals(bytes, trainer().toBytes());
+        assertTrue(bytes.length < 4_096, "model is " + bytes.length + " bytes");
+    }
+
+    @Test
+    void trainingSamplesArePredictedBack() {
+        CategoryClassifier classifier = trainer().build();
+
+        for (String[] sample : SAMPLES) {
+            CategoryClassifier.Prediction prediction = classifier.predict(sample[0], sample[1]);
+            assertEquals(sample[2], prediction.getCategoryId(), sample[0]);
+            assertTrue(prediction.getConfidence() > 0 && prediction.getConfidence() <= 1.0);
+        }
+    }
+
+    @Test
+    void restrictedModelOnlyPredictsAllowedCategories() {
+        CategoryClassifier classifier = CategoryClassifier.fromBytes(trainer().toBytes());
+
+        List<String> allowed = List.of("food", "transport");
+        for (String[] sample : SAMPLES) {
+            String categoryId = classifier.restrictTo(allowed).predict(sample[0], sample[1]).getCategoryId();
+            assertTrue(allowed.contains(categoryId), categoryId);
+        }
+        assertNull(classifier.restrictTo(List.of()).predict("GRAB", "GRAB"));
+    }
+
+    @Test
+    void unknownFormatVersionIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(99);
+            out.writeInt(1 << 16);
+            out.writeInt(0);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> CategoryClassifier.fromBytes(bytes.toByteArray()));
+    }
+
+    static CategoryClassifier.Trainer trainer() {
+        CategoryClassifier.Trainer trainer = new CategoryClassifier.Trainer();
+        for (String[] sample : SAMPLES) {
+            trainer.add(sample[0], sample[1], sample[2]);
+        }
+        return trainer;
+    }
+
+    private static void assertSamePrediction(CategoryClassifier.Prediction expected, CategoryClassifier.Prediction actual) {
+        assertEquals(expected.getCategoryId(), actual.getCategoryId());
+        assertEquals(expected.getConfidence(), actual.getConfidence(), 0.0);
+    }
+}
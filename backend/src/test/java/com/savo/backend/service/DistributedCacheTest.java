@@ -0,0 +1,127 @@
+package com.savo.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.savo.backend.config.CacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs against a real Redis, since the write-back guard lives in Lua. Each test uses two cache instances,
+ * standing in for two replicas, so the second one reads what the first left in Redis rather than its own L1.
+ */
+class DistributedCacheTest {
+
+    private static final TypeReference<List<String>> NAMES = new TypeReference<>() {};
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private DistributedCache replica;
+    private DistributedCache otherReplica;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory("localhost", port);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        replica = cache();
+        otherReplica = cache();
+    }
+
+    @Test
+    void loadedValueIsSharedWithOtherReplicas() {
+        assertEquals(List.of("Groceries"), replica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("Groceries")));
+        assertEquals(List.of("Groceries"), otherReplica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("Other")));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void valueLoadedDuringAnEvictionIsNotWrittenBack() {
+        // The loader read the old rows, then a write evicted the group before the value reached Redis
+        replica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> {
+            otherReplica.evictUser(DistributedCache.CATEGORIES, "user-1");
+            return load("Old");
+        });
+
+        assertEquals(List.of("New"), otherReplica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("New")));
+        assertEquals(List.of("New"), cache().get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("Newer")));
+    }
+
+    @Test
+    void valueLoadedDuringAnEvictAllIsNotWrittenBack() {
+        replica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> {
+            otherReplica.evictAll(DistributedCache.CATEGORIES);
+            return load("Old");
+        });
+
+        assertEquals(List.of("New"), otherReplica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("New")));
+    }
+
+    @Test
+    void evictionOfAnotherUserDoesNotBlockTheWrite() {
+        replica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> {
+            otherReplica.evictUser(DistributedCache.CATEGORIES, "user-2");
+            return load("Groceries");
+        });
+
+        assertEquals(List.of("Groceries"), otherReplica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("Other")));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictedValueIsLoadedAgain() {
+        replica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("Old"));
+        replica.evictUser(DistributedCache.CATEGORIES, "user-1");
+
+        assertEquals(List.of("New"), otherReplica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("New")));
+        assertEquals(List.of("New"), replica.get(DistributedCache.CATEGORIES, "user-1", "all", NAMES, () -> load("Newer")));
+    }
+
+    private List<String> load(String name) {
+        loads.incrementAndGet();
+        return List.of(name);
+    }
+
+    private static DistributedCache cache() {
+        return new DistributedCache(new CacheProperties(), redisTemplate, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+}
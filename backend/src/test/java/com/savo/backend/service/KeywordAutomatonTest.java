@@ -0,0 +1,70 @@
+package com.savo.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void overlappingAndNestedKeywordsAllMatch() {
+        List<String> keywords = List.of("MARKET", "WET MARKET", "SUPERMARKET", "EZ LINK", "LINK", "COFFEE", "COFFEE BEAN", "BEAN");
+
+        assertMatchesContains(keywords, "NTUC WET SUPERMARKET");
+        assertMatchesContains(keywords, "COFFEE BEAN EZ LINK TOPUP");
+        assertMatchesContains(keywords, "COFFEBEAN MARKE");
+        assertMatchesContains(keywords, "");
+    }
+
+    @Test
+    void charactersOutsideTheDictionaryResetTheScan() {
+        List<String> keywords = List.of("H&M", "EZ-LINK", "CAFE");
+
+        assertMatchesContains(keywords, "CAFÉ H&M EZ—LINK EZ-LINK");
+        assertMatchesContains(keywords, "CÀFE CAFE");
+    }
+
+    @Test
+    void categoryDictionaryMatchesContainsOnRandomText() {
+        List<String> keywords = new ArrayList<>();
+        for (Map.Entry<String, String[]> entry : AutoCategorisationService.CATEGORY_KEYWORDS.entrySet()) {
+            keywords.addAll(List.of(entry.getValue()));
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int parts = 1 + random.nextInt(6);
+            for (int part = 0; part < parts; part++) {
+                String keyword = keywords.get(random.nextInt(keywords.size()));
+                // Cut keywords short now and then so partial matches are exercised too
+                text.append(random.nextInt(4) == 0 ? keyword.substring(0, random.nextInt(keyword.length())) : keyword);
+                text.append(random.nextBoolean() ? " " : "");
+            }
+            assertMatchesContains(keywords, text.toString());
+        }
+    }
+
+    @Test
+    void nonAsciiKeywordsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new KeywordAutomaton(List.of("CAFÉ")));
+    }
+
+    private static void assertMatchesContains(List<String> keywords, String text) {
+        boolean[] expected = new boolean[keywords.size()];
+        for (int id = 0; id < keywords.size(); id++) {
+            expected[id] = text.contains(keywords.get(id));
+        }
+
+        boolean[] matched = new boolean[keywords.size()];
+        new KeywordAutomaton(keywords).findMatches(text, matched);
+
+        assertArrayEquals(expected, matched, text);
+    }
+}
@@ -0,0 +1,92 @@
+package com.savo.backend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyword matching for one transaction: the compiled automaton against the per-category String.contains
+ * scan it replaced. Run from backend/ after mvn test-compile:
+ *
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.savo.backend.service.KeywordMatchingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordMatchingBenchmark {
+
+    @Param({"NTUC FAIRPRICE JURONG POINT 12/03", "POS 4829 GRAB*TRIP SINGAPORE SG", "FAST TRANSFER TO 0123456789 REF 99812"})
+    private String description;
+
+    private String[][] categoryKeywords;
+    private KeywordAutomaton automaton;
+    private int[] keywordCategory;
+    private double[] keywordWeight;
+
+    @Setup
+    public void setUp() {
+        List<String> keywords = new ArrayList<>();
+        List<Integer> categories = new ArrayList<>();
+        categoryKeywords = AutoCategorisationService.CATEGORY_KEYWORDS.values().toArray(new String[0][]);
+        for (int category = 0; category < categoryKeywords.length; category++) {
+            for (String keyword : categoryKeywords[category]) {
+                keywords.add(keyword);
+                categories.add(category);
+            }
+        }
+
+        automaton = new KeywordAutomaton(keywords);
+        keywordCategory = categories.stream().mapToInt(Integer::intValue).toArray();
+        keywordWeight = keywords.stream().mapToDouble(keyword -> Math.min(1.0, keyword.length() / 10.0)).toArray();
+    }
+
+    @Benchmark
+    public double[] nestedContainsScan() {
+        double[] scores = new double[categoryKeywords.length];
+        for (int category = 0; category < categoryKeywords.length; category++) {
+            for (String keyword : categoryKeywords[category]) {
+                if (description.contains(keyword)) {
+                    scores[category] += Math.min(1.0, keyword.length() / 10.0);
+                }
+            }
+        }
+        return scores;
+    }
+
+    @Benchmark
+    public double[] automatonScan() {
+        boolean[] matched = new boolean[automaton.getKeywordCount()];
+        automaton.findMatches(description, matched);
+
+        double[] scores = new double[categoryKeywords.length];
+        for (int id = 0; id < matched.length; id++) {
+            if (matched[id]) {
+                scores[keywordCategory[id]] += keywordWeight[id];
+            }
+        }
+        return scores;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(KeywordMatchingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,138 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.S3Properties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replacingAKeyKeepsTheNewFile() throws Exception {
+        LocalFileCache cache = cache(10);
+
+        cache.put("statements/a.pdf", content("first"));
+        cache.put("statements/a.pdf", content("second"));
+
+        Path cached = cache.get("statements/a.pdf").orElseThrow();
+        assertEquals("second", Files.readString(cached));
+    }
+
+    @Test
+    void evictDeletesTheFile() throws Exception {
+        LocalFileCache cache = cache(10);
+        cache.put("statements/a.pdf", content("a"));
+        Path cached = cache.get("statements/a.pdf").orElseThrow();
+
+        cache.evict("statements/a.pdf");
+
+        assertFalse(Files.exists(cached));
+        assertTrue(cache.get("statements/a.pdf").isEmpty());
+    }
+
+    @Test
+    void overflowDeletesEvictedFiles() throws Exception {
+        LocalFileCache cache = cache(2);
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("statements/" + i + ".pdf", content("statement " + i));
+        }
+
+        assertTrue(cachedFiles().size() <= 2);
+    }
+
+    @Test
+    void failedCopyLeavesNoTempFile() throws Exception {
+        LocalFileCache cache = cache(10);
+        // Fails part way, as a dropped upload stream does
+        InputStream broken = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                return read(new byte[1], 0, 1) < 0 ? -1 : 'x';
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                if (read >= 100) {
+                    throw new IOException("Connection reset");
+                }
+                int count = Math.min(length, 100 - read);
+                Arrays.fill(buffer, offset, offset + count, (byte) 'x');
+                read += count;
+                return count;
+            }
+        };
+
+        cache.put("statements/a.pdf", broken);
+
+        assertTrue(cache.get("statements/a.pdf").isEmpty());
+        assertEquals(List.of(), cachedFiles());
+    }
+
+    @Test
+    void startingAnotherInstanceKeepsTheFilesOfRunningOnes() throws Exception {
+        LocalFileCache running = cache(10);
+        running.put("statements/a.pdf", content("a"));
+
+        cache(10);
+
+        assertEquals("a", Files.readString(running.get("statements/a.pdf").orElseThrow()));
+    }
+
+    @Test
+    void shutdownRemovesOnlyThisInstancesFiles() throws Exception {
+        LocalFileCache stopping = cache(10);
+        LocalFileCache running = cache(10);
+        stopping.put("statements/a.pdf", content("a"));
+        running.put("statements/b.pdf", content("b"));
+        Path stoppingFile = stopping.get("statements/a.pdf").orElseThrow();
+
+        stopping.shutdown();
+
+        assertFalse(Files.exists(stoppingFile.getParent()));
+        assertEquals("b", Files.readString(running.get("statements/b.pdf").orElseThrow()));
+    }
+
+    @Test
+    void missingFileIsAMiss() throws Exception {
+        LocalFileCache cache = cache(10);
+        cache.put("statements/a.pdf", content("a"));
+        Files.delete(cache.get("statements/a.pdf").orElseThrow());
+
+        assertTrue(cache.get("statements/a.pdf").isEmpty());
+    }
+
+    private LocalFileCache cache(int maxEntries) {
+        S3Properties properties = new S3Properties();
+        properties.setLocalCacheDirectory(directory.toString());
+        properties.setLocalCacheMaxEntries(maxEntries);
+        return new LocalFileCache(properties);
+    }
+
+    private List<Path> cachedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes());
+    }
+}
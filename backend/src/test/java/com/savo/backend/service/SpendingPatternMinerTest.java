@@ -0,0 +1,88 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.PatternType;
+import com.savo.backend.model.SpendingPattern;
+import com.savo.backend.repository.MonthlySpendingRollupRepository;
+import com.savo.backend.repository.SpendingPatternRepository;
+import com.savo.backend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpendingPatternMinerTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private SpendingPatternRepository spendingPatternRepository;
+    @Mock private MonthlySpendingRollupRepository monthlySpendingRollupRepository;
+    @Mock private UserRepository userRepository;
+
+    @InjectMocks
+    private SpendingPatternMiner spendingPatternMiner;
+
+    @Test
+    void partialCurrentMonthIsNotReportedAsFalling() {
+        // A steady 300 a month, and the current month has only just started
+        YearMonth current = YearMonth.now();
+        givenGroceriesSpending(month -> month.equals(current) ? "20.00" : "300.00");
+
+        spendingPatternMiner.rebuild("user-1");
+
+        assertTrue(categoryTrends().isEmpty(), "trends: " + categoryTrends());
+    }
+
+    @Test
+    void riseAcrossCompleteMonthsIsReported() {
+        YearMonth lastComplete = YearMonth.now().minusMonths(1);
+        givenGroceriesSpending(month -> month.isAfter(lastComplete.minusMonths(3)) ? "400.00" : "300.00");
+
+        spendingPatternMiner.rebuild("user-1");
+
+        assertEquals(List.of("Rising Groceries spending"), categoryTrends());
+    }
+
+    // Answers like the rollup query: the sum of the monthly rows between the two month starts
+    private void givenGroceriesSpending(Function<YearMonth, String> monthlyTotal) {
+        when(monthlySpendingRollupRepository.getSpendingByCategoryForPeriod(eq("user-1"), any(), any())).thenAnswer(invocation -> {
+            YearMonth from = YearMonth.from(invocation.<LocalDate>getArgument(1));
+            YearMonth to = YearMonth.from(invocation.<LocalDate>getArgument(2));
+            BigDecimal total = BigDecimal.ZERO;
+            long count = 0;
+            for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+                total = total.add(new BigDecimal(monthlyTotal.apply(month)));
+                count += 10;
+            }
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[] {"groceries", "Groceries", null, null, total, count});
+            return rows;
+        });
+    }
+
+    private List<String> categoryTrends() {
+        ArgumentCaptor<SpendingPattern> saved = ArgumentCaptor.forClass(SpendingPattern.class);
+        verify(spendingPatternRepository, atLeast(0)).save(saved.capture());
+        return saved.getAllValues().stream()
+                .filter(pattern -> pattern.getPatternType() == PatternType.CATEGORY_TREND)
+                .map(SpendingPattern::getPatternName)
+                .toList();
+    }
+}
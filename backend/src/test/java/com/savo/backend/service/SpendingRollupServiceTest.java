@@ -0,0 +1,213 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the rollup upserts, the refresh and the empty-group delete against PostgreSQL, checking the
+ * stored sum, count, min and max after each kind of change.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SpendingRollupService.class)
+class SpendingRollupServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SpendingRollupService spendingRollupService;
+
+
+    private User user;
+    private BankAccount account;
+    private Category groceries;
+    private Category transport;
+    private StatementUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("user@example.com", "Ada", "Lovelace"));
+        account = new BankAccount(user, "DBS", "Savings", "****0001");
+        account.setActive(true);
+        entityManager.persist(account);
+        groceries = category("Groceries");
+        transport = category("Transport");
+
+        upload = new StatementUpload();
+        upload.setUser(user);
+        upload.setBankAccount(account);
+        upload.setFileName("statement.pdf");
+        upload.setFileSize(1024L);
+        upload.setContentSha256("sha");
+        upload.setS3Key("statements/1");
+        entityManager.persist(upload);
+        // The rollup SQL runs through JDBC, so the rows it references must be in the database
+        entityManager.flush();
+    }
+
+    @Test
+    void addedRowsAccumulateSumCountMinAndMax() {
+        add(groceries, LocalDate.of(2025, 3, 1), "12.00");
+        add(groceries, LocalDate.of(2025, 3, 20), "3.50");
+        add(groceries, LocalDate.of(2025, 3, 31), "40.00");
+
+        assertEquals(List.of(row(groceries, "2025-03-01", "55.50", 3, "3.50", "40.00")), rollups());
+    }
+
+    @Test
+    void eachMonthCategoryAndTypeIsItsOwnGroup() {
+        add(groceries, LocalDate.of(2025, 3, 31), "10.00");
+        add(groceries, LocalDate.of(2025, 4, 1), "20.00");
+        add(transport, LocalDate.of(2025, 4, 2), "2.00");
+
+        assertEquals(List.of(
+                row(groceries, "2025-03-01", "10.00", 1, "10.00", "10.00"),
+                row(groceries, "2025-04-01", "20.00", 1, "20.00", "20.00"),
+                row(transport, "2025-04-01", "2.00", 1, "2.00", "2.00")), rollups());
+    }
+
+    @Test
+    void refreshRecomputesMinAndMaxAfterARemoval() {
+        add(groceries, LocalDate.of(2025, 3, 1), "12.00");
+        Transaction largest = add(groceries, LocalDate.of(2025, 3, 2), "40.00");
+        add(groceries, LocalDate.of(2025, 3, 3), "3.50");
+
+        entityManager.remove(largest);
+        entityManager.flush();
+        spendingRollupService.refresh(user.getId(), account.getId(), Set.of(YearMonth.of(2025, 3)));
+
+        assertEquals(List.of(row(groceries, "2025-03-01", "15.50", 2, "3.50", "12.00")), rollups());
+    }
+
+    @Test
+    void refreshDeletesGroupsLeftWithoutTransactions() {
+        Transaction onlyTransport = add(transport, LocalDate.of(2025, 3, 5), "2.00");
+        add(groceries, LocalDate.of(2025, 3, 6), "9.00");
+        add(groceries, LocalDate.of(2025, 5, 6), "7.00");
+
+        entityManager.remove(onlyTransport);
+        entityManager.flush();
+        spendingRollupService.refresh(user.getId(), account.getId(), Set.of(YearMonth.of(2025, 3), YearMonth.of(2025, 5)));
+
+        assertEquals(List.of(
+                row(groceries, "2025-03-01", "9.00", 1, "9.00", "9.00"),
+                row(groceries, "2025-05-01", "7.00", 1, "7.00", "7.00")), rollups());
+    }
+
+    @Test
+    void recategorisedTransactionMovesBetweenGroups() {
+        Transaction moved = add(groceries, LocalDate.of(2025, 3, 5), "6.00");
+        add(groceries, LocalDate.of(2025, 3, 6), "4.00");
+
+        moved.setCategory(transport);
+        entityManager.flush();
+        spendingRollupService.refresh(user.getId(), account.getId(), Set.of(YearMonth.of(2025, 3)));
+
+        assertEquals(List.of(
+                row(groceries, "2025-03-01", "4.00", 1, "4.00", "4.00"),
+                row(transport, "2025-03-01", "6.00", 1, "6.00", "6.00")), rollups());
+    }
+
+    @Test
+    void rebuildMatchesIncrementalAdds() {
+        add(groceries, LocalDate.of(2025, 2, 28), "1.25");
+        add(groceries, LocalDate.of(2025, 3, 1), "8.00");
+        add(groceries, LocalDate.of(2025, 3, 9), "2.75");
+        add(transport, LocalDate.of(2025, 3, 9), "3.00");
+        List<Map<String, Object>> incremental = rollups();
+        entityManager.flush();
+
+        assertEquals(3, spendingRollupService.rebuildUser(user.getId()));
+        assertEquals(incremental, rollups());
+    }
+
+    @Test
+    void monthsForUploadAreTheDistinctMonthStarts() {
+        add(groceries, LocalDate.of(2025, 3, 1), "1.00");
+        add(groceries, LocalDate.of(2025, 3, 31), "1.00");
+        add(transport, LocalDate.of(2025, 5, 15), "1.00");
+        entityManager.flush();
+
+        assertEquals(Set.of(YearMonth.of(2025, 3), YearMonth.of(2025, 5)), spendingRollupService.findMonthsForUpload(upload.getId()));
+    }
+
+    // Persists a debit and adds it to the rollup, the way imports and manual entries do
+    private Transaction add(Category category, LocalDate date, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setBankAccount(account);
+        transaction.setStatementUpload(upload);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        transaction.setDescription("Purchase");
+        transaction.setMerchantName("Merchant");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTransactionType(TransactionType.Debit);
+        entityManager.persist(transaction);
+        spendingRollupService.add(transaction);
+        return transaction;
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setUser(user);
+        return entityManager.persist(category);
+    }
+
+    private List<Map<String, Object>> rollups() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        jdbcTemplate.query("SELECT c.name, r.month_start, r.total_amount, r.transaction_count, r.min_amount, r.max_amount " +
+                        "FROM monthly_spending_rollups r JOIN categories c ON c.id = r.category_id " +
+                        "WHERE r.user_id = ? AND r.transaction_type = 'Debit' ORDER BY r.month_start, c.name",
+                rs -> {
+                    rows.add(Map.of(
+                            "category", rs.getString(1),
+                            "month", rs.getDate(2).toLocalDate().toString(),
+                            "total", rs.getBigDecimal(3).stripTrailingZeros(),
+                            "count", rs.getLong(4),
+                            "min", rs.getBigDecimal(5).stripTrailingZeros(),
+                            "max", rs.getBigDecimal(6).stripTrailingZeros()));
+                }, user.getId());
+        return rows;
+    }
+
+    private static Map<String, Object> row(Category category, String month, String total, long count, String min, String max) {
+        return Map.of(
+                "category", category.getName(),
+                "month", month,
+                "total", new BigDecimal(total).stripTrailingZeros(),
+                "count", count,
+                "min", new BigDecimal(min).stripTrailingZeros(),
+                "max", new BigDecimal(max).stripTrailingZeros());
+    }
+}
@@ -0,0 +1,105 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.parser.ParsedStatement;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementExtractionServiceTest {
+
+    private StatementExtractionService service;
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void smallStatementStreamsEveryPageInOrder() throws IOException {
+        service = new StatementExtractionService(properties(4, 20));
+        RecordingHandler handler = new RecordingHandler();
+
+        service.streamPages(new ByteArrayInputStream(pdf(5)), "statement.pdf", 0, handler);
+
+        assertEquals(5, handler.header.getPageCount());
+        assertEquals(2, handler.header.getPages().size());
+        assertTrue(handler.header.getText(1, 2).contains("page-1"));
+        assertEquals(5, handler.pages.size());
+        for (int page = 1; page <= 5; page++) {
+            assertTrue(handler.pages.get(page - 1).contains("page-" + page));
+        }
+    }
+
+    @Test
+    void largeStatementStreamsEveryPageInOrderAcrossWorkers() throws IOException {
+        service = new StatementExtractionService(properties(4, 8));
+
+        // Repeated, since the order workers finish in varies from run to run
+        for (int run = 0; run < 10; run++) {
+            RecordingHandler handler = new RecordingHandler();
+            service.streamPages(new ByteArrayInputStream(pdf(40)), "statement.pdf", 0, handler);
+
+            List<Integer> numbers = new ArrayList<>();
+            for (String text : handler.pages) {
+                numbers.add(Integer.parseInt(text.trim().substring("page-".length())));
+            }
+            assertEquals(IntStream.rangeClosed(1, 40).boxed().toList(), numbers);
+        }
+    }
+
+    private static StatementProcessingProperties properties(int threads, int parallelMinPages) {
+        StatementProcessingProperties properties = new StatementProcessingProperties();
+        properties.setExtractionThreads(threads);
+        properties.setParallelExtractionMinPages(parallelMinPages);
+        return properties;
+    }
+
+    private static byte[] pdf(int pages) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int number = 1; number <= pages; number++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("page-" + number);
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static class RecordingHandler implements StatementExtractionService.PageHandler {
+        private ParsedStatement header;
+        private final List<String> pages = new ArrayList<>();
+
+        @Override
+        public void start(ParsedStatement header) {
+            assertNotNull(header);
+            this.header = header;
+        }
+
+        @Override
+        public void page(String pageText) {
+            pages.add(pageText);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.enums.JobStatus;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.enums.UploadStatus;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.StatementProcessingJob;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.parser.ParsedStatement;
+import com.savo.backend.parser.StatementParser;
+import com.savo.backend.parser.StatementParserRegistry;
+import com.savo.backend.repository.BankAccountRepository;
+import com.savo.backend.repository.CategoryRepository;
+import com.savo.backend.repository.StatementProcessingJobRepository;
+import com.savo.backend.repository.StatementUploadRepository;
+import com.savo.backend.repository.UserRepository;
+import com.savo.backend.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports a statement on PostgreSQL without a surrounding transaction, as the job scheduler does: each batch
+ * commits as it is written, a failure part way keeps the committed batches, and the retry completes the import.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({StatementProcessingService.class, StatementParserService.class, StatementJobService.class, TransactionBatchWriter.class,
+        SpendingRollupService.class, SubscriptionDetectionService.class, StatementProcessingProgress.class,
+        StatementProcessingServiceTest.Config.class})
+class StatementProcessingServiceTest {
+
+    private static final int PAGES = 3;
+    private static final int ROWS_PER_PAGE = 2;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        StatementProcessingProperties statementProcessingProperties() {
+            StatementProcessingProperties properties = new StatementProcessingProperties();
+            // One batch per page
+            properties.setInsertBatchSize(ROWS_PER_PAGE);
+            return properties;
+        }
+    }
+
+    @Autowired private StatementProcessingService statementProcessingService;
+    @Autowired private StatementJobService statementJobService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private BankAccountRepository bankAccountRepository;
+    @Autowired private CategoryRepository categoryRepository;
+    @Autowired private StatementUploadRepository statementUploadRepository;
+    @Autowired private StatementProcessingJobRepository jobRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean private FileStorageService fileStorageService;
+    @MockitoBean private StatementExtractionService statementExtractionService;
+    @MockitoBean private StatementParserRegistry statementParserRegistry;
+    @MockitoBean private AutoCategorisationService autoCategorisationService;
+    @MockitoBean private DistributedCache distributedCache;
+    @MockitoBean private StatementParser statementParser;
+
+    private StatementUpload upload;
+    private StatementProcessingJob job;
+    private int failOnPage;
+    private boolean transactionOpenWhileParsing;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        User user = userRepository.save(new User("user@example.com", "Ada", "Lovelace"));
+        BankAccount account = new BankAccount(user, "DBS", "Savings", "****0001");
+        account.setActive(true);
+        bankAccountRepository.save(account);
+        Category category = new Category();
+        category.setName("Groceries");
+        category.setUser(user);
+        categoryRepository.save(category);
+
+        upload = new StatementUpload();
+        upload.setUser(user);
+        upload.setBankAccount(account);
+        upload.setFileName("statement.pdf");
+        upload.setFileSize(1024L);
+        upload.setContentSha256("sha");
+        upload.setS3Key("statements/1");
+        upload.setUploadStatus(UploadStatus.PROCESSING);
+        upload.setStatementPeriodStart(LocalDate.of(2025, 3, 1));
+        upload = statementUploadRepository.save(upload);
+        job = statementJobService.startJob(upload);
+
+        when(fileStorageService.openFile("statements/1")).thenAnswer(invocation -> new ByteArrayInputStream(new byte[0]));
+        when(statementParserRegistry.forBank("DBS")).thenReturn(statementParser);
+        when(autoCategorisationService.autoCategoriseTransaction(any())).thenReturn(category);
+        doAnswer(invocation -> {
+            StatementExtractionService.PageHandler handler = invocation.getArgument(3);
+            handler.start(new ParsedStatement("statement.pdf", 1024, PAGES, List.of("header"), null, null, null));
+            for (int page = 1; page <= PAGES; page++) {
+                transactionOpenWhileParsing |= TransactionSynchronizationManager.isActualTransactionActive();
+                handler.page(String.valueOf(page));
+            }
+            return null;
+        }).when(statementExtractionService).streamPages(any(), anyString(), anyLong(), any());
+        doAnswer(invocation -> {
+            int page = Integer.parseInt(invocation.getArgument(0));
+            if (page == failOnPage) {
+                throw new IllegalStateException("Unreadable page " + page);
+            }
+            Consumer<Transaction> rows = invocation.getArgument(2);
+            for (int row = 0; row < ROWS_PER_PAGE; row++) {
+                rows.accept(debit(LocalDate.of(2025, 3, page * ROWS_PER_PAGE + row), "SHOP " + page + "-" + row));
+            }
+            return null;
+        }).when(statementParser).parsePage(anyString(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE users CASCADE");
+    }
+
+    @Test
+    void statementIsImportedWithoutATransactionAroundTheParse() {
+        statementProcessingService.processStatement(job.getId(), upload.getId());
+
+        assertFalse(transactionOpenWhileParsing);
+        assertEquals(PAGES * ROWS_PER_PAGE, countTransactions());
+        assertCompleted();
+    }
+
+    @Test
+    void failurePartWayKeepsCommittedBatchesAndTheRetryFinishesTheImport() {
+        failOnPage = PAGES;
+
+        assertThrows(RuntimeException.class, () -> statementProcessingService.processStatement(job.getId(), upload.getId()));
+
+        assertEquals((PAGES - 1) * ROWS_PER_PAGE, countTransactions());
+        assertEquals(UploadStatus.PROCESSING, statementUploadRepository.findById(upload.getId()).orElseThrow().getUploadStatus());
+        assertEquals(JobStatus.RUNNING, jobRepository.findById(job.getId()).orElseThrow().getStatus());
+
+        failOnPage = 0;
+        statementProcessingService.processStatement(job.getId(), upload.getId());
+
+        assertEquals(PAGES * ROWS_PER_PAGE, countTransactions());
+        assertCompleted();
+        // Rebuilt from the stored rows, so the batches of both attempts are counted once
+        assertEquals(PAGES * ROWS_PER_PAGE, jdbcTemplate.queryForObject(
+                "SELECT SUM(transaction_count) FROM monthly_spending_rollups", Integer.class));
+    }
+
+    @Test
+    void lostLeaseLeavesTheUploadUncompleted() {
+        jdbcTemplate.update("UPDATE statement_processing_jobs SET lease_owner = 'other-node' WHERE id = ?", job.getId());
+
+        assertThrows(IllegalStateException.class, () -> statementProcessingService.processStatement(job.getId(), upload.getId()));
+
+        assertEquals(UploadStatus.PROCESSING, statementUploadRepository.findById(upload.getId()).orElseThrow().getUploadStatus());
+    }
+
+    private void assertCompleted() {
+        StatementUpload stored = statementUploadRepository.findById(upload.getId()).orElseThrow();
+        assertEquals(UploadStatus.COMPLETED, stored.getUploadStatus());
+        assertEquals(PAGES * ROWS_PER_PAGE, stored.getTotalTransactionsExtracted());
+        assertEquals(JobStatus.COMPLETED, jobRepository.findById(job.getId()).orElseThrow().getStatus());
+        verify(distributedCache).evictUser(DistributedCache.UPLOAD_HISTORY, upload.getUser().getId());
+    }
+
+    private int countTransactions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE statement_upload_id = ?", Integer.class, upload.getId());
+    }
+
+    private static Transaction debit(LocalDate date, String merchantName) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionDate(date);
+        transaction.setDescription(merchantName);
+        transaction.setMerchantName(merchantName);
+        transaction.setAmount(new BigDecimal("12.50"));
+        transaction.setTransactionType(TransactionType.Debit);
+        return transaction;
+    }
+}
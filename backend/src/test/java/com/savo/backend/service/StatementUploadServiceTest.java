@@ -0,0 +1,185 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.UploadStatus;
+import com.savo.backend.exception.ValidationException;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.StatementProcessingJob;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.model.User;
+import com.savo.backend.parser.ParsedStatement;
+import com.savo.backend.parser.StatementContent;
+import com.savo.backend.parser.StatementParser;
+import com.savo.backend.parser.StatementParserRegistry;
+import com.savo.backend.repository.BankAccountRepository;
+import com.savo.backend.repository.CategorisationFeedbackRepository;
+import com.savo.backend.repository.StatementUploadRepository;
+import com.savo.backend.repository.SubscriptionTransactionRepository;
+import com.savo.backend.repository.TransactionRepository;
+import com.savo.backend.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatementUploadServiceTest {
+
+    @Mock private StatementUploadRepository statementUploadRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private FileStorageService fileStorageService;
+    @Mock private BankAccountRepository bankAccountRepository;
+    @Mock private TransactionRepository transactionRepository;
+    @Mock private BankAccountService bankAccountService;
+    @Mock private BankDetectionService bankDetectionService;
+    @Mock private StatementExtractionService statementExtractionService;
+    @Mock private StatementProcessingExecutor statementProcessingExecutor;
+    @Mock private StatementJobService statementJobService;
+    @Mock private StatementJobScheduler statementJobScheduler;
+    @Mock private StatementParserRegistry statementParserRegistry;
+    @Mock private StatementProcessingProgress statementProcessingProgress;
+    @Mock private SpendingRollupService spendingRollupService;
+    @Mock private CategorisationFeedbackRepository categorisationFeedbackRepository;
+    @Mock private SubscriptionTransactionRepository subscriptionTransactionRepository;
+    @Mock private SubscriptionDetectionService subscriptionDetectionService;
+    @Mock private DistributedCache distributedCache;
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @Mock private StatementParser statementParser;
+    @Mock private StatementProcessingExecutor.Slot slot;
+
+    private StatementUploadService statementUploadService;
+
+    private final User user = new User();
+    private final BankAccount account = new BankAccount();
+    private final MockMultipartFile file = new MockMultipartFile("file", "statement.pdf", "application/pdf", new byte[] {1, 2, 3});
+
+    @BeforeEach
+    void setUp() {
+        statementUploadService = new StatementUploadService(statementUploadRepository, userRepository, fileStorageService,
+                bankAccountRepository, transactionRepository, bankAccountService, bankDetectionService, statementExtractionService,
+                statementProcessingExecutor, statementJobService, statementJobScheduler, statementParserRegistry,
+                statementProcessingProgress, spendingRollupService, categorisationFeedbackRepository,
+                subscriptionTransactionRepository, subscriptionDetectionService, distributedCache, eventPublisher);
+
+        user.setId("user-1");
+        account.setId("account-1");
+        account.setBankName("DBS");
+    }
+
+    @Test
+    void deleteUploadUnlinksSubscriptionChargesBeforeDeletingTransactions() {
+        StatementUpload upload = new StatementUpload();
+        upload.setId("upload-1");
+        upload.setUser(user);
+        upload.setBankAccount(account);
+        upload.setS3Key("statements/upload-1.pdf");
+        upload.setUploadStatus(UploadStatus.COMPLETED);
+
+        when(statementUploadRepository.findByIdAndUserId("upload-1", "user-1")).thenReturn(Optional.of(upload));
+        when(spendingRollupService.findMonthsForUpload("upload-1")).thenReturn(Set.of());
+        when(transactionRepository.sumAmountsForUpload("upload-1")).thenReturn(List.of());
+        when(transactionRepository.findDebitMerchantKeysForUpload("upload-1")).thenReturn(List.of("netflix"));
+
+        statementUploadService.deleteUpload("upload-1", "user-1");
+
+        InOrder inOrder = inOrder(categorisationFeedbackRepository, subscriptionTransactionRepository, transactionRepository,
+                subscriptionDetectionService);
+        inOrder.verify(categorisationFeedbackRepository).detachFromStatementUpload("upload-1");
+        inOrder.verify(subscriptionTransactionRepository).deleteByStatementUploadId("upload-1");
+        inOrder.verify(transactionRepository).deleteByStatementUploadId("upload-1");
+        inOrder.verify(transactionRepository).flush();
+        inOrder.verify(subscriptionDetectionService).detectForMerchants(user, List.of("netflix"));
+        verify(statementUploadRepository).delete(upload);
+        verify(distributedCache).evictUser(DistributedCache.UPLOAD_HISTORY, "user-1");
+    }
+
+    @Test
+    void concurrentDuplicateUploadIsRejectedAndItsFileRemoved() {
+        givenUploadReachesTheDatabase();
+        // The other request passed the pre-check at the same moment and committed first
+        when(statementUploadRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value", new SQLException(), "uk_statement_upload_account_sha256")));
+
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> statementUploadService.processStatementUpload(file, "user-1"));
+
+        assertEquals("This statement has already been uploaded", e.getMessage());
+        verify(fileStorageService).deleteFile("statements/user-1/statement.pdf");
+        verify(slot).release();
+    }
+
+    @Test
+    void otherConstraintViolationsAreNotReportedAsDuplicates() {
+        givenUploadReachesTheDatabase();
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("null value", new SQLException(), "statement_uploads_s3_key_not_null"));
+        when(statementUploadRepository.saveAndFlush(any())).thenThrow(violation);
+
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> statementUploadService.processStatementUpload(file, "user-1")));
+        verify(fileStorageService).deleteFile("statements/user-1/statement.pdf");
+        verify(slot).release();
+    }
+
+    @Test
+    void differentStatementWithTheSameNameAndSizeIsAccepted() {
+        givenUploadReachesTheDatabase();
+        when(statementUploadRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            StatementUpload upload = invocation.getArgument(0);
+            upload.setId("upload-2");
+            return upload;
+        });
+        StatementProcessingJob job = new StatementProcessingJob();
+        job.setId("job-2");
+        when(statementJobService.startJob(any())).thenReturn(job);
+
+        statementUploadService.processStatementUpload(file, "user-1");
+
+        ArgumentCaptor<StatementUpload> saved = ArgumentCaptor.forClass(StatementUpload.class);
+        verify(statementUploadRepository).saveAndFlush(saved.capture());
+        assertEquals("sha", saved.getValue().getContentSha256());
+        assertEquals(LocalDate.of(2025, 1, 1), saved.getValue().getStatementPeriodStart());
+        assertEquals(LocalDate.of(2025, 1, 31), saved.getValue().getStatementPeriodEnd());
+        verify(statementJobScheduler).dispatch(slot, "job-2", "upload-2");
+        verify(distributedCache).evictUser(DistributedCache.UPLOAD_HISTORY, "user-1");
+        verify(slot, never()).release();
+    }
+
+    // Content hash not seen before, header parsed and the period read by the bank's parser
+    private void givenUploadReachesTheDatabase() {
+        ParsedStatement header = new ParsedStatement("statement.pdf", 3, 1,
+                List.of("Statement period 01 Jan 2025 to 31 Jan 2025"), null, null, null);
+
+        when(userRepository.findById("user-1")).thenReturn(Optional.of(user));
+        when(statementProcessingExecutor.reserve("user-1")).thenReturn(slot);
+        when(statementExtractionService.read(file)).thenReturn(new StatementContent("statement.pdf", 3, new byte[] {1, 2, 3}, "sha"));
+        when(statementUploadRepository.existsByUserIdAndContentSha256("user-1", "sha")).thenReturn(false);
+        when(statementExtractionService.extractHeader(any(StatementContent.class))).thenReturn(header);
+        when(bankDetectionService.detectAndResolveBankAccount(header, "user-1")).thenReturn(account);
+        when(statementParserRegistry.forBank("DBS")).thenReturn(statementParser);
+        when(statementParser.extractStatementPeriod(anyString()))
+                .thenReturn(new LocalDate[] {LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)});
+        when(fileStorageService.uploadFile(eq(file), eq("user-1"), anyString())).thenReturn("statements/user-1/statement.pdf");
+    }
+}
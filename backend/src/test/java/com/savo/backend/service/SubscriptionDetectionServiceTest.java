@@ -0,0 +1,278 @@
+package com.savo.backend.service;
+
+import com.savo.backend.enums.BillingCycle;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.Subscription;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.repository.SubscriptionRepository;
+import com.savo.backend.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs detection over stored debits on PostgreSQL: the cycle picked for monthly, quarterly and yearly series,
+ * the amount tolerance, the confidence score, the next billing date and the charges linked to the subscription.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SubscriptionDetectionService.class)
+class SubscriptionDetectionServiceTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private SubscriptionRepository subscriptionRepository;
+    @Autowired private SubscriptionDetectionService subscriptionDetectionService;
+
+
+    private User user;
+    private BankAccount account;
+    private Category category;
+    private LocalDate latest;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("user@example.com", "Ada", "Lovelace"));
+        account = new BankAccount(user, "DBS", "Savings", "****0001");
+        account.setActive(true);
+        entityManager.persist(account);
+
+        category = new Category();
+        category.setName("Entertainment");
+        category.setUser(user);
+        entityManager.persist(category);
+
+        latest = LocalDate.now().minusDays(10);
+    }
+
+    @Test
+    void monthlySeriesIsDetectedAsMonthly() {
+        List<Transaction> charges = new ArrayList<>();
+        for (int i = 5; i >= 0; i--) {
+            charges.add(debit("netflix", latest.minusDays(30L * i), "15.98"));
+        }
+
+        assertEquals(1, detect("netflix"));
+
+        Subscription subscription = subscription("netflix");
+        assertEquals(BillingCycle.Monthly, subscription.getBillingCycle());
+        assertEquals(0, new BigDecimal("15.98").compareTo(subscription.getAmount()));
+        assertEquals(latest.plusMonths(1), subscription.getNextBillingDate());
+        assertEquals(latest.atStartOfDay(), subscription.getLastTransactionDate());
+        assertEquals(1.0, subscription.getDetectionConfidence());
+        assertTrue(subscription.isActive());
+        assertLinked(subscription, charges, BillingCycle.Monthly);
+    }
+
+    @Test
+    void quarterlySeriesIsDetectedAsQuarterly() {
+        List<Transaction> charges = List.of(
+                debit("spotify family", latest.minusDays(182), "29.97"),
+                debit("spotify family", latest.minusDays(91), "29.97"),
+                debit("spotify family", latest, "29.97"));
+
+        assertEquals(1, detect("spotify family"));
+
+        Subscription subscription = subscription("spotify family");
+        assertEquals(BillingCycle.Quarterly, subscription.getBillingCycle());
+        assertEquals(latest.plusMonths(3), subscription.getNextBillingDate());
+        // Every gap on cycle and a stable amount, but only three charges of history
+        assertEquals(0.9, subscription.getDetectionConfidence());
+        assertLinked(subscription, charges, BillingCycle.Quarterly);
+    }
+
+    @Test
+    void yearlySeriesIsDetectedAsYearly() {
+        List<Transaction> charges = List.of(
+                debit("amazon prime", latest.minusDays(365), "139.00"),
+                debit("amazon prime", latest, "139.00"));
+
+        assertEquals(1, detect("amazon prime"));
+
+        Subscription subscription = subscription("amazon prime");
+        assertEquals(BillingCycle.Yearly, subscription.getBillingCycle());
+        assertEquals(latest.plusYears(1), subscription.getNextBillingDate());
+        assertEquals(0.87, subscription.getDetectionConfidence());
+        assertLinked(subscription, charges, BillingCycle.Yearly);
+    }
+
+    @Test
+    void gapsJustOutsideEveryCycleAreNotASubscription() {
+        // 36 days is past the monthly tolerance and nowhere near a quarter
+        List<Transaction> charges = new ArrayList<>();
+        for (int i = 3; i >= 0; i--) {
+            charges.add(debit("gym", latest.minusDays(36L * i), "80.00"));
+        }
+
+        assertEquals(0, detect("gym"));
+
+        assertEquals(0, countRows("subscriptions"));
+        assertEquals(0, countRows("subscription_transactions"));
+        charges.forEach(charge -> assertFalse(Boolean.TRUE.equals(charge.getSubscription())));
+    }
+
+    @Test
+    void twoMonthlyChargesAreTooFewToCount() {
+        debit("disney", latest.minusDays(30), "11.98");
+        debit("disney", latest, "11.98");
+
+        assertEquals(0, detect("disney"));
+        assertEquals(0, countRows("subscriptions"));
+    }
+
+    @Test
+    void chargesOutsideTheAmountToleranceAreLeftOut() {
+        List<Transaction> plan = new ArrayList<>();
+        for (int i = 4; i >= 0; i--) {
+            plan.add(debit("icloud", latest.minusDays(30L * i), i == 2 ? "10.50" : "10.00"));
+        }
+        // A one-off purchase from the same merchant, far from the plan price
+        Transaction oneOff = debit("icloud", latest.minusDays(45), "30.00");
+
+        assertEquals(1, detect("icloud"));
+
+        Subscription subscription = subscription("icloud");
+        assertEquals(BillingCycle.Monthly, subscription.getBillingCycle());
+        // Cadence 0.5, amount stability 0.3 * (1 - 0.50 / 10.50), five of six charges of history 0.2 * 5/6
+        assertEquals(0.95, subscription.getDetectionConfidence());
+        assertLinked(subscription, plan, BillingCycle.Monthly);
+        assertFalse(Boolean.TRUE.equals(oneOff.getSubscription()));
+    }
+
+    @Test
+    void detectingAgainDoesNotLinkChargesTwice() {
+        for (int i = 3; i >= 0; i--) {
+            debit("netflix", latest.minusDays(30L * i), "15.98");
+        }
+        detect("netflix");
+
+        Transaction next = debit("netflix", latest.plusDays(30), "15.98");
+        assertEquals(1, detect("netflix"));
+
+        assertEquals(1, countRows("subscriptions"));
+        assertEquals(5, countRows("subscription_transactions"));
+        assertEquals(next.getTransactionDate().plusMonths(1), subscription("netflix").getNextBillingDate());
+    }
+
+    @Test
+    void subscriptionAnotherImportCreatedIsUpdatedRatherThanDuplicated() {
+        for (int i = 3; i >= 0; i--) {
+            debit("netflix", latest.minusDays(30L * i), "17.98");
+        }
+        // Committed by a concurrent import of another statement
+        assertEquals(1, subscriptionRepository.insertIfAbsent("other-import", user.getId(), "netflix", new BigDecimal("15.98"),
+                BillingCycle.Monthly.name(), latest, user.getCurrency(), category.getId()));
+
+        assertEquals(1, detect("netflix"));
+
+        assertEquals(1, countRows("subscriptions"));
+        Subscription subscription = subscription("netflix");
+        assertEquals("other-import", subscription.getId());
+        assertEquals(0, new BigDecimal("17.98").compareTo(subscription.getAmount()));
+        assertEquals(0, subscriptionRepository.insertIfAbsent("third-import", user.getId(), "netflix", new BigDecimal("15.98"),
+                BillingCycle.Monthly.name(), latest, user.getCurrency(), category.getId()));
+    }
+
+    @Test
+    void secondSubscriptionForTheSameMerchantIsRejected() {
+        entityManager.persist(new Subscription(user, "netflix", new BigDecimal("15.98"), BillingCycle.Monthly, latest, "SGD", category));
+        entityManager.persist(new Subscription(user, "netflix", new BigDecimal("15.98"), BillingCycle.Monthly, latest, "SGD", category));
+
+        Throwable e = assertThrows(RuntimeException.class, () -> entityManager.flush());
+
+        while (e != null && !e.getMessage().contains("uk_subscription_user_service")) {
+            e = e.getCause();
+        }
+        assertNotNull(e, "unique (user_id, service_name) violation");
+    }
+
+    @Test
+    void subscriptionLapsesWhenItsChargesAreGone() {
+        Subscription subscription = new Subscription(user, "netflix", new BigDecimal("15.98"), BillingCycle.Monthly, latest, "SGD", category);
+        subscription.setActive(true);
+        entityManager.persist(subscription);
+
+        assertEquals(0, detect("netflix"));
+
+        assertFalse(subscription("netflix").isActive());
+    }
+
+    private int detect(String merchantKey) {
+        entityManager.flush();
+        int detected = subscriptionDetectionService.detectForMerchants(user, List.of(merchantKey));
+        entityManager.flush();
+        return detected;
+    }
+
+    private void assertLinked(Subscription subscription, List<Transaction> charges, BillingCycle cycle) {
+        List<Map<String, Object>> links = jdbcTemplate.queryForList("SELECT transaction_id, billing_period_start, billing_period_end " +
+                "FROM subscription_transactions WHERE subscription_id = ? ORDER BY billing_period_start", subscription.getId());
+        assertEquals(charges.size(), links.size());
+
+        for (int i = 0; i < charges.size(); i++) {
+            Transaction charge = charges.get(i);
+            LocalDate start = charge.getTransactionDate();
+            LocalDate end = (switch (cycle) {
+                case Monthly -> start.plusMonths(1);
+                case Quarterly -> start.plusMonths(3);
+                case Yearly -> start.plusYears(1);
+            }).minusDays(1);
+
+            assertEquals(charge.getId(), links.get(i).get("transaction_id"));
+            assertEquals(start, ((java.sql.Date) links.get(i).get("billing_period_start")).toLocalDate());
+            assertEquals(end, ((java.sql.Date) links.get(i).get("billing_period_end")).toLocalDate());
+            assertTrue(charge.getSubscription());
+            assertEquals(subscription.getId(), charge.getLinkedSubscription().getId());
+            assertEquals(cycle.name(), charge.getRecurrencePattern());
+        }
+    }
+
+    private Subscription subscription(String merchantKey) {
+        return subscriptionRepository.findByUserIdAndServiceName(user.getId(), merchantKey).orElseThrow();
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private Transaction debit(String merchantKey, LocalDate date, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setBankAccount(account);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        transaction.setDescription(merchantKey.toUpperCase());
+        transaction.setMerchantName(merchantKey.toUpperCase());
+        transaction.setMerchantKey(merchantKey);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTransactionType(TransactionType.Debit);
+        return entityManager.persist(transaction);
+    }
+}
@@ -0,0 +1,195 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.StatementUpload;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Runs the unnest insert and the fingerprint lookup against PostgreSQL, with the schema Hibernate
+ * generates from the entities, so the column list, casts and conflict target are all exercised.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TransactionBatchWriter.class, TransactionBatchWriterPostgresTest.Metrics.class})
+class TransactionBatchWriterPostgresTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        StatementProcessingProperties statementProcessingProperties() {
+            StatementProcessingProperties properties = new StatementProcessingProperties();
+            // Small batches, so a write spans several statements
+            properties.setInsertBatchSize(2);
+            return properties;
+        }
+    }
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionBatchWriter writer;
+
+
+    private User user;
+    private BankAccount account;
+    private Category category;
+    private StatementUpload upload;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("user@example.com", "Ada", "Lovelace"));
+        account = new BankAccount(user, "DBS", "Savings", "****0001");
+        account.setActive(true);
+        entityManager.persist(account);
+
+        category = new Category();
+        category.setName("Groceries");
+        category.setUser(user);
+        entityManager.persist(category);
+
+        upload = new StatementUpload();
+        upload.setUser(user);
+        upload.setBankAccount(account);
+        upload.setFileName("statement.pdf");
+        upload.setFileSize(1024L);
+        upload.setContentSha256("sha");
+        upload.setS3Key("statements/1");
+        entityManager.persist(upload);
+        entityManager.flush();
+    }
+
+    @Test
+    void everyColumnIsWrittenAsSent() {
+        Transaction transaction = transaction("fp-1", LocalDate.of(2025, 3, 8), "12.34");
+        transaction.setBalanceAfter(new BigDecimal("987.65"));
+        transaction.setCategoryConfidence(0.75);
+        transaction.setTimeOfDay(LocalTime.of(18, 30));
+        transaction.setDayOfWeek(6);
+        transaction.setWeekend(true);
+        transaction.setSubscription(false);
+        transaction.setMerchantKey("ntuc");
+
+        assertEquals(1, writer.writeAll(List.of(transaction)));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM transactions WHERE id = ?", transaction.getId());
+        assertEquals(user.getId(), row.get("user_id"));
+        assertEquals(account.getId(), row.get("bank_account_id"));
+        assertEquals(upload.getId(), row.get("statement_upload_id"));
+        assertEquals(category.getId(), row.get("category_id"));
+        assertEquals(LocalDate.of(2025, 3, 8), ((java.sql.Date) row.get("transaction_date")).toLocalDate());
+        assertEquals(0, new BigDecimal("12.34").compareTo((BigDecimal) row.get("amount")));
+        assertEquals(0, new BigDecimal("987.65").compareTo((BigDecimal) row.get("balance_after")));
+        assertEquals("Debit", row.get("transaction_type"));
+        assertEquals(0.75, ((Number) row.get("category_confidence")).doubleValue());
+        assertEquals(LocalTime.of(18, 30), ((java.sql.Time) row.get("time_of_day")).toLocalTime());
+        assertEquals(6, ((Number) row.get("day_of_week")).intValue());
+        assertEquals(true, row.get("is_weekend"));
+        assertEquals(false, row.get("is_manually_categorized"));
+        assertEquals("ntuc", row.get("merchant_key"));
+        assertEquals("fp-1", row.get("fingerprint"));
+        assertNull(row.get("updated_at"));
+    }
+
+    @Test
+    void rowsAcrossSeveralBatchesAreAllInserted() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int day = 1; day <= 5; day++) {
+            transactions.add(transaction("fp-" + day, LocalDate.of(2025, 3, day), "1.00"));
+        }
+
+        assertEquals(5, writer.writeAll(transactions));
+        assertEquals(5, countTransactions());
+    }
+
+    @Test
+    void storedFingerprintsAreSkipped() {
+        writer.writeAll(List.of(
+                transaction("fp-1", LocalDate.of(2025, 3, 1), "1.00"),
+                transaction("fp-2", LocalDate.of(2025, 3, 2), "2.00")));
+
+        // An overlapping statement: one row already imported, one new
+        int written = writer.writeAll(List.of(
+                transaction("fp-2", LocalDate.of(2025, 3, 2), "2.00"),
+                transaction("fp-3", LocalDate.of(2025, 3, 3), "3.00")));
+
+        assertEquals(1, written);
+        assertEquals(3, countTransactions());
+    }
+
+    @Test
+    void conflictingRowsAreLeftOutOfTheInsertedCount() {
+        // Neither is stored yet, so both pass the lookup and the unique key decides in the insert itself
+        Transaction first = transaction("fp-1", LocalDate.of(2025, 3, 1), "1.00");
+        Transaction duplicate = transaction("fp-1", LocalDate.of(2025, 3, 1), "1.00");
+
+        assertEquals(1, writer.writeAll(List.of(first, duplicate)));
+        assertEquals(1, countTransactions());
+    }
+
+    @Test
+    void rowsWithoutFingerprintAreAlwaysInserted() {
+        assertEquals(2, writer.writeAll(List.of(
+                transaction(null, LocalDate.of(2025, 3, 1), "1.00"),
+                transaction(null, LocalDate.of(2025, 3, 1), "1.00"))));
+        assertEquals(2, countTransactions());
+    }
+
+    private int countTransactions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ?", Integer.class, user.getId());
+    }
+
+    private Transaction transaction(String fingerprint, LocalDate date, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(user);
+        transaction.setBankAccount(account);
+        transaction.setStatementUpload(upload);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        transaction.setDescription("NTUC FAIRPRICE");
+        transaction.setMerchantName("NTUC FAIRPRICE");
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setTransactionType(TransactionType.Debit);
+        transaction.setFingerprint(fingerprint);
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transaction;
+    }
+}
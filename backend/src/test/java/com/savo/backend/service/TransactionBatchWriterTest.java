@@ -0,0 +1,90 @@
+package com.savo.backend.service;
+
+import com.savo.backend.config.StatementProcessingProperties;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.event.TransactionChangeEvent;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransactionBatchWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TransactionBatchWriter writer =
+            new TransactionBatchWriter(jdbcTemplate, eventPublisher, new StatementProcessingProperties(), meterRegistry);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rowsSkippedByConcurrentImportAreNotCountedOrPublished() {
+        Transaction first = transaction("tx-1", "fp-1", LocalDate.of(2025, 1, 1));
+        Transaction second = transaction("tx-2", "fp-2", LocalDate.of(2025, 1, 2));
+
+        // No fingerprints stored yet, then the insert loses tx-2 to a concurrent import
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(), List.of("tx-1"));
+
+        int written = writer.writeAll(List.of(first, second));
+
+        assertEquals(1, written);
+        assertEquals(1.0, meterRegistry.get("statement.import.rows").counter().count());
+
+        ArgumentCaptor<TransactionChangeEvent> event = ArgumentCaptor.forClass(TransactionChangeEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(1, event.getValue().getChanges().size());
+        assertEquals(LocalDate.of(2025, 1, 1), event.getValue().getChanges().get(0).getTransactionDate());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nothingIsPublishedWhenEveryRowConflicts() {
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(RowMapper.class)))
+                .thenReturn(List.of(), List.of());
+
+        int written = writer.writeAll(List.of(transaction("tx-1", "fp-1", LocalDate.of(2025, 1, 1))));
+
+        assertEquals(0, written);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static Transaction transaction(String id, String fingerprint, LocalDate date) {
+        User user = new User();
+        user.setId("user-1");
+        BankAccount account = new BankAccount();
+        account.setId("account-1");
+        Category category = new Category();
+        category.setId("category-1");
+
+        Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setUser(user);
+        transaction.setBankAccount(account);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        transaction.setDescription("Coffee");
+        transaction.setMerchantName("Coffee");
+        transaction.setAmount(new BigDecimal("4.50"));
+        transaction.setTransactionType(TransactionType.Debit);
+        transaction.setFingerprint(fingerprint);
+        transaction.setCreatedAt(LocalDateTime.now());
+        return transaction;
+    }
+}
@@ -0,0 +1,232 @@
+package com.savo.backend.service;
+
+import com.savo.backend.controller.TransactionController;
+import com.savo.backend.dto.transaction.TransactionFilterDTO;
+import com.savo.backend.dto.transaction.TransactionPageResponseDTO;
+import com.savo.backend.dto.transaction.TransactionResponseDTO;
+import com.savo.backend.enums.TransactionType;
+import com.savo.backend.exception.ValidationException;
+import com.savo.backend.model.BankAccount;
+import com.savo.backend.model.Category;
+import com.savo.backend.model.Transaction;
+import com.savo.backend.model.User;
+import com.savo.backend.service.impl.TransactionServiceImpl;
+import com.savo.backend.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Walks the transaction listing page by page on PostgreSQL and checks every row comes back exactly once,
+ * in (transaction_date, created_at, id) descending order, when many rows share a date and a creation time.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(TransactionServiceImpl.class)
+class TransactionPaginationTest {
+
+    private static final int DAYS = 4;
+    private static final int ROWS_PER_DAY = 6;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        PostgresTestDatabase.register(registry);
+    }
+
+    @Autowired private TestEntityManager entityManager;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionServiceImpl transactionService;
+
+    @MockitoBean private SpendingRollupService spendingRollupService;
+    @MockitoBean private MerchantCategoryOverrides merchantCategoryOverrides;
+    @MockitoBean private SubscriptionDetectionService subscriptionDetectionService;
+
+    private User user;
+    private BankAccount savings;
+    private Category groceries;
+    private List<Transaction> transactions;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(new User("user@example.com", "Ada", "Lovelace"));
+        User otherUser = entityManager.persist(new User("other@example.com", "Grace", "Hopper"));
+        savings = account(user, "****0001");
+        BankAccount credit = account(user, "****0002");
+        groceries = category("Groceries");
+        Category transport = category("Transport");
+
+        // Each day's rows share a date, and come in two imports that each share a creation time,
+        // so only the id breaks the tie within an import
+        transactions = new ArrayList<>();
+        for (int day = 0; day < DAYS; day++) {
+            for (int row = 0; row < ROWS_PER_DAY; row++) {
+                int n = day * ROWS_PER_DAY + row;
+                transactions.add(transaction(user, n % 3 == 0 ? credit : savings, n % 2 == 0 ? groceries : transport,
+                        LocalDate.of(2025, 3, 1 + day), new BigDecimal(5 + n),
+                        n % 4 == 0 ? TransactionType.Credit : TransactionType.Debit));
+            }
+        }
+        transaction(otherUser, account(otherUser, "****0003"), groceries, LocalDate.of(2025, 3, 2), BigDecimal.TEN, TransactionType.Debit);
+        entityManager.flush();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction transaction = transactions.get(i);
+            int day = i / ROWS_PER_DAY;
+            LocalDateTime createdAt = LocalDateTime.of(2025, 4, 1, 9, 0).plusHours(day).plusMinutes(i % ROWS_PER_DAY < 3 ? 0 : 1);
+            jdbcTemplate.update("UPDATE transactions SET created_at = ? WHERE id = ?", Timestamp.valueOf(createdAt), transaction.getId());
+            transaction.setCreatedAt(createdAt);
+        }
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void everyRowIsListedOnceAcrossPages() {
+        List<String> listed = listAll(null, 4);
+
+        assertEquals(expected(transaction -> true), listed);
+    }
+
+    @Test
+    void pageSizeDividingTheRowsExactlyEndsWithoutAnEmptyPage() {
+        List<TransactionPageResponseDTO> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageResponseDTO page = transactionService.getUserTransactions(user.getId(), null, cursor, ROWS_PER_DAY);
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(DAYS, pages.size());
+        pages.forEach(page -> assertEquals(ROWS_PER_DAY, page.getTransactions().size()));
+    }
+
+    @Test
+    void combinedFiltersPageThroughTheMatchingRowsOnly() {
+        TransactionFilterDTO filter = new TransactionFilterDTO();
+        filter.setTransactionType(TransactionType.Debit);
+        filter.setBankAccountId(savings.getId());
+        filter.setCategoryId(groceries.getId());
+        filter.setStartDate(LocalDate.of(2025, 3, 2));
+        filter.setEndDate(LocalDate.of(2025, 3, 4));
+        filter.setMinAmount(new BigDecimal("12"));
+
+        List<String> listed = listAll(filter, 2);
+
+        List<String> matching = expected(transaction -> transaction.getTransactionType() == TransactionType.Debit
+                && transaction.getBankAccount() == savings
+                && transaction.getCategory() == groceries
+                && !transaction.getTransactionDate().isBefore(LocalDate.of(2025, 3, 2))
+                && transaction.getAmount().compareTo(new BigDecimal("12")) >= 0);
+        assertTrue(matching.size() > 2, "filter should span several pages");
+        assertEquals(matching, listed);
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThrows(ValidationException.class,
+                () -> transactionService.getUserTransactions(user.getId(), null, "not-a-cursor", 10));
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TransactionController(transactionService))
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .build();
+        org.springframework.security.core.userdetails.User principal = new org.springframework.security.core.userdetails.User(
+                user.getId(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        mockMvc.perform(get("/api/v1/users/transactions").param("cursor", "bm90LWEtY3Vyc29y"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // Follows nextCursor to the end, failing on a repeated row
+    private List<String> listAll(TransactionFilterDTO filter, int pageSize) {
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageResponseDTO page = transactionService.getUserTransactions(user.getId(), filter, cursor, pageSize);
+            for (TransactionResponseDTO transaction : page.getTransactions()) {
+                listed.add(transaction.getId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(listed.size(), new HashSet<>(listed).size(), "a row was listed twice");
+        return listed;
+    }
+
+    private List<String> expected(Predicate<Transaction> filter) {
+        return transactions.stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Transaction::getTransactionDate)
+                        .thenComparing(Transaction::getCreatedAt)
+                        .thenComparing(Transaction::getId)
+                        .reversed())
+                .map(Transaction::getId)
+                .toList();
+    }
+
+    private BankAccount account(User owner, String maskedNumber) {
+        BankAccount account = new BankAccount(owner, "DBS", "Savings", maskedNumber);
+        account.setActive(true);
+        return entityManager.persist(account);
+    }
+
+    private Category category(String name) {
+        Category category = new Category();
+        category.setName(name);
+        category.setUser(user);
+        return entityManager.persist(category);
+    }
+
+    private Transaction transaction(User owner, BankAccount account, Category category, LocalDate date, BigDecimal amount,
+                                    TransactionType type) {
+        Transaction transaction = new Transaction();
+        transaction.setUser(owner);
+        transaction.setBankAccount(account);
+        transaction.setCategory(category);
+        transaction.setTransactionDate(date);
+        transaction.setDescription("Purchase");
+        transaction.setMerchantName("Merchant");
+        transaction.setAmount(amount);
+        transaction.setTransactionType(type);
+        return entityManager.persist(transaction);
+    }
+}
@@ -0,0 +1,47 @@
+package com.savo.backend.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * One embedded PostgreSQL per test JVM, for tests of the native SQL that H2 cannot run
+ * (unnest, ON CONFLICT, gen_random_uuid). Hibernate creates the schema from the entities, as it
+ * does for the H2 tests. Use with @AutoConfigureTestDatabase(replace = NONE):
+ *
+ * @DynamicPropertySource
+ * static void database(DynamicPropertyRegistry registry) { PostgresTestDatabase.register(registry); }
+ */
+public final class PostgresTestDatabase {
+
+    private static EmbeddedPostgres postgres;
+
+    private PostgresTestDatabase() {}
+
+    public static void register(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> start().getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    private static synchronized EmbeddedPostgres start() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // The JVM is exiting; the data directory is a temp directory either way
+                }
+            }));
+        }
+        return postgres;
+    }
+}